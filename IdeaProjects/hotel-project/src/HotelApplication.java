@@ -3,6 +3,13 @@ import com.hotel.ui.AdminMenu;
 import com.hotel.service.ReservationService;
 import com.hotel.service.CustomerService;
 import com.hotel.model.*;
+import com.hotel.persistence.FileStorage;
+import com.hotel.persistence.HotelPersistence;
+import com.hotel.persistence.StayArchive;
+import com.hotel.persistence.SyncPolicy;
+import com.hotel.repository.Storage;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 
 public class HotelApplication {
@@ -11,8 +18,15 @@ public class HotelApplication {
         System.out.println("    HOTEL RESERVATION APPLICATION");
         System.out.println("=========================================\n");
 
-        // Initialize with some sample data
-        initializeSampleData();
+        // Restore saved data, or start from sample data on first run
+        FileStorage storage = openStorage();
+        HotelPersistence persistence = storage == null ? openPersistence() : null;
+        boolean restored = storage != null ? storage.getLoadedRecords() > 0
+                : persistence != null && persistence.getReplayedRecords() > 0;
+        if (!restored) {
+            initializeSampleData();
+        }
+        StayArchive archive = storage != null ? openArchive(storage) : null;
 
         // Create menu instances
         MainMenu mainMenu = new MainMenu();
@@ -36,10 +50,114 @@ public class HotelApplication {
             }
         }
 
+        closePersistence(persistence);
+        closeStorage(storage);
+        closeArchive(archive);
         System.out.println("\nThank you for using the Hotel Reservation System!");
         System.out.println("Goodbye!");
     }
 
+    // -Dhotel.storage=file keeps the data in a file-backed storage under
+    // hotel.dataDir (synced per hotel.syncPolicy) instead of in memory with a
+    // journal. Returns null for the default in-memory storage.
+    private static FileStorage openStorage() {
+        String kind = System.getProperty("hotel.storage", "memory").toLowerCase();
+        if (kind.equals("memory")) {
+            return null;
+        }
+        if (!kind.equals("file")) {
+            System.out.println("✗ Unknown storage '" + kind + "', using memory\n");
+            return null;
+        }
+        String dataDir = System.getProperty("hotel.dataDir", "hotel-data");
+        SyncPolicy policy = SyncPolicy.valueOf(System.getProperty("hotel.syncPolicy", "BATCHED").toUpperCase());
+        try {
+            long start = System.nanoTime();
+            FileStorage storage = FileStorage.open(Paths.get(dataDir), policy);
+            Storage.install(storage);
+            if (storage.getLoadedRecords() > 0) {
+                System.out.println("✓ Loaded " + storage.getLoadedRecords() + " records from file storage in "
+                        + dataDir + " in " + (System.nanoTime() - start) / 1_000_000 + " ms\n");
+            }
+            return storage;
+        } catch (IOException e) {
+            System.out.println("✗ Could not open file storage in " + dataDir + ": " + e.getMessage());
+            System.out.println("  Using memory with the journal instead.\n");
+            return null;
+        }
+    }
+
+    private static void closeStorage(FileStorage storage) {
+        if (storage == null) {
+            return;
+        }
+        try {
+            storage.close();
+        } catch (IOException e) {
+            System.out.println("✗ Error saving data: " + e.getMessage());
+        }
+    }
+
+    // With file storage, stays that have ended move to the archive in the
+    // storage directory at startup (HotelPersistence does this by itself)
+    private static StayArchive openArchive(FileStorage storage) {
+        try {
+            StayArchive archive = StayArchive.open(storage.getDir().resolve("archive"));
+            ReservationService reservationService = ReservationService.getInstance();
+            reservationService.attachArchive(archive);
+            reservationService.archivePastStays(LocalDate.now());
+            return archive;
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("✗ Could not archive past stays: " + e.getMessage() + "\n");
+            return null;
+        }
+    }
+
+    private static void closeArchive(StayArchive archive) {
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.close();
+        } catch (IOException e) {
+            System.out.println("✗ Error closing the stay archive: " + e.getMessage());
+        }
+    }
+
+    // Journal changes under -Dhotel.dataDir (default hotel-data), synced per
+    // -Dhotel.syncPolicy (PER_WRITE, BATCHED or ASYNC; default BATCHED).
+    // Snapshots are taken in the background every 10 minutes.
+    private static HotelPersistence openPersistence() {
+        String dataDir = System.getProperty("hotel.dataDir", "hotel-data");
+        SyncPolicy policy = SyncPolicy.valueOf(System.getProperty("hotel.syncPolicy", "BATCHED").toUpperCase());
+        try {
+            long start = System.nanoTime();
+            HotelPersistence persistence = HotelPersistence.open(Paths.get(dataDir), policy);
+            if (persistence.getReplayedRecords() > 0) {
+                System.out.println("✓ Restored " + persistence.getSnapshotRecords() + " snapshot and "
+                        + (persistence.getReplayedRecords() - persistence.getSnapshotRecords())
+                        + " journal records from " + dataDir + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms\n");
+            }
+            return persistence;
+        } catch (IOException e) {
+            System.out.println("✗ Could not open data directory " + dataDir + ": " + e.getMessage());
+            System.out.println("  Changes will not be saved.\n");
+            return null;
+        }
+    }
+
+    private static void closePersistence(HotelPersistence persistence) {
+        if (persistence == null) {
+            return;
+        }
+        try {
+            persistence.close();
+        } catch (IOException e) {
+            System.out.println("✗ Error saving data: " + e.getMessage());
+        }
+    }
+
     private static void initializeSampleData() {
         System.out.println("Initializing sample data...\n");
 
@@ -1,12 +1,20 @@
 package com.hotel.api;
 
+import com.hotel.io.BulkImporter;
+import com.hotel.io.ImportReport;
+import com.hotel.io.ReservationExporter;
 import com.hotel.model.Customer;
 import com.hotel.model.IRoom;
 import com.hotel.model.Room;
 import com.hotel.model.RoomType;
 import com.hotel.service.CustomerService;
 import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Scanner;
 
 public class AdminResource {
@@ -137,4 +145,60 @@ public class AdminResource {
     public void displayAllCustomers() {
         customerService.printAllCustomers();
     }
+
+    // 9. Bulk import rooms, customers or reservations from a CSV/NDJSON file
+    public ImportReport importFile(String kind, String path) throws IOException {
+        return new BulkImporter().importFile(kind, Paths.get(path));
+    }
+
+    // 10. Import a file with user input and print the outcome
+    public void importFileWithInput(Scanner scanner) {
+        try {
+            System.out.println("\n=== IMPORT DATA ===");
+            System.out.print("What to import (rooms/customers/reservations): ");
+            String kind = scanner.nextLine().trim();
+            System.out.print("File path (.csv, .ndjson or .jsonl): ");
+            String path = scanner.nextLine().trim();
+
+            ImportReport report = importFile(kind, path);
+            System.out.println("✓ " + report);
+            for (String error : report.getErrors()) {
+                System.out.println("  " + error);
+            }
+            if (report.getRejected() > report.getErrors().size()) {
+                System.out.println("  ... and " + (report.getRejected() - report.getErrors().size()) + " more");
+            }
+        } catch (Exception e) {
+            System.out.println("Error importing file: " + e.getMessage());
+        }
+    }
+
+    // 11. Export reservations checking in within [from, to) (null = unbounded) for
+    // the given rooms (null or empty = all) to a CSV/NDJSON file; returns the count
+    public long exportReservations(String path, LocalDate from, LocalDate to, Collection<String> roomNumbers)
+            throws IOException {
+        return new ReservationExporter().export(Paths.get(path), from, to, roomNumbers);
+    }
+
+    // 12. Export reservations with user input
+    public void exportReservationsWithInput(Scanner scanner) {
+        try {
+            System.out.println("\n=== EXPORT RESERVATIONS ===");
+            System.out.print("File path (.csv, .ndjson or .jsonl): ");
+            String path = scanner.nextLine().trim();
+            System.out.print("Check-in from (yyyy-MM-dd, blank = any): ");
+            String from = scanner.nextLine().trim();
+            System.out.print("Check-in before (yyyy-MM-dd, blank = any): ");
+            String to = scanner.nextLine().trim();
+            System.out.print("Room numbers, comma separated (blank = all): ");
+            String rooms = scanner.nextLine().trim();
+
+            List<String> roomNumbers = rooms.isEmpty() ? null : Arrays.asList(rooms.split("\\s*,\\s*"));
+            long count = exportReservations(path, from.isEmpty() ? null : LocalDate.parse(from),
+                    to.isEmpty() ? null : LocalDate.parse(to), roomNumbers);
+            System.out.println("✓ Exported " + count + " reservations to " + path);
+        } catch (Exception e) {
+            System.out.println("Error exporting reservations: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.hotel.api;
+
+import com.hotel.model.Reservation;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Outcomes of bookings by idempotency key, so a client retrying after a
+// timeout gets its original reservation back instead of a second booking or
+// a "not available" error. A retry that arrives while the first attempt is
+// still running waits for it. Only successful bookings are kept: a failed
+// attempt is forgotten (its waiters get the same error) and can be retried,
+// and so is a booking that has since been cancelled or moved.
+//
+// Bounded in both size and age: keys expire after a fixed time, and the
+// oldest are dropped once the table is full. Every key gets the same
+// lifetime, so completed bookings queue up in (nearly) expiry order and one
+// FIFO queue serves both.
+final class BookingDedupTable {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<Entry> byAge = new ArrayDeque<>(); // completed bookings, oldest first (guarded)
+    private final AtomicInteger size = new AtomicInteger();
+
+    BookingDedupTable(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Dedup table size and lifetime must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    // Keys currently remembered (including attempts still running)
+    int size() {
+        return size.get();
+    }
+
+    // The reservation booked under key: the remembered one if the same booking
+    // was made under this key before and is still booked, otherwise whatever
+    // book returns
+    Reservation getOrBook(String key, String email, String roomNumber, LocalDate checkIn, LocalDate checkOut,
+                          Supplier<Reservation> book, Predicate<Reservation> stillBooked) {
+        String request = email.toLowerCase(Locale.ROOT) + '|' + roomNumber + '|' + checkIn + '|' + checkOut;
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.get(key);
+            if (existing != null && now - existing.expiresAt >= 0) {
+                remove(existing);
+                continue;
+            }
+            if (existing != null) {
+                if (!existing.request.equals(request)) {
+                    throw new IllegalArgumentException("Idempotency key " + key + " was used for a different booking");
+                }
+                Reservation remembered = await(existing);
+                if (stillBooked.test(remembered)) {
+                    return remembered;
+                }
+                remove(existing); // cancelled or moved since: book it again
+                continue;
+            }
+
+            Entry mine = new Entry(key, request, now + ttlNanos);
+            if (entries.putIfAbsent(key, mine) != null) {
+                continue; // another attempt got in first
+            }
+            size.incrementAndGet();
+            Reservation reservation;
+            try {
+                reservation = book.get();
+            } catch (RuntimeException e) {
+                mine.outcome.completeExceptionally(e);
+                remove(mine);
+                throw e;
+            }
+            mine.outcome.complete(reservation);
+            remember(mine);
+            return reservation;
+        }
+    }
+
+    // Helper method: queue a completed booking, dropping expired keys and then
+    // the oldest while over the limit (entries already gone from the map are
+    // just dequeued)
+    private void remember(Entry entry) {
+        synchronized (byAge) {
+            byAge.addLast(entry);
+            long now = System.nanoTime();
+            Entry oldest;
+            while ((oldest = byAge.peekFirst()) != null && (now - oldest.expiresAt >= 0
+                    || size.get() > maxEntries || entries.get(oldest.key) != oldest)) {
+                byAge.pollFirst();
+                remove(oldest);
+            }
+        }
+    }
+
+    // Helper method: forget an entry unless it has been replaced already
+    private void remove(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    // Helper method: the outcome of an attempt, rethrowing its failure
+    private static Reservation await(Entry entry) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return entry.outcome.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // One booking attempt: its key, what it booked, and when the key expires
+    private static final class Entry {
+        final String key;
+        final String request;
+        final long expiresAt;
+        final CompletableFuture<Reservation> outcome = new CompletableFuture<>();
+
+        Entry(String key, String request, long expiresAt) {
+            this.key = key;
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
\ No newline at end of file
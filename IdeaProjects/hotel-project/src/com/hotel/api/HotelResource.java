@@ -1,25 +1,37 @@
 package com.hotel.api;
 
+import com.hotel.model.AvailabilityWindow;
+import com.hotel.model.BookingRequest;
+import com.hotel.model.BookingResult;
 import com.hotel.model.Customer;
 import com.hotel.model.IRoom;
 import com.hotel.model.Reservation;
+import com.hotel.model.RoomFilter;
 import com.hotel.service.CustomerService;
 import com.hotel.service.ReservationService;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class HotelResource {
     // Static reference (Facade pattern)
     private static final HotelResource INSTANCE = new HotelResource();
 
+    // Bookings remembered by idempotency key, for clients that retry
+    public static final int DEDUP_MAX_KEYS = 100_000;
+    public static final long DEDUP_KEY_HOURS = 24;
+
     // Service dependencies
     private final CustomerService customerService;
     private final ReservationService reservationService;
+    private final BookingDedupTable bookingsByKey;
 
     private HotelResource() {
         this.customerService = CustomerService.getInstance();
         this.reservationService = ReservationService.getInstance();
+        this.bookingsByKey = new BookingDedupTable(DEDUP_MAX_KEYS, DEDUP_KEY_HOURS, TimeUnit.HOURS);
     }
 
     public static HotelResource getInstance() {
@@ -72,6 +84,41 @@ public class HotelResource {
         return reservationService.reserveARoom(customer, room, checkInDate, checkOutDate);
     }
 
+    // 4a. Book a room under a client-chosen idempotency key: a retry with the
+    // same key and booking gets the original reservation back, before any
+    // customer lookup or availability check (and waits if the first attempt
+    // is still running). A reservation cancelled or moved since is not handed
+    // back; the retry books again. Reusing a key for a different booking is
+    // an error.
+    public Reservation bookARoom(String idempotencyKey, String customerEmail, IRoom room,
+                                 LocalDate checkInDate, LocalDate checkOutDate) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be empty");
+        }
+        if (customerEmail == null || room == null || checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Customer, room and dates are required");
+        }
+        return bookingsByKey.getOrBook(idempotencyKey, customerEmail, room.getRoomNumber(), checkInDate,
+                checkOutDate, () -> bookARoom(customerEmail, room, checkInDate, checkOutDate),
+                reservation -> reservation.equals(reservationService.getReservation(reservation.getId())));
+    }
+
+    // Idempotency keys remembered right now
+    public int getRememberedBookingKeys() {
+        return bookingsByKey.size();
+    }
+
+    // 4b. Book a group of rooms for one customer, all or nothing
+    public List<BookingResult> bookRooms(String customerEmail, List<BookingRequest> requests) {
+        // Get customer once for the whole group
+        Customer customer = getCustomer(customerEmail);
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer not found: " + customerEmail);
+        }
+
+        return reservationService.reserveRooms(customer, requests);
+    }
+
     // 5. Get customer's reservations
     public Collection<Reservation> getCustomersReservations(String customerEmail) {
         Customer customer = getCustomer(customerEmail);
@@ -82,8 +129,47 @@ public class HotelResource {
         return reservationService.getCustomersReservation(customer);
     }
 
+    // 5b. Get customer's upcoming reservations (checking in today or later)
+    public Collection<Reservation> getUpcomingReservations(String customerEmail) {
+        Customer customer = getCustomer(customerEmail);
+        if (customer == null) {
+            return new ArrayList<>(); // Return empty list
+        }
+        return reservationService.getUpcomingReservations(customer);
+    }
+
     // 6. Find available rooms
     public Collection<IRoom> findARoom(LocalDate checkIn, LocalDate checkOut) {
         return reservationService.findRooms(checkIn, checkOut);
     }
+
+    // 6b. Find available rooms matching a filter (type, view, balcony, floors, amenities)
+    public Collection<IRoom> findARoom(LocalDate checkIn, LocalDate checkOut, RoomFilter filter) {
+        return reservationService.findRooms(checkIn, checkOut, filter);
+    }
+
+    // 7. Find the nearest dates (check-in moved up to +/- flexibilityDays) with free rooms
+    public List<AvailabilityWindow> findAvailableWindows(LocalDate checkIn, LocalDate checkOut,
+                                                         int flexibilityDays, int maxResults) {
+        return reservationService.findAvailableWindows(checkIn, checkOut, flexibilityDays, maxResults);
+    }
+
+    // 8. Get a reservation by its id
+    public Reservation getReservation(long reservationId) {
+        Reservation reservation = reservationService.getReservation(reservationId);
+        if (reservation == null) {
+            System.out.println("No reservation found with ID: " + reservationId);
+        }
+        return reservation;
+    }
+
+    // 9. Cancel a reservation by its id
+    public Reservation cancelReservation(long reservationId) {
+        return reservationService.cancelReservation(reservationId);
+    }
+
+    // 10. Move a reservation to new dates in the same room, keeping its id
+    public Reservation changeReservationDates(long reservationId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return reservationService.changeReservationDates(reservationId, checkInDate, checkOutDate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.hotel.bench;
+
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomFilter;
+import com.hotel.model.RoomType;
+import com.hotel.service.ReservationService;
+import java.time.LocalDate;
+
+// Heap per room, reading a room's amenities and availability searches
+// filtered on amenities, over rooms with every mix of type, floor, balcony
+// and sea view.
+// Run: java com.hotel.bench.AmenityBenchmark [rooms] [iterationMillis]
+public class AmenityBenchmark {
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+
+        BenchmarkHarness.silenceServiceOutput();
+        ReservationService reservationService = ReservationService.getInstance();
+        reservationService.setLoggingEnabled(false);
+
+        long heapBefore = usedHeapBytes();
+        Room[] rooms = new Room[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = newRoom(i);
+        }
+        long heapAfter = usedHeapBytes();
+        for (Room room : rooms) {
+            reservationService.addRoom(room);
+        }
+
+        BenchmarkHarness.report(String.format("=== AMENITY BENCHMARK (%,d rooms) ===", roomCount));
+        BenchmarkHarness.report(String.format("Heap per room: %,d bytes", (heapAfter - heapBefore) / roomCount));
+        BenchmarkHarness harness = new BenchmarkHarness(1, 3, iterationMillis);
+        BenchmarkHarness.printHeader();
+        harness.measure("getAmenities", "", invocation ->
+                rooms[invocation % roomCount].getAmenities().size());
+        harness.measure("count rooms with amenity", "", invocation -> {
+            int count = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (rooms[(invocation * 1000 + i) % roomCount].getAmenities().contains("Ocean View")) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        harness.measure("count rooms with amenity, hasAmenity", "", invocation -> {
+            int count = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (rooms[(invocation * 1000 + i) % roomCount].hasAmenity("Ocean View")) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        LocalDate today = LocalDate.now();
+        RoomFilter oneAmenity = new RoomFilter().withAmenity("Ocean View");
+        RoomFilter threeAmenities = new RoomFilter().withAmenity("Ocean View").withAmenity("Work Desk")
+                .withAmenity("Coffee/Tea Maker");
+        harness.measure("findRooms + 1 amenity", "", invocation -> {
+            LocalDate checkIn = today.plusDays(invocation % 60);
+            return reservationService.findRooms(checkIn, checkIn.plusDays(2), oneAmenity).size();
+        });
+        harness.measure("findRooms + 3 amenities", "", invocation -> {
+            LocalDate checkIn = today.plusDays(invocation % 60);
+            return reservationService.findRooms(checkIn, checkIn.plusDays(2), threeAmenities).size();
+        });
+    }
+
+    // Room i: types, floors 1-5, balconies and sea views in rotation
+    private static Room newRoom(int i) {
+        RoomType[] types = RoomType.values();
+        return new Room(roomNumber(i), 50.0 + i % 200, types[i % types.length],
+                1 + i % 5, i % 3 == 0, i % 4 == 0);
+    }
+
+    private static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.hotel.bench;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.persistence.StayArchive;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Customer lookups and availability searches over a hotel whose stays are
+// mostly in the past, before and after archiving the ended ones, with the
+// heap they take and the archive's size on disk.
+// Run: java -Xmx4g com.hotel.bench.ArchiveBenchmark [rooms] [pastDays] [futureDays] [iterationMillis]
+public class ArchiveBenchmark {
+    public static void main(String[] args) throws Exception {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int pastDays = args.length > 1 ? Integer.parseInt(args[1]) : 730;
+        int futureDays = args.length > 2 ? Integer.parseInt(args[2]) : 90;
+        long iterationMillis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        BenchmarkHarness.silenceServiceOutput();
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        customerService.setLoggingEnabled(false);
+        reservationService.setLoggingEnabled(false);
+        List<Customer> customers = populate(customerService, reservationService, roomCount, pastDays, futureDays);
+
+        BenchmarkHarness.report(String.format("=== ARCHIVE BENCHMARK (%,d rooms, %,d reservations, %d past / %d future days) ===",
+                roomCount, reservationService.getTotalReservations(), pastDays, futureDays));
+        BenchmarkHarness harness = new BenchmarkHarness(1, 3, iterationMillis);
+        BenchmarkHarness.report(String.format("Heap before archiving: %,d MB", usedHeapMegabytes()));
+        BenchmarkHarness.printHeader();
+        measure(harness, reservationService, customers, "all live");
+
+        Path dir = Files.createTempDirectory("archive-bench");
+        try (StayArchive archive = StayArchive.open(dir)) {
+            reservationService.attachArchive(archive);
+            long start = System.nanoTime();
+            int archived = reservationService.archivePastStays(LocalDate.now());
+            BenchmarkHarness.report(String.format("Archived %,d stays in %,d ms: %,d segment(s), %,d bytes (%.1f B/stay)",
+                    archived, (System.nanoTime() - start) / 1_000_000, archive.getSegmentCount(),
+                    archive.getBytes(), archive.getBytes() / (double) Math.max(1, archived)));
+            BenchmarkHarness.report(String.format("Heap after archiving: %,d MB", usedHeapMegabytes()));
+            BenchmarkHarness.printHeader();
+            measure(harness, reservationService, customers, "archived");
+        }
+    }
+
+    private static void measure(BenchmarkHarness harness, ReservationService service,
+                                List<Customer> customers, String param) {
+        LocalDate today = LocalDate.now();
+        harness.measure("getUpcomingReservations", param, invocation ->
+                service.getUpcomingReservations(customers.get(invocation % customers.size())).size());
+        harness.measure("getCustomersReservation (next 30 days)", param, invocation ->
+                service.getCustomersReservation(customers.get(invocation % customers.size()),
+                        today, today.plusDays(30)).size());
+        harness.measure("getCustomersReservation (full history)", param, invocation ->
+                service.getCustomersReservation(customers.get(invocation % customers.size())).size());
+        service.setOccupancyCalendarEnabled(false);
+        harness.measure("findRooms, interval index", param, invocation -> {
+            LocalDate checkIn = today.plusDays(invocation % 60);
+            return service.findRooms(checkIn, checkIn.plusDays(2)).size();
+        });
+        service.setOccupancyCalendarEnabled(true);
+    }
+
+    // Back-to-back stays in every room from pastDays ago to futureDays ahead,
+    // spread over one customer per ten rooms
+    private static List<Customer> populate(CustomerService customerService, ReservationService reservationService,
+                                           int roomCount, int pastDays, int futureDays) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < Math.max(10, roomCount / 10); i++) {
+            customerService.addCustomer("guest" + i + "@bench.com", "Guest", "No" + i);
+            customers.add(customerService.getCustomer("guest" + i + "@bench.com"));
+        }
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        RoomType[] types = RoomType.values();
+        for (int r = 0; r < roomCount; r++) {
+            IRoom room = new Room(roomNumber(r), 50.0 + r % 200, types[r % types.length]);
+            reservationService.addRoom(room);
+            LocalDate checkIn = today.minusDays(pastDays);
+            while (checkIn.isBefore(today.plusDays(futureDays))) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(4));
+                reservationService.reserveARoom(customers.get(random.nextInt(customers.size())), room,
+                        checkIn, checkOut);
+                checkIn = checkOut;
+            }
+        }
+        return customers;
+    }
+
+    private static long usedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.hotel.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Minimal JMH-style harness: warmup iterations, timed measurement iterations,
+// throughput with error, and bytes allocated per operation on the calling thread.
+// The project has no build tool to pull in JMH, so benchmarks run as plain mains.
+public class BenchmarkHarness {
+    private static final PrintStream CONSOLE = System.out;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    // One benchmark operation; the returned value is consumed so the JIT keeps the work
+    public interface Operation {
+        long run(int invocation);
+    }
+
+    public BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    // Services print a line per insert; keep that out of the measurements
+    public static void silenceServiceOutput() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // Print to the real console even while service output is silenced
+    public static void report(String line) {
+        CONSOLE.println(line);
+    }
+
+    public static void printHeader() {
+        report(String.format("%-44s %10s %4s %14s %12s %12s",
+                "Benchmark", "Param", "Thr", "Score (ops/s)", "Error", "B/op"));
+    }
+
+    // Single-threaded throughput
+    public Result measure(String name, String param, Operation operation) {
+        long sink = 0;
+        int invocation = 0;
+        for (int i = 0; i < warmupIterations; i++) {
+            long end = System.nanoTime() + iterationNanos;
+            while (System.nanoTime() < end) {
+                sink += operation.run(invocation++);
+            }
+        }
+
+        List<Double> scores = new ArrayList<>();
+        long allocatedBefore = allocatedBytes();
+        long totalOps = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            long end = start + iterationNanos;
+            long ops = 0;
+            long now;
+            do {
+                sink += operation.run(invocation++);
+                ops++;
+                now = System.nanoTime();
+            } while (now < end);
+            scores.add(ops * 1e9 / (now - start));
+            totalOps += ops;
+        }
+        double bytesPerOp = (allocatedBytes() - allocatedBefore) / (double) totalOps;
+
+        consume(sink);
+        Result result = new Result(name, param, 1, scores, bytesPerOp);
+        report(result.toString());
+        return result;
+    }
+
+    // Aggregate throughput of several threads running the same operation
+    public Result measureThreaded(String name, String param, int threads, Operation operation)
+            throws InterruptedException {
+        List<Double> scores = new ArrayList<>();
+        for (int i = 0; i < warmupIterations + measurementIterations; i++) {
+            double score = runThreadedIteration(threads, operation, i * 1_000_000);
+            if (i >= warmupIterations) {
+                scores.add(score);
+            }
+        }
+
+        Result result = new Result(name, param, threads, scores, Double.NaN);
+        report(result.toString());
+        return result;
+    }
+
+    private double runThreadedIteration(int threads, Operation operation, int invocationBase)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final int offset = invocationBase + t * 100_000;
+            Thread worker = new Thread(() -> {
+                long sink = 0;
+                int invocation = offset;
+                try {
+                    start.await();
+                    long end = System.nanoTime() + iterationNanos;
+                    while (System.nanoTime() < end) {
+                        sink += operation.run(invocation++);
+                        ops.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    consume(sink);
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return ops.sum() * 1e9 / (System.nanoTime() - begin);
+    }
+
+    // Bytes allocated so far by the current thread (HotSpot), or 0 if unsupported
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static volatile long blackhole;
+
+    private static void consume(long value) {
+        blackhole += value;
+    }
+
+    // Mean throughput with a 99.9% confidence half-width, like JMH prints
+    public static class Result {
+        private final String name;
+        private final String param;
+        private final int threads;
+        private final double mean;
+        private final double error;
+        private final double bytesPerOp;
+
+        Result(String name, String param, int threads, List<Double> scores, double bytesPerOp) {
+            this.name = name;
+            this.param = param;
+            this.threads = threads;
+            this.bytesPerOp = bytesPerOp;
+
+            double sum = 0;
+            for (double score : scores) {
+                sum += score;
+            }
+            this.mean = sum / scores.size();
+
+            double squares = 0;
+            for (double score : scores) {
+                squares += (score - mean) * (score - mean);
+            }
+            double stdev = scores.size() > 1 ? Math.sqrt(squares / (scores.size() - 1)) : 0;
+            this.error = 3.29 * stdev / Math.sqrt(scores.size());
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            String allocation = Double.isNaN(bytesPerOp) ? "-" : String.format("%.1f", bytesPerOp);
+            return String.format("%-44s %10s %4d %14.1f %12s %12s",
+                    name, param, threads, mean, String.format("+- %.1f", error), allocation);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.hotel.bench;
+
+import com.hotel.event.EventStream;
+import com.hotel.event.Subscription;
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Booking throughput with no event subscribers, with one that keeps up, and
+// with that one plus a subscriber that stalls on every batch. Bookers must
+// not slow down because of the slow one: it falls behind and loses events
+// instead. Each subscription's lag and losses are printed after the run.
+// Run: java -cp <classes> com.hotel.bench.EventStreamBenchmark [rooms] [iterationMillis]
+public class EventStreamBenchmark {
+    private static final long SLOW_BATCH_MILLIS = 5;
+
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+
+        BenchmarkHarness.silenceServiceOutput();
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        customerService.setLoggingEnabled(false);
+        reservationService.setLoggingEnabled(false);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            customerService.addCustomer("guest" + i + "@bench.com", "Guest", "No" + i);
+            customers.add(customerService.getCustomer("guest" + i + "@bench.com"));
+        }
+        // Every run books its own rooms, so timelines start empty each time
+        List<List<IRoom>> roomsByRun = new ArrayList<>();
+        RoomType[] types = RoomType.values();
+        for (int run = 0; run < 3; run++) {
+            List<IRoom> rooms = new ArrayList<>();
+            for (int i = run * roomCount; i < (run + 1) * roomCount; i++) {
+                IRoom room = new Room(roomNumber(i), 50.0 + i % 200, types[i % types.length]);
+                reservationService.addRoom(room);
+                rooms.add(room);
+            }
+            roomsByRun.add(rooms);
+        }
+
+        EventStream stream = EventStream.getInstance();
+        BenchmarkHarness.report(String.format("=== EVENT STREAM BENCHMARK (%,d rooms, ring of %,d events) ===",
+                roomCount, stream.getCapacity()));
+        BenchmarkHarness harness = new BenchmarkHarness(1, 3, iterationMillis);
+        BenchmarkHarness.printHeader();
+        book(harness, reservationService, customers, roomsByRun.get(0), "no subscribers");
+
+        LongAdder seen = new LongAdder();
+        Subscription counting = stream.subscribe("counting", (events, count) -> seen.add(count));
+        book(harness, reservationService, customers, roomsByRun.get(1), "1 keeping up");
+
+        Subscription slow = stream.subscribe("slow", (events, count) ->
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(SLOW_BATCH_MILLIS)), 64);
+        book(harness, reservationService, customers, roomsByRun.get(2), "+1 stalling");
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200)); // let the fast one drain
+        BenchmarkHarness.report(String.format("Published %,d events", stream.getPublished()));
+        for (Subscription subscription : stream.getSubscriptions()) {
+            BenchmarkHarness.report("  " + subscription + String.format(", last delivery %,d us",
+                    subscription.getLastDeliveryNanos() / 1000));
+        }
+        counting.close();
+        slow.close();
+    }
+
+    // Back-to-back one-night stays, room by room
+    private static void book(BenchmarkHarness harness, ReservationService service, List<Customer> customers,
+                             List<IRoom> rooms, String param) {
+        LocalDate first = LocalDate.now();
+        harness.measure("reserveARoom", param, invocation -> {
+            LocalDate checkIn = first.plusDays(invocation / rooms.size());
+            service.reserveARoom(customers.get(invocation % customers.size()), rooms.get(invocation % rooms.size()),
+                    checkIn, checkIn.plusDays(1));
+            return 1;
+        });
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.hotel.bench;
+
+import com.hotel.io.ReservationExporter;
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Writing the whole reservation book to a file: printAllReservation() with
+// System.out sent to the file, versus ReservationExporter to CSV and NDJSON.
+// Reports time, output size and bytes allocated per reservation. Every scale
+// runs in its own JVM, since the services are singletons.
+// Run: java -cp <classes> com.hotel.bench.ExportBenchmark [reservations...]
+public class ExportBenchmark {
+    private static final int[] DEFAULT_SCALES = {1_000, 100_000, 1_000_000};
+    private static final int ROUNDS = 3; // best of
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("run")) {
+            run(Integer.parseInt(args[1]));
+            return;
+        }
+
+        int[] scales = DEFAULT_SCALES;
+        if (args.length > 0) {
+            scales = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                scales[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%-12s %-18s %10s %12s %10s%n", "Reservations", "Writer", "Time (ms)", "File bytes",
+                "B/res");
+        for (int scale : scales) {
+            String java = System.getProperty("java.home") + "/bin/java";
+            Process process = new ProcessBuilder(java, "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+                    ExportBenchmark.class.getName(), "run", String.valueOf(scale))
+                    .inheritIO()
+                    .start();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Benchmark fork failed for scale " + scale);
+            }
+        }
+    }
+
+    private static void run(int scale) throws IOException {
+        BenchmarkHarness.silenceServiceOutput();
+        populate(scale);
+        Path dir = Files.createTempDirectory("export-bench");
+        PrintStream silenced = System.out;
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                boolean last = round == ROUNDS - 1; // earlier rounds warm up
+                Path text = dir.resolve("reservations.txt");
+                measure(scale, "printAllReservation", text, last, () -> {
+                    try (PrintStream file = new PrintStream(new BufferedOutputStream(
+                            new FileOutputStream(text.toFile()), 1 << 16), false)) {
+                        System.setOut(file);
+                        ReservationService.getInstance().printAllReservation();
+                    } finally {
+                        System.setOut(silenced);
+                    }
+                });
+                Path csv = dir.resolve("reservations.csv");
+                measure(scale, "export CSV", csv, last,
+                        () -> new ReservationExporter().export(csv, null, null, null));
+                Path ndjson = dir.resolve("reservations.ndjson");
+                measure(scale, "export NDJSON", ndjson, last,
+                        () -> new ReservationExporter().export(ndjson, null, null, null));
+            }
+        } finally {
+            for (String name : new String[] {"reservations.txt", "reservations.csv", "reservations.ndjson"}) {
+                Files.deleteIfExists(dir.resolve(name));
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static void measure(int scale, String name, Path file, boolean report, Export export)
+            throws IOException {
+        long allocatedBefore = BenchmarkHarness.allocatedBytes();
+        long start = System.nanoTime();
+        export.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long allocated = BenchmarkHarness.allocatedBytes() - allocatedBefore;
+        if (report) {
+            BenchmarkHarness.report(String.format("%-12s %-18s %10d %,12d %10d", String.format("%,d", scale),
+                    name, millis, Files.size(file), allocated / scale));
+        }
+    }
+
+    // Rooms, customers and back-to-back stays, loaded in bulk
+    private static void populate(int reservations) {
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        int roomCount = Math.max(10, Math.min(5_000, reservations / 100));
+        int customerCount = Math.max(10, reservations / 5);
+        List<Customer> customers = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            customers.add(new Customer("Guest", "No" + i, "guest" + i + "@bench.com"));
+        }
+        customerService.addCustomers(customers);
+
+        List<IRoom> rooms = new ArrayList<>(roomCount);
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(new Room(String.format("%03d", i % 1000) + (i < 1000 ? "" : (char) ('A' + i / 1000 - 1)),
+                    50.0 + i % 200, types[i % types.length]));
+        }
+        reservationService.addRooms(rooms);
+
+        Random random = new Random(42);
+        List<Reservation> stays = new ArrayList<>(reservations);
+        for (int r = 0; r < roomCount; r++) {
+            LocalDate checkIn = LocalDate.now().plusDays(1);
+            for (int s = r; s < reservations; s += roomCount) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                stays.add(new Reservation(customers.get(random.nextInt(customerCount)), rooms.get(r),
+                        checkIn, checkOut));
+                checkIn = checkOut.plusDays(random.nextInt(3));
+            }
+        }
+        reservationService.importReservations(stays);
+    }
+
+    private interface Export {
+        void run() throws IOException;
+    }
+}
\ No newline at end of file
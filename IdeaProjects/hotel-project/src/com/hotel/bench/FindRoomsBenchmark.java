@@ -0,0 +1,105 @@
+package com.hotel.bench;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Compares findRooms with the occupancy calendar against the interval-index scan,
+// and the sequential calendar scan against the fork/join one.
+// Run: java com.hotel.bench.FindRoomsBenchmark [rooms] [staysPerRoom]
+public class FindRoomsBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int SEARCHES_PER_ROUND = 200;
+
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int staysPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // services log every insert
+        int booked = populate(roomCount, staysPerRoom);
+        System.setOut(console);
+
+        System.out.println("=== FIND ROOMS BENCHMARK ===");
+        System.out.println("Rooms: " + roomCount + " | Reservations: " + booked);
+
+        ReservationService service = ReservationService.getInstance();
+        service.setOccupancyCalendarEnabled(false);
+        double indexMicros = measure(service);
+        service.setOccupancyCalendarEnabled(true);
+        service.setParallelSearchThreshold(Integer.MAX_VALUE);
+        double calendarMicros = measure(service);
+        service.setParallelSearchThreshold(1);
+        double parallelMicros = measure(service);
+
+        System.out.printf("Interval index : %10.1f us/search%n", indexMicros);
+        System.out.printf("Calendar bitmap: %10.1f us/search%n", calendarMicros);
+        System.out.printf("Speed-up       : %10.1fx%n", indexMicros / calendarMicros);
+        System.out.printf("Calendar, fork/join (%d threads): %10.1f us/search%n",
+                ForkJoinPool.getCommonPoolParallelism(), parallelMicros);
+    }
+
+    // Fill the services with rooms and random non-overlapping stays over the next two years
+    private static int populate(int roomCount, int staysPerRoom) {
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        customerService.addCustomer("bench@hotel.com", "Bench", "Mark");
+        Customer customer = customerService.getCustomer("bench@hotel.com");
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        int booked = 0;
+        for (int i = 0; i < roomCount; i++) {
+            IRoom room = new Room(roomNumber(i), 50.0 + (i % 200), RoomType.values()[i % RoomType.values().length]);
+            reservationService.addRoom(room);
+
+            LocalDate checkIn = today.plusDays(random.nextInt(5));
+            for (int s = 0; s < staysPerRoom; s++) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+                reservationService.reserveARoom(customer, room, checkIn, checkOut);
+                booked++;
+                checkIn = checkOut.plusDays(random.nextInt(10));
+            }
+        }
+        return booked;
+    }
+
+    // Average microseconds per findRooms call over random 1-7 night searches
+    private static double measure(ReservationService service) {
+        Random random = new Random(7);
+        LocalDate today = LocalDate.now();
+        long elapsed = 0;
+        int blackhole = 0;
+
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < SEARCHES_PER_ROUND; i++) {
+                LocalDate checkIn = today.plusDays(random.nextInt(365));
+                blackhole += service.findRooms(checkIn, checkIn.plusDays(1 + random.nextInt(7))).size();
+            }
+            if (round >= WARMUP_ROUNDS) {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+
+        if (blackhole == -1) {
+            System.out.println(blackhole); // keep results alive
+        }
+        return elapsed / 1000.0 / (MEASURED_ROUNDS * SEARCHES_PER_ROUND);
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.hotel.bench;
+
+import com.hotel.io.BulkImporter;
+import com.hotel.io.ImportReport;
+import com.hotel.model.FreeRoom;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.persistence.HotelPersistence;
+import com.hotel.persistence.SyncPolicy;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Loading a property's data: one call per record (addRoom / addCustomer /
+// reserveARoom, console output off) versus BulkImporter on CSV and NDJSON
+// files. Every load runs in its own JVM, since the services are singletons.
+// With --journal, each load is journaled under that sync policy: per-record
+// calls then wait for durability once per record, the importer once per chunk.
+// Run: java -cp <classes> com.hotel.bench.ImportBenchmark [--journal POLICY] [reservations...]
+public class ImportBenchmark {
+    private static final int[] DEFAULT_SCALES = {1_000, 100_000, 1_000_000};
+    private static final String[] MODES = {"per-record", "bulk-csv", "bulk-ndjson"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && Character.isLetter(args[0].charAt(0))) {
+            load(args[0], Paths.get(args[1]), Integer.parseInt(args[2]), args[3]);
+            return;
+        }
+
+        String journal = "none";
+        int first = 0;
+        if (args.length > 1 && args[0].equals("--journal")) {
+            journal = SyncPolicy.valueOf(args[1]).name();
+            first = 2;
+        }
+        int[] scales = DEFAULT_SCALES;
+        if (args.length > first) {
+            scales = new int[args.length - first];
+            for (int i = first; i < args.length; i++) {
+                scales[i - first] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("Journal: " + journal);
+        System.out.printf("%-12s %-12s %10s %10s %10s %12s%n", "Reservations", "Load", "Rooms (ms)",
+                "Cust (ms)", "Res (ms)", "Total (ms)");
+        for (int scale : scales) {
+            Path dir = Files.createTempDirectory("import-bench");
+            writeFiles(dir, scale);
+            for (String mode : MODES) {
+                fork(mode, dir, scale, journal);
+            }
+            deleteAll(dir);
+        }
+    }
+
+    // One load in this JVM
+    private static void load(String mode, Path dir, int scale, String journal) throws IOException {
+        BenchmarkHarness.silenceServiceOutput();
+        HotelPersistence persistence = null;
+        if (!journal.equals("none")) {
+            persistence = HotelPersistence.open(dir.resolve("data-" + mode), SyncPolicy.valueOf(journal),
+                    HotelPersistence.DEFAULT_BATCH_DELAY_MILLIS, HotelPersistence.DEFAULT_BATCH_BYTES, 0);
+        }
+        String extension = mode.equals("bulk-ndjson") ? ".ndjson" : ".csv";
+        long[] millis = new long[3];
+        String[] kinds = {"rooms", "customers", "reservations"};
+        for (int k = 0; k < kinds.length; k++) {
+            Path file = dir.resolve(kinds[k] + extension);
+            long start = System.nanoTime();
+            if (mode.equals("per-record")) {
+                loadPerRecord(kinds[k], file);
+            } else {
+                ImportReport report = new BulkImporter().importFile(kinds[k], file);
+                if (report.getRejected() > 0) {
+                    throw new IllegalStateException(report + ": " + report.getErrors());
+                }
+            }
+            millis[k] = (System.nanoTime() - start) / 1_000_000;
+        }
+        if (persistence != null) {
+            persistence.close();
+        }
+        if (ReservationService.getInstance().getTotalReservations() != scale) {
+            throw new IllegalStateException("Loaded " + ReservationService.getInstance().getTotalReservations());
+        }
+        BenchmarkHarness.report(String.format("%-12s %-12s %10d %10d %10d %12d", String.format("%,d", scale),
+                mode, millis[0], millis[1], millis[2], millis[0] + millis[1] + millis[2]));
+    }
+
+    // Baseline: split each CSV line and make the single-record call for it
+    private static void loadPerRecord(String kind, Path file) throws IOException {
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        customerService.setLoggingEnabled(false);
+        reservationService.setLoggingEnabled(false);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] cells = line.split(",");
+                switch (kind) {
+                    case "rooms":
+                        double price = Double.parseDouble(cells[1]);
+                        RoomType type = RoomType.valueOf(cells[2]);
+                        int floor = Integer.parseInt(cells[3]);
+                        IRoom room = price == 0.0
+                                ? new FreeRoom(cells[0], type, floor, false, false)
+                                : new Room(cells[0], price, type, floor, false, false);
+                        reservationService.addRoom(room);
+                        break;
+                    case "customers":
+                        customerService.addCustomer(cells[0], cells[1], cells[2]);
+                        break;
+                    default:
+                        reservationService.reserveARoom(customerService.getCustomer(cells[0]),
+                                reservationService.getARoom(cells[1]), LocalDate.parse(cells[2]),
+                                LocalDate.parse(cells[3]));
+                }
+            }
+        }
+    }
+
+    // Same data in both formats: rooms, customers and back-to-back stays
+    private static void writeFiles(Path dir, int reservations) throws IOException {
+        int roomCount = Math.max(10, Math.min(5_000, reservations / 100));
+        int customerCount = Math.max(10, reservations / 5);
+        RoomType[] types = RoomType.values();
+        try (BufferedWriter csv = Files.newBufferedWriter(dir.resolve("rooms.csv"));
+             BufferedWriter json = Files.newBufferedWriter(dir.resolve("rooms.ndjson"))) {
+            csv.write("roomNumber,price,roomType,floor\n");
+            for (int i = 0; i < roomCount; i++) {
+                String number = roomNumber(i);
+                double price = i % 50 == 0 ? 0.0 : 50.0 + i % 200;
+                String type = types[i % types.length].name();
+                int floor = 1 + i % 10;
+                csv.write(number + "," + price + "," + type + "," + floor + "\n");
+                json.write("{\"roomNumber\":\"" + number + "\",\"price\":" + price + ",\"roomType\":\"" + type
+                        + "\",\"floor\":" + floor + "}\n");
+            }
+        }
+        try (BufferedWriter csv = Files.newBufferedWriter(dir.resolve("customers.csv"));
+             BufferedWriter json = Files.newBufferedWriter(dir.resolve("customers.ndjson"))) {
+            csv.write("email,firstName,lastName\n");
+            for (int i = 0; i < customerCount; i++) {
+                csv.write("guest" + i + "@bench.com,Guest,No" + i + "\n");
+                json.write("{\"email\":\"guest" + i + "@bench.com\",\"firstName\":\"Guest\",\"lastName\":\"No"
+                        + i + "\"}\n");
+            }
+        }
+        Random random = new Random(42);
+        LocalDate first = LocalDate.now().plusDays(1);
+        try (BufferedWriter csv = Files.newBufferedWriter(dir.resolve("reservations.csv"));
+             BufferedWriter json = Files.newBufferedWriter(dir.resolve("reservations.ndjson"))) {
+            csv.write("email,roomNumber,checkIn,checkOut\n");
+            for (int r = 0; r < roomCount; r++) {
+                LocalDate checkIn = first;
+                for (int s = r; s < reservations; s += roomCount) {
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                    String email = "guest" + random.nextInt(customerCount) + "@bench.com";
+                    csv.write(email + "," + roomNumber(r) + "," + checkIn + "," + checkOut + "\n");
+                    json.write("{\"email\":\"" + email + "\",\"roomNumber\":\"" + roomNumber(r)
+                            + "\",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkOut + "\"}\n");
+                    checkIn = checkOut.plusDays(random.nextInt(3));
+                }
+            }
+        }
+    }
+
+    private static void fork(String mode, Path dir, int scale, String journal) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        Process process = new ProcessBuilder(java, "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+                ImportBenchmark.class.getName(), mode, dir.toString(), String.valueOf(scale), journal)
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Load " + mode + " failed for scale " + scale);
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.hotel.bench;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.persistence.Journal;
+import com.hotel.persistence.JournalRecord;
+import com.hotel.persistence.SyncPolicy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+
+// Journal throughput per sync policy: booking records appended and waited for
+// (per the policy) by 1 and by 8 concurrent writers, with fsyncs per second to
+// show how many writers each group commit covers.
+// Run: java com.hotel.bench.JournalBenchmark [directory] [iterationMillis]
+public class JournalBenchmark {
+    private static final int[] THREADS = {1, 8};
+
+    public static void main(String[] args) throws Exception {
+        Path dir = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("journal-bench");
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        Files.createDirectories(dir);
+        BenchmarkHarness harness = new BenchmarkHarness(1, 3, iterationMillis);
+
+        Customer customer = new Customer("Bench", "Mark", "bench@hotel.com");
+        Room room = new Room("101", 99.99, RoomType.DOUBLE);
+        LocalDate today = LocalDate.now();
+        JournalRecord record = JournalRecord.reservations(Collections.singletonList(
+                new Reservation(customer, room, today, today.plusDays(2))));
+
+        BenchmarkHarness.report("=== JOURNAL BENCHMARK (" + dir + ") ===");
+        BenchmarkHarness.printHeader();
+        for (SyncPolicy policy : SyncPolicy.values()) {
+            for (int threads : THREADS) {
+                Path file = dir.resolve("bench-" + policy + "-" + threads + ".log");
+                Files.deleteIfExists(file);
+                try (Journal journal = new Journal(file, policy, 2, 256 * 1024, r -> { })) {
+                    long start = System.nanoTime();
+                    harness.measureThreaded("Journal append+await " + policy, "-", threads, invocation -> {
+                        long position = journal.append(record);
+                        journal.awaitDurable(position);
+                        return position;
+                    });
+                    journal.sync();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    BenchmarkHarness.report(String.format("  fsyncs/s=%.0f journal=%,d bytes",
+                            journal.getSyncCount() / seconds, Files.size(file)));
+                }
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.hotel.bench;
+
+import com.hotel.api.HotelResource;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+// Cost of a client retry: replaying a booking without an idempotency key (it
+// fails the availability check) against replaying it under its key (answered
+// from the dedup table), next to a fresh booking. Then a retry storm: many
+// threads sending the same keyed booking at once must book it exactly once.
+// Run: java -cp <classes> com.hotel.bench.RetryBenchmark [rooms] [iterationMillis]
+public class RetryBenchmark {
+    private static final int STORM_THREADS = 16;
+    private static final int STORM_KEYS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+
+        BenchmarkHarness.silenceServiceOutput();
+        CustomerService.getInstance().setLoggingEnabled(false);
+        ReservationService reservationService = ReservationService.getInstance();
+        reservationService.setLoggingEnabled(false);
+        HotelResource hotel = HotelResource.getInstance();
+        hotel.createACustomer("guest@bench.com", "Guest", "Bench");
+        List<IRoom> rooms = new ArrayList<>();
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < roomCount; i++) {
+            IRoom room = new Room(roomNumber(i), 50.0 + i % 200, types[i % types.length]);
+            reservationService.addRoom(room);
+            rooms.add(room);
+        }
+
+        BenchmarkHarness.report(String.format("=== RETRY BENCHMARK (%,d rooms) ===", roomCount));
+        BenchmarkHarness harness = new BenchmarkHarness(1, 3, iterationMillis);
+        BenchmarkHarness.printHeader();
+        LocalDate first = LocalDate.now().plusDays(1);
+        harness.measure("bookARoom, new booking", "keyed", invocation -> {
+            LocalDate checkIn = first.plusDays(invocation / roomCount);
+            return hotel.bookARoom("new-" + invocation, "guest@bench.com", rooms.get(invocation % roomCount),
+                    checkIn, checkIn.plusDays(1)).getCheckInDate().toEpochDay();
+        });
+
+        // One keyed booking per room, then replay them
+        LocalDate retried = LocalDate.now().plusDays(3000);
+        for (int r = 0; r < roomCount; r++) {
+            hotel.bookARoom("retry-" + r, "guest@bench.com", rooms.get(r), retried, retried.plusDays(1));
+        }
+        harness.measure("bookARoom retry", "no key", invocation -> {
+            try {
+                return hotel.bookARoom("guest@bench.com", rooms.get(invocation % roomCount), retried,
+                        retried.plusDays(1)).getCheckInDate().toEpochDay();
+            } catch (IllegalArgumentException e) {
+                return e.getMessage().length(); // "not available"
+            }
+        });
+        harness.measure("bookARoom retry", "same key", invocation -> {
+            int room = invocation % roomCount;
+            return hotel.bookARoom("retry-" + room, "guest@bench.com", rooms.get(room), retried,
+                    retried.plusDays(1)).getCheckInDate().toEpochDay();
+        });
+
+        // Retry storm: every thread sends every keyed booking
+        LocalDate stormDay = LocalDate.now().plusDays(4000);
+        int before = reservationService.getTotalReservations();
+        Set<Reservation> returned = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < STORM_THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int k = 0; k < STORM_KEYS; k++) {
+                    LocalDate checkIn = stormDay.plusDays(k / roomCount);
+                    returned.add(hotel.bookARoom("storm-" + k, "guest@bench.com", rooms.get(k % roomCount),
+                            checkIn, checkIn.plusDays(1)));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        BenchmarkHarness.report(String.format("Retry storm: %d threads x %,d keys in %,d ms -> %,d bookings made, "
+                        + "%,d distinct reservations returned, %,d keys remembered", STORM_THREADS, STORM_KEYS, millis,
+                reservationService.getTotalReservations() - before, returned.size(), hotel.getRememberedBookingKeys()));
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.hotel.bench;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Benchmark suite for the reservation and customer services at 1k, 100k and 1M
+// reservations. Like JMH, every scale runs in its own forked JVM, because the
+// services are process-wide singletons.
+//
+// Run all scales:  java -cp <classes> com.hotel.bench.ServiceBenchmarks
+// Run one scale:   java -cp <classes> com.hotel.bench.ServiceBenchmarks 100000 [iterationMillis]
+public class ServiceBenchmarks {
+    private static final int[] SCALES = {1_000, 100_000, 1_000_000};
+    private static final int CONTENDED_THREADS = 8;
+    private static final int HOT_ROOMS = 8;
+    private static final int FUTURE_OFFSET_DAYS = 5_000; // past every populated stay
+
+    private final int reservationCount;
+    private final int roomCount;
+    private final int customerCount;
+    private final BenchmarkHarness harness;
+    private final ReservationService reservationService;
+    private final CustomerService customerService;
+    private final List<IRoom> rooms;
+    private final List<Customer> customers;
+    private final String[] lookupEmails; // mixed case, as guests type them
+    private final LocalDate today;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            for (int scale : SCALES) {
+                fork(scale);
+            }
+            return;
+        }
+
+        int scale = Integer.parseInt(args[0]);
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        new ServiceBenchmarks(scale, new BenchmarkHarness(3, 5, iterationMillis)).runAll();
+    }
+
+    // Run one scale in a fresh JVM with the same classpath
+    private static void fork(int scale) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        Process process = new ProcessBuilder(java, "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+                ServiceBenchmarks.class.getName(), String.valueOf(scale))
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Benchmark fork failed for scale " + scale);
+        }
+    }
+
+    private ServiceBenchmarks(int reservationCount, BenchmarkHarness harness) {
+        this.reservationCount = reservationCount;
+        this.roomCount = reservationCount <= 1_000 ? 100 : reservationCount <= 100_000 ? 1_000 : 5_000;
+        this.customerCount = Math.max(100, reservationCount / 5);
+        this.harness = harness;
+        this.reservationService = ReservationService.getInstance();
+        this.customerService = CustomerService.getInstance();
+        this.rooms = new ArrayList<>(roomCount);
+        this.customers = new ArrayList<>(customerCount);
+        this.lookupEmails = new String[customerCount];
+        this.today = LocalDate.now();
+    }
+
+    private void runAll() throws InterruptedException {
+        BenchmarkHarness.silenceServiceOutput();
+        long start = System.nanoTime();
+        populate();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        BenchmarkHarness.report(String.format("%n=== %,d reservations, %,d rooms, %,d customers (loaded in %d ms, %,d MB heap) ===",
+                reservationCount, roomCount, customerCount, loadMillis, usedHeapMegabytes()));
+        BenchmarkHarness.printHeader();
+        String param = String.valueOf(reservationCount);
+
+        harness.measure("ReservationService.findRooms", param, this::findRooms);
+        harness.measure("ReservationService.getCustomersReservation", param, this::customersReservations);
+        harness.measure("CustomerService.getCustomer", param, this::getCustomer);
+        harness.measure("ReservationService.reserveARoom", param, this::reserveFreeNight);
+        harness.measure("CustomerService.addCustomer", param, this::addCustomer);
+
+        for (ReservationService.ConcurrencyMode mode : ReservationService.ConcurrencyMode.values()) {
+            reservationService.setConcurrencyMode(mode);
+            long retries = reservationService.getOptimisticRetries();
+            long aborts = reservationService.getOptimisticAborts();
+            harness.measureThreaded("reserveARoom contended " + mode, param,
+                    CONTENDED_THREADS, this::reserveHotRoom);
+            BenchmarkHarness.report(String.format("  retries=%d aborts=%d",
+                    reservationService.getOptimisticRetries() - retries,
+                    reservationService.getOptimisticAborts() - aborts));
+        }
+        reservationService.setConcurrencyMode(ReservationService.ConcurrencyMode.LOCKING);
+    }
+
+    // Customers, rooms, then back-to-back stays spread over rooms and customers
+    private void populate() {
+        for (int i = 0; i < customerCount; i++) {
+            String email = "guest" + i + "@bench.com";
+            customerService.addCustomer(email, "Guest", "No" + i);
+            customers.add(customerService.getCustomer(email));
+            lookupEmails[i] = "Guest" + i + "@Bench.com";
+        }
+
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(roomNumber(i), 50.0 + i % 200, types[i % types.length],
+                    1 + i % 10, i % 3 == 0, i % 4 == 0);
+            reservationService.addRoom(room);
+            rooms.add(room);
+        }
+
+        Random random = new Random(42);
+        int perRoom = reservationCount / roomCount;
+        for (IRoom room : rooms) {
+            LocalDate checkIn = today.plusDays(random.nextInt(3));
+            for (int s = 0; s < perRoom; s++) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                Customer customer = customers.get(random.nextInt(customerCount));
+                reservationService.reserveARoom(customer, room, checkIn, checkOut);
+                checkIn = checkOut.plusDays(random.nextInt(3));
+            }
+        }
+    }
+
+    private long findRooms(int invocation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = today.plusDays(random.nextInt(365));
+        return reservationService.findRooms(checkIn, checkIn.plusDays(1 + random.nextInt(7))).size();
+    }
+
+    private long customersReservations(int invocation) {
+        Customer customer = customers.get(ThreadLocalRandom.current().nextInt(customerCount));
+        return reservationService.getCustomersReservation(customer).size();
+    }
+
+    private long getCustomer(int invocation) {
+        return customerService.getCustomer(lookupEmails[ThreadLocalRandom.current().nextInt(customerCount)])
+                .hashCode();
+    }
+
+    // Each invocation books a distinct (room, night) past all existing stays, so it always succeeds
+    private long reserveFreeNight(int invocation) {
+        IRoom room = rooms.get(invocation % roomCount);
+        LocalDate night = today.plusDays(FUTURE_OFFSET_DAYS + invocation / roomCount);
+        Customer customer = customers.get(invocation % customerCount);
+        return reservationService.reserveARoom(customer, room, night, night.plusDays(1)).hashCode();
+    }
+
+    private long addCustomer(int invocation) {
+        customerService.addCustomer("new" + invocation + "@bench.com", "New", "Guest");
+        return invocation;
+    }
+
+    // Many threads fighting over a few popular rooms; lost races count as operations too
+    private long reserveHotRoom(int invocation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        IRoom room = rooms.get(random.nextInt(HOT_ROOMS));
+        LocalDate checkIn = today.plusDays(FUTURE_OFFSET_DAYS * 2L + random.nextInt(20_000));
+        try {
+            return reservationService.reserveARoom(customers.get(0), room,
+                    checkIn, checkIn.plusDays(1 + random.nextInt(3))).hashCode();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return 0; // dates taken or optimistic attempts exhausted
+        }
+    }
+
+    private static long usedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.hotel.bench;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.persistence.HotelPersistence;
+import com.hotel.persistence.SyncPolicy;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Startup time against dataset size: replaying the whole journal versus
+// loading a snapshot, indexing the mapped reservation store and replaying a
+// 1% tail. Heap is measured after a full GC once open. Every step runs in its own JVM
+// (the services are singletons, and a restart is what we are measuring).
+// Run: java -cp <classes> com.hotel.bench.StartupBenchmark [reservations...]
+public class StartupBenchmark {
+    private static final int[] DEFAULT_SCALES = {1_000, 100_000, 1_000_000};
+    private static final int TAIL_PERCENT = 1;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && !Character.isDigit(args[0].charAt(0))) {
+            runStep(args[0], Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 0);
+            return;
+        }
+
+        int[] scales = DEFAULT_SCALES;
+        if (args.length > 0) {
+            scales = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                scales[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%-12s %-22s %12s %12s %12s %10s %10s%n", "Reservations", "Startup from", "Records",
+                "Stored", "Data bytes", "Time (ms)", "Heap (MB)");
+        for (int scale : scales) {
+            Path dir = Files.createTempDirectory("startup-bench");
+            fork("populate", dir, scale);
+            fork("load", dir, scale);
+            fork("snapshot", dir, scale);
+            fork("load", dir, scale);
+            deleteAll(dir);
+        }
+    }
+
+    // One step in this JVM
+    private static void runStep(String step, Path dir, int scale) throws IOException {
+        CustomerService customerService = CustomerService.getInstance();
+        ReservationService reservationService = ReservationService.getInstance();
+        long start = System.nanoTime();
+        try (HotelPersistence persistence = HotelPersistence.open(dir, SyncPolicy.ASYNC,
+                HotelPersistence.DEFAULT_BATCH_DELAY_MILLIS, HotelPersistence.DEFAULT_BATCH_BYTES, 0)) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            customerService.setLoggingEnabled(false);
+            reservationService.setLoggingEnabled(false);
+
+            switch (step) {
+                case "populate":
+                    populate(customerService, reservationService, scale, 0, 5_000);
+                    break;
+                case "snapshot":
+                    persistence.snapshot();
+                    populate(customerService, reservationService, scale * TAIL_PERCENT / 100, scale, 20_000);
+                    break;
+                case "load":
+                    String source = persistence.getSnapshotRecords() > 0
+                            ? "snapshot + " + TAIL_PERCENT + "% tail" : "full journal";
+                    System.out.printf("%-12s %-22s %,12d %,12d %,12d %10d %10d%n", String.format("%,d", scale),
+                            source, persistence.getReplayedRecords(), persistence.getStoredReservations(),
+                            dataBytes(dir), millis, usedHeapMegabytes());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown step: " + step);
+            }
+        }
+    }
+
+    // Customers, rooms and back-to-back stays starting offsetDays from today
+    private static void populate(CustomerService customerService, ReservationService reservationService,
+                                 int reservations, int idBase, int offsetDays) {
+        int roomCount = Math.max(10, Math.min(5_000, reservations / 100));
+        int customerCount = Math.max(10, reservations / 5);
+        List<Customer> customers = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            String email = "guest" + (idBase + i) + "@bench.com";
+            customerService.addCustomer(email, "Guest", "No" + i);
+            customers.add(customerService.getCustomer(email));
+        }
+
+        List<IRoom> rooms = new ArrayList<>(roomCount);
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < roomCount; i++) {
+            IRoom room = reservationService.getARoom(roomNumber(i));
+            if (room == null) {
+                room = new Room(roomNumber(i), 50.0 + i % 200, types[i % types.length]);
+                reservationService.addRoom(room);
+            }
+            rooms.add(room);
+        }
+
+        Random random = new Random(42);
+        LocalDate first = LocalDate.now().plusDays(offsetDays);
+        for (int r = 0; r < roomCount; r++) {
+            LocalDate checkIn = first;
+            for (int s = r; s < reservations; s += roomCount) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                reservationService.reserveARoom(customers.get(random.nextInt(customerCount)), rooms.get(r),
+                        checkIn, checkOut);
+                checkIn = checkOut.plusDays(random.nextInt(3));
+            }
+        }
+    }
+
+    private static void fork(String step, Path dir, int scale) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        Process process = new ProcessBuilder(java, "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+                StartupBenchmark.class.getName(), step, dir.toString(), String.valueOf(scale))
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Step " + step + " failed for scale " + scale);
+        }
+    }
+
+    private static long usedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    private static long dataBytes(Path dir) throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Valid room numbers: 3 digits + optional letter (000..999, 000A..999Z)
+    private static String roomNumber(int i) {
+        String digits = String.format("%03d", i % 1000);
+        return i < 1000 ? digits : digits + (char) ('A' + (i / 1000 - 1) % 26);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.hotel.bench;
+
+import com.hotel.api.AdminResource;
+import com.hotel.api.HotelResource;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.persistence.FileStorage;
+import com.hotel.persistence.SyncPolicy;
+import com.hotel.repository.Storage;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// The same workload against each storage backend, through HotelResource and
+// AdminResource: create customers, add rooms, book from several threads, then
+// look customers and their reservations up and search for rooms. File-backed
+// runs are reopened afterwards to time the reload. Each run is its own JVM
+// (the services are singletons bound to one backend).
+// Run: java -cp <classes> com.hotel.bench.StorageBenchmark [bookings] [threads]
+public class StorageBenchmark {
+    private static final String[] BACKENDS = {"memory", "file-ASYNC", "file-BATCHED", "file-PER_WRITE"};
+    private static final int SEARCHES = 200;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && !Character.isDigit(args[0].charAt(0))) {
+            runStep(args[0], args[1], Paths.get(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        System.out.printf("%-15s %12s %12s %12s %12s %12s %10s %12s%n", "Backend", "Customers/s", "Rooms/s",
+                "Bookings/s", "Lookups/s", "Searches/s", "Reopen ms", "Data bytes");
+        for (String backend : BACKENDS) {
+            Path dir = Files.createTempDirectory("storage-bench");
+            fork("run", backend, dir, bookings, threads);
+            if (backend.startsWith("file")) {
+                fork("reopen", backend, dir, bookings, threads);
+            }
+            deleteAll(dir);
+        }
+    }
+
+    // One step in this JVM
+    private static void runStep(String step, String backend, Path dir, int bookings, int threads)
+            throws Exception {
+        FileStorage storage = null;
+        long start = System.nanoTime();
+        if (backend.startsWith("file")) {
+            storage = FileStorage.open(dir, SyncPolicy.valueOf(backend.substring("file-".length())));
+            Storage.install(storage);
+        }
+        CustomerService.getInstance().setLoggingEnabled(false);
+        ReservationService.getInstance().setLoggingEnabled(false);
+
+        try {
+            if (step.equals("reopen")) {
+                // Touch the services so the stored data is indexed before timing stops
+                int rooms = ReservationService.getInstance().getTotalRooms();
+                int reservations = ReservationService.getInstance().getTotalReservations();
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                if (reservations != bookings || rooms != roomCount(bookings)) {
+                    throw new IllegalStateException("Reopened " + rooms + " rooms and " + reservations
+                            + " reservations, expected " + roomCount(bookings) + " and " + bookings);
+                }
+                System.out.printf("%-15s %12s %12s %12s %12s %12s %10d %,12d%n", "  (reopened)", "", "", "", "",
+                        "", millis, dataBytes(dir));
+            } else if (step.equals("run")) {
+                run(backend, bookings, threads, dir);
+            } else {
+                throw new IllegalArgumentException("Unknown step: " + step);
+            }
+        } finally {
+            if (storage != null) {
+                storage.close();
+            }
+        }
+    }
+
+    // The shared workload; prints one row
+    private static void run(String backend, int bookings, int threads, Path dir)
+            throws Exception {
+        HotelResource hotel = HotelResource.getInstance();
+        AdminResource admin = AdminResource.getInstance();
+        int customerCount = customerCount(bookings);
+        int roomCount = roomCount(bookings);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < customerCount; i++) {
+            hotel.createACustomer(email(i), "Guest", "No" + i);
+        }
+        double customersPerSecond = perSecond(customerCount, start);
+
+        start = System.nanoTime();
+        RoomType[] types = RoomType.values();
+        List<IRoom> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(String.format("%03d", i), 50.0 + i, types[i % types.length]);
+            admin.addRoom(room);
+            rooms.add(room);
+        }
+        double roomsPerSecond = perSecond(roomCount, start);
+
+        // Each thread books its own rooms back to back, so no booking is refused
+        LocalDate first = LocalDate.now().plusDays(1);
+        Thread[] workers = new Thread[threads];
+        start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(thread);
+                for (int r = thread; r < roomCount; r += threads) {
+                    LocalDate checkIn = first;
+                    for (int s = r; s < bookings; s += roomCount) {
+                        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(3));
+                        hotel.bookARoom(email(random.nextInt(customerCount)), rooms.get(r), checkIn, checkOut);
+                        checkIn = checkOut;
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double bookingsPerSecond = perSecond(bookings, start);
+
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < customerCount; i++) {
+            found += hotel.getCustomersReservations(email(i)).size();
+        }
+        double lookupsPerSecond = perSecond(customerCount, start);
+        if (found != bookings) {
+            throw new IllegalStateException("Found " + found + " reservations, expected " + bookings);
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            LocalDate checkIn = first.plusDays(i % 60);
+            hotel.findARoom(checkIn, checkIn.plusDays(2));
+        }
+        double searchesPerSecond = perSecond(SEARCHES, start);
+
+        System.out.printf("%-15s %,12.0f %,12.0f %,12.0f %,12.0f %,12.0f %10s %,12d%n", backend,
+                customersPerSecond, roomsPerSecond, bookingsPerSecond, lookupsPerSecond, searchesPerSecond,
+                "-", dataBytes(dir));
+    }
+
+    private static int customerCount(int bookings) {
+        return Math.max(10, bookings / 10);
+    }
+
+    private static int roomCount(int bookings) {
+        return Math.max(10, Math.min(1_000, bookings / 100));
+    }
+
+    private static String email(int i) {
+        return "guest" + i + "@bench.com";
+    }
+
+    private static double perSecond(int operations, long startNanos) {
+        return operations * 1e9 / (System.nanoTime() - startNanos);
+    }
+
+    private static void fork(String step, String backend, Path dir, int bookings, int threads)
+            throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        Process process = new ProcessBuilder(java, "-Xmx2g", "-cp", System.getProperty("java.class.path"),
+                StorageBenchmark.class.getName(), step, backend, dir.toString(), String.valueOf(bookings),
+                String.valueOf(threads))
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Step " + step + " failed for " + backend);
+        }
+    }
+
+    private static long dataBytes(Path dir) throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.hotel.event;
+
+import java.time.LocalDate;
+
+// One change to the hotel's data, as carried by the EventStream. Instances
+// are reused (ring slots, and each subscription's batch), so a subscriber
+// copies out whatever it keeps past its onEvents call.
+public final class ChangeEvent {
+    public enum Type { RESERVATION_CREATED, RESERVATION_CANCELLED, ROOM_ADDED, CUSTOMER_CREATED }
+
+    private long sequence;
+    private Type type;
+    private long publishedNanos;   // System.nanoTime() when published
+    private long reservationId;    // reservations only
+    private String roomNumber;     // reservations and rooms
+    private String customerEmail;  // reservations and customers
+    private long checkInDay;       // reservations only (epoch days)
+    private long checkOutDay;
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public LocalDate getCheckInDate() {
+        return LocalDate.ofEpochDay(checkInDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    public long getCheckInDay() {
+        return checkInDay;
+    }
+
+    public long getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ROOM_ADDED:
+                return "#" + sequence + " " + type + " room " + roomNumber;
+            case CUSTOMER_CREATED:
+                return "#" + sequence + " " + type + " " + customerEmail;
+            default:
+                return "#" + sequence + " " + type + " room " + roomNumber + " for " + customerEmail
+                        + " " + getCheckInDate() + " to " + getCheckOutDate();
+        }
+    }
+
+    // Helper method: overwrite every field (the writer filling a slot)
+    void set(long sequence, Type type, long publishedNanos, long reservationId, String roomNumber,
+             String customerEmail, long checkInDay, long checkOutDay) {
+        this.sequence = sequence;
+        this.type = type;
+        this.publishedNanos = publishedNanos;
+        this.reservationId = reservationId;
+        this.roomNumber = roomNumber;
+        this.customerEmail = customerEmail;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+    }
+
+    // Helper method: copy a slot into a subscription's batch
+    void copyFrom(ChangeEvent other) {
+        set(other.sequence, other.type, other.publishedNanos, other.reservationId, other.roomNumber,
+                other.customerEmail, other.checkInDay, other.checkOutDay);
+    }
+}
\ No newline at end of file
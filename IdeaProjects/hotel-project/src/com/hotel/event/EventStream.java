@@ -0,0 +1,204 @@
+package com.hotel.event;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-process change events: bookings, cancellations, rooms and accounts, as
+// the services commit them. Events go into a ring of preallocated slots with a
+// single writer (publishers take turns under a short lock, so only one fills a
+// slot at a time) and are read by any number of subscriptions, each on its own
+// thread and at its own pace.
+//
+// The writer never waits for subscribers: a subscription that falls more than
+// the ring's capacity behind loses the oldest events it had not read, and
+// counts them. Each slot carries the sequence it holds, written last, so a
+// reader checks the sequence before and after copying a slot and detects a
+// slot overwritten under it.
+//
+// Nothing is written while there are no subscriptions.
+public class EventStream {
+    public static final int DEFAULT_CAPACITY = 1 << 14; // power of two
+
+    // Singleton instance (the services publish here)
+    private static final EventStream INSTANCE = new EventStream(DEFAULT_CAPACITY);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Object writeLock = new Object();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Sequence of the last event published (events are numbered from 1)
+    private volatile long published;
+
+    public EventStream(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    public static EventStream getInstance() {
+        return INSTANCE;
+    }
+
+    // Getters
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    // Sequence of the last event published; 0 before the first
+    public long getPublished() {
+        return published;
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    // 1. Subscribe to the events published from now on, delivered in batches of
+    // up to maxBatch on a new daemon thread; close the subscription to stop it
+    public Subscription subscribe(String name, EventSubscriber subscriber, int maxBatch) {
+        if (subscriber == null) {
+            throw new IllegalArgumentException("Subscriber cannot be null");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        Subscription subscription;
+        synchronized (writeLock) {
+            subscription = new Subscription(this, name, subscriber, maxBatch, published + 1);
+            subscriptions.add(subscription);
+        }
+        subscription.start();
+        return subscription;
+    }
+
+    public Subscription subscribe(String name, EventSubscriber subscriber) {
+        return subscribe(name, subscriber, 256);
+    }
+
+    // 2. Publishers: one event per call, or one turn at the lock for a batch
+    public void reservationCreated(Reservation reservation) {
+        if (!subscriptions.isEmpty()) {
+            synchronized (writeLock) {
+                write(ChangeEvent.Type.RESERVATION_CREATED, reservation);
+            }
+            wakeSubscribers();
+        }
+    }
+
+    public void reservationsCreated(Collection<Reservation> reservations) {
+        if (!subscriptions.isEmpty() && !reservations.isEmpty()) {
+            synchronized (writeLock) {
+                for (Reservation reservation : reservations) {
+                    write(ChangeEvent.Type.RESERVATION_CREATED, reservation);
+                }
+            }
+            wakeSubscribers();
+        }
+    }
+
+    public void reservationCancelled(Reservation reservation) {
+        if (!subscriptions.isEmpty()) {
+            synchronized (writeLock) {
+                write(ChangeEvent.Type.RESERVATION_CANCELLED, reservation);
+            }
+            wakeSubscribers();
+        }
+    }
+
+    // A date change: the stay as it was cancelled and as it is created, with
+    // consecutive sequence numbers
+    public void reservationChanged(Reservation previous, Reservation updated) {
+        if (!subscriptions.isEmpty()) {
+            synchronized (writeLock) {
+                write(ChangeEvent.Type.RESERVATION_CANCELLED, previous);
+                write(ChangeEvent.Type.RESERVATION_CREATED, updated);
+            }
+            wakeSubscribers();
+        }
+    }
+
+    public void roomsAdded(Collection<? extends IRoom> rooms) {
+        if (!subscriptions.isEmpty() && !rooms.isEmpty()) {
+            synchronized (writeLock) {
+                for (IRoom room : rooms) {
+                    write(ChangeEvent.Type.ROOM_ADDED, 0, room.getRoomNumber(), null, 0, 0);
+                }
+            }
+            wakeSubscribers();
+        }
+    }
+
+    public void customersCreated(Collection<Customer> customers) {
+        if (!subscriptions.isEmpty() && !customers.isEmpty()) {
+            synchronized (writeLock) {
+                for (Customer customer : customers) {
+                    write(ChangeEvent.Type.CUSTOMER_CREATED, 0, null, customer.getEmail(), 0, 0);
+                }
+            }
+            wakeSubscribers();
+        }
+    }
+
+    // Helper method: copy the event with this sequence into target; false if
+    // its slot has been overwritten since (or is being overwritten)
+    boolean read(long sequence, ChangeEvent target) {
+        Slot slot = slots[(int) (sequence & mask)];
+        if (slot.sequence != sequence) {
+            return false;
+        }
+        target.copyFrom(slot.event);
+        VarHandle.acquireFence(); // the copy happens before the second check
+        return slot.sequence == sequence;
+    }
+
+    // Helper method: a subscription closed
+    void remove(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    // Helper method: fill the next slot (under writeLock): mark it taken, write
+    // the event, then publish its sequence in the slot and on the cursor
+    private void write(ChangeEvent.Type type, Reservation reservation) {
+        write(type, reservation.getId(), reservation.getRoom().getRoomNumber(),
+                reservation.getCustomer().getEmail(),
+                reservation.getCheckInDate().toEpochDay(), reservation.getCheckOutDate().toEpochDay());
+    }
+
+    private void write(ChangeEvent.Type type, long reservationId, String roomNumber, String email,
+                       long checkInDay, long checkOutDay) {
+        long sequence = published + 1;
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.sequence = Slot.WRITING;
+        VarHandle.releaseFence(); // readers see WRITING before any new field
+        slot.event.set(sequence, type, System.nanoTime(), reservationId, roomNumber, email, checkInDay, checkOutDay);
+        slot.sequence = sequence;
+        published = sequence;
+    }
+
+    // Helper method: unpark the subscriptions with a full batch waiting (never blocks)
+    private void wakeSubscribers() {
+        long last = published;
+        for (Subscription subscription : subscriptions) {
+            subscription.wake(last);
+        }
+    }
+
+    // One ring slot: the event and the sequence it holds
+    private static final class Slot {
+        static final long WRITING = -1;
+
+        final ChangeEvent event = new ChangeEvent();
+        volatile long sequence;
+    }
+}
\ No newline at end of file
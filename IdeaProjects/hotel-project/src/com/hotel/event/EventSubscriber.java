@@ -0,0 +1,9 @@
+package com.hotel.event;
+
+// Receives the events of a subscription in batches, in sequence order, on the
+// subscription's own thread. events[0 .. count) are reused for the next batch.
+// A gap in the sequence numbers means the subscriber fell more than the ring's
+// capacity behind and those events were overwritten (see Subscription.getDropped).
+public interface EventSubscriber {
+    void onEvents(ChangeEvent[] events, int count);
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.hotel.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// One consumer of an EventStream: a daemon thread that copies whatever has
+// been published since its last batch (up to maxBatch events) and hands it to
+// the subscriber, then parks. It wakes up on its own after a millisecond, or
+// earlier when the writer sees a full batch waiting, so a busy stream is
+// delivered in batches without a wake-up per event. Keeps the metrics an
+// operator needs to spot a slow subscriber: how far behind it is, how many
+// events it has delivered, and how many it lost to the ring wrapping around.
+public final class Subscription implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EventStream stream;
+    private final String name;
+    private final EventSubscriber subscriber;
+    private final ChangeEvent[] batch;
+    private final Thread thread;
+
+    private volatile long next;          // sequence of the next event to deliver
+    private volatile boolean parked;
+    private volatile boolean closed;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long maxLag;
+    private volatile long lastDeliveryNanos; // publish-to-delivery time of the last batch's newest event
+
+    Subscription(EventStream stream, String name, EventSubscriber subscriber, int maxBatch, long first) {
+        this.stream = stream;
+        this.name = name;
+        this.subscriber = subscriber;
+        this.batch = new ChangeEvent[maxBatch];
+        for (int i = 0; i < maxBatch; i++) {
+            batch[i] = new ChangeEvent();
+        }
+        this.next = first;
+        this.thread = new Thread(this::run, "events-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    // Events published but not yet delivered to this subscriber
+    public long getLag() {
+        return Math.max(0, stream.getPublished() - (next - 1));
+    }
+
+    // Largest lag seen at the start of a batch
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    // Events overwritten before this subscriber read them
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    // Batches whose onEvents threw (the events count as delivered)
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // Time from publishing the newest event of the last batch to handing it over
+    public long getLastDeliveryNanos() {
+        return lastDeliveryNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": lag " + getLag() + " (max " + maxLag + "), delivered " + delivered.get()
+                + " in " + batches.get() + " batches, dropped " + dropped.get();
+    }
+
+    // Stop the thread once its current batch is done; events not delivered yet are left
+    @Override
+    public void close() {
+        closed = true;
+        stream.remove(this);
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // Helper method: called by publishers after each write; only a parked
+    // subscription with a full batch waiting is woken
+    void wake(long published) {
+        if (parked && published - next + 1 >= batch.length) {
+            parked = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // Helper method: the subscription thread
+    private void run() {
+        while (!closed) {
+            long available = stream.getPublished();
+            if (available < next) {
+                parked = true;
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                parked = false;
+                continue;
+            }
+
+            // Skip what the writer has already lapped
+            long oldest = available - stream.getCapacity() + 1;
+            if (next < oldest) {
+                dropped.addAndGet(oldest - next);
+                next = oldest;
+            }
+            maxLag = Math.max(maxLag, available - next + 1);
+
+            int count = 0;
+            long sequence = next;
+            while (count < batch.length && sequence <= available) {
+                if (stream.read(sequence, batch[count])) {
+                    count++;
+                } else {
+                    dropped.incrementAndGet();
+                }
+                sequence++;
+            }
+            if (count > 0) {
+                lastDeliveryNanos = System.nanoTime() - batch[count - 1].getPublishedNanos();
+                try {
+                    subscriber.onEvents(batch, count);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    System.out.println("Event subscriber " + name + " failed: " + e.getMessage());
+                }
+                delivered.addAndGet(count);
+                batches.incrementAndGet();
+            }
+            next = sequence;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,371 @@
+package com.hotel.io;
+
+import com.hotel.model.Customer;
+import com.hotel.model.FreeRoom;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Streaming import of rooms, customers and reservations from CSV or NDJSON
+// files (one kind per file). Lines are read in chunks; each chunk is parsed
+// and validated on the ForkJoinPool while the next one is read, and chunks
+// are inserted in file order through the services' bulk methods. Reservations
+// are collected and loaded in one batch at the end, so every room's timeline
+// and the booking indexes are built once instead of once per record.
+//
+// Columns / keys (case-insensitive; [optional]):
+//   rooms:        roomNumber, price, roomType, [floor], [balcony], [seaView]   (price 0 = free room)
+//   customers:    email, firstName, lastName
+//   reservations: email, roomNumber, checkIn, checkOut                        (ISO dates)
+public class BulkImporter {
+    public static final int DEFAULT_CHUNK_LINES = 8192;
+
+    private static final String[] ROOM_FIELDS = {"roomNumber", "price", "roomType", "floor", "balcony", "seaView"};
+    private static final String[] CUSTOMER_FIELDS = {"email", "firstName", "lastName"};
+    private static final String[] RESERVATION_FIELDS = {"email", "roomNumber", "checkIn", "checkOut"};
+
+    private final CustomerService customerService;
+    private final ReservationService reservationService;
+    private final int chunkLines;
+    private final int maxChunksInFlight;
+
+    public BulkImporter() {
+        this(DEFAULT_CHUNK_LINES);
+    }
+
+    public BulkImporter(int chunkLines) {
+        if (chunkLines < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.customerService = CustomerService.getInstance();
+        this.reservationService = ReservationService.getInstance();
+        this.chunkLines = chunkLines;
+        // Enough to keep every worker busy, few enough to bound memory
+        this.maxChunksInFlight = ForkJoinPool.getCommonPoolParallelism() * 2;
+    }
+
+    // 1. Import rooms; a room number that already exists (or repeats) is rejected
+    public ImportReport importRooms(Path file) throws IOException {
+        ImportReport report = new ImportReport("rooms");
+        Set<String> seen = new HashSet<>();
+        return run(file, ROOM_FIELDS, new String[] {"roomNumber", "price", "roomType"},
+                BulkImporter::parseRoom, report, chunk -> {
+                    List<IRoom> added = new ArrayList<>(chunk.values.size());
+                    for (int i = 0; i < chunk.values.size(); i++) {
+                        IRoom room = chunk.values.get(i);
+                        if (!seen.add(room.getRoomNumber()) || reservationService.roomExists(room.getRoomNumber())) {
+                            report.reject(chunk.valueLines[i], "Room " + room.getRoomNumber() + " already exists");
+                        } else {
+                            added.add(room);
+                        }
+                    }
+                    reservationService.addRooms(added);
+                    report.addImported(added.size());
+                }, null);
+    }
+
+    // 2. Import customers; an email that already has an account is rejected
+    public ImportReport importCustomers(Path file) throws IOException {
+        ImportReport report = new ImportReport("customers");
+        return run(file, CUSTOMER_FIELDS, CUSTOMER_FIELDS, BulkImporter::parseCustomer, report, chunk -> {
+            Set<Customer> existing = identitySet(customerService.addCustomers(chunk.values));
+            for (int i = 0; i < chunk.values.size(); i++) {
+                if (existing.contains(chunk.values.get(i))) {
+                    report.reject(chunk.valueLines[i],
+                            "Customer with email " + chunk.values.get(i).getEmail() + " already exists");
+                }
+            }
+            report.addImported(chunk.values.size() - existing.size());
+        }, null);
+    }
+
+    // 3. Import reservations for rooms and customers that already exist.
+    // Stays that overlap a booked stay (or an earlier one in the file) are rejected.
+    public ImportReport importReservations(Path file) throws IOException {
+        ImportReport report = new ImportReport("reservations");
+        List<Reservation> stays = new ArrayList<>();
+        LineNumbers stayLines = new LineNumbers();
+        return run(file, RESERVATION_FIELDS, RESERVATION_FIELDS, BulkImporter::parseStay, report, chunk -> {
+            for (int i = 0; i < chunk.values.size(); i++) {
+                StayRow row = chunk.values.get(i);
+                Customer customer = customerService.getCustomer(row.email);
+                IRoom room = reservationService.getARoom(row.roomNumber);
+                if (customer == null) {
+                    report.reject(chunk.valueLines[i], Customer.isValidEmail(row.email)
+                            ? "Unknown customer " + row.email : "Invalid email format: " + row.email);
+                } else if (room == null) {
+                    report.reject(chunk.valueLines[i], "Unknown room " + row.roomNumber);
+                } else {
+                    stays.add(new Reservation(customer, room, row.checkIn, row.checkOut));
+                    stayLines.add(chunk.valueLines[i]);
+                }
+            }
+        }, () -> {
+            Set<Reservation> rejected = identitySet(reservationService.importReservations(stays));
+            for (int i = 0; i < stays.size(); i++) {
+                Reservation stay = stays.get(i);
+                if (rejected.contains(stay)) {
+                    report.reject(stayLines.get(i), "Room " + stay.getRoom().getRoomNumber()
+                            + " is not available from " + stay.getCheckInDate() + " to " + stay.getCheckOutDate());
+                }
+            }
+            report.addImported(stays.size() - rejected.size());
+        });
+    }
+
+    // 4. Import by kind name: "rooms", "customers" or "reservations"
+    public ImportReport importFile(String kind, Path file) throws IOException {
+        switch (kind.trim().toLowerCase(Locale.ROOT)) {
+            case "rooms":
+                return importRooms(file);
+            case "customers":
+                return importCustomers(file);
+            case "reservations":
+                return importReservations(file);
+            default:
+                throw new IllegalArgumentException("Unknown import kind: " + kind);
+        }
+    }
+
+    // Helper method: Stream the file in chunks, parse them in parallel and hand
+    // the parsed chunks to sink in file order, then run finish (if any).
+    // Console messages are off meanwhile.
+    private <T> ImportReport run(Path file, String[] fields, String[] required, RowMapper<T> mapper,
+                                 ImportReport report, Consumer<Chunk<T>> sink, Runnable finish)
+            throws IOException {
+        long start = System.nanoTime();
+        DataFormat format = DataFormat.of(file);
+        ArrayDeque<Future<Chunk<T>>> inFlight = new ArrayDeque<>();
+        customerService.setLoggingEnabled(false);
+        reservationService.setLoggingEnabled(false);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            String header = null;
+            if (format == DataFormat.CSV) {
+                header = reader.readLine();
+                lineNumber++;
+            }
+            RowParser parser = new RowParser(format, fields, header);
+            parser.requireColumns(required);
+
+            List<String> lines = new ArrayList<>(chunkLines);
+            long[] numbers = new long[chunkLines];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                numbers[lines.size()] = lineNumber;
+                lines.add(line);
+                if (lines.size() == chunkLines) {
+                    submit(inFlight, parser, mapper, lines, numbers);
+                    lines = new ArrayList<>(chunkLines);
+                    numbers = new long[chunkLines];
+                    while (inFlight.size() > maxChunksInFlight) {
+                        drain(inFlight.poll(), report, sink);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(inFlight, parser, mapper, lines, numbers);
+            }
+            while (!inFlight.isEmpty()) {
+                drain(inFlight.poll(), report, sink);
+            }
+            if (finish != null) {
+                finish.run();
+            }
+        } finally {
+            for (Future<Chunk<T>> pending : inFlight) {
+                pending.cancel(false);
+            }
+            customerService.setLoggingEnabled(true);
+            reservationService.setLoggingEnabled(true);
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private <T> void submit(ArrayDeque<Future<Chunk<T>>> inFlight, RowParser parser, RowMapper<T> mapper,
+                            List<String> lines, long[] numbers) {
+        inFlight.add(ForkJoinPool.commonPool().submit(() -> parseChunk(parser, mapper, lines, numbers)));
+    }
+
+    // Helper method: Wait for a parsed chunk, record its rejects and insert the rest
+    private static <T> void drain(Future<Chunk<T>> pending, ImportReport report, Consumer<Chunk<T>> sink)
+            throws IOException {
+        Chunk<T> chunk;
+        try {
+            chunk = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed: " + e.getCause(), e.getCause());
+        }
+        report.addRecords(chunk.lines);
+        for (int i = 0; i < chunk.errors.size(); i++) {
+            report.reject(chunk.errorLines.get(i), chunk.errors.get(i));
+        }
+        sink.accept(chunk);
+    }
+
+    // Helper method: Parse and validate one chunk (runs on a pool thread)
+    private static <T> Chunk<T> parseChunk(RowParser parser, RowMapper<T> mapper, List<String> lines,
+                                           long[] numbers) {
+        Chunk<T> chunk = new Chunk<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                chunk.add(mapper.map(parser.parse(lines.get(i))), numbers[i]);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                chunk.errorLines.add(numbers[i]);
+                chunk.errors.add(e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    // Helper method: Room row; the Room constructor applies the room number and price rules
+    private static IRoom parseRoom(String[] values) {
+        String roomNumber = values[0];
+        double price = parseNumber(values[1], "price");
+        RoomType roomType = parseRoomType(values[2]);
+        int floor = values[3] == null ? 1 : (int) parseNumber(values[3], "floor");
+        boolean balcony = Boolean.parseBoolean(values[4]);
+        boolean seaView = Boolean.parseBoolean(values[5]);
+        return price == 0.0
+                ? new FreeRoom(roomNumber, roomType, floor, balcony, seaView)
+                : new Room(roomNumber, price, roomType, floor, balcony, seaView);
+    }
+
+    // Helper method: Customer row; the Customer constructor applies the email rule
+    private static Customer parseCustomer(String[] values) {
+        require(values[1], "firstName");
+        require(values[2], "lastName");
+        return new Customer(values[1], values[2], values[0]);
+    }
+
+    // Helper method: Reservation row, checked against the room number rule. The
+    // customer is looked up later, in file order: an email with an account has
+    // passed the email rule already, so that rule only words the rejection.
+    private static StayRow parseStay(String[] values) {
+        require(values[0], "email");
+        Room.validateRoomNumber(values[1]);
+        LocalDate checkIn = LocalDate.parse(require(values[2], "checkIn"));
+        LocalDate checkOut = LocalDate.parse(require(values[3], "checkOut"));
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        return new StayRow(values[0], values[1], checkIn, checkOut);
+    }
+
+    private static double parseNumber(String value, String field) {
+        try {
+            return Double.parseDouble(require(value, field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static RoomType parseRoomType(String value) {
+        try {
+            return RoomType.valueOf(require(value, "roomType").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid roomType: " + value);
+        }
+    }
+
+    private static String require(String value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value;
+    }
+
+    private static <T> Set<T> identitySet(List<T> items) {
+        Set<T> set = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+        set.addAll(items);
+        return set;
+    }
+
+    // Turns the field values of one row into a validated object
+    private interface RowMapper<T> {
+        T map(String[] values);
+    }
+
+    // Growable list of line numbers (no boxing for a million rows)
+    private static final class LineNumbers {
+        private long[] lines = new long[1024];
+        private int size;
+
+        void add(long line) {
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            lines[size++] = line;
+        }
+
+        long get(int index) {
+            return lines[index];
+        }
+    }
+
+    // A validated reservation row, before its customer and room are looked up
+    private static final class StayRow {
+        final String email;
+        final String roomNumber;
+        final LocalDate checkIn;
+        final LocalDate checkOut;
+
+        StayRow(String email, String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+            this.email = email;
+            this.roomNumber = roomNumber;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+    }
+
+    // Parsed chunk: the valid rows with their line numbers, and the rejected lines
+    private static final class Chunk<T> {
+        final int lines;
+        final List<T> values;
+        final long[] valueLines;
+        final List<Long> errorLines = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        Chunk(int lines) {
+            this.lines = lines;
+            this.values = new ArrayList<>(lines);
+            this.valueLines = new long[lines];
+        }
+
+        void add(T value, long line) {
+            valueLines[values.size()] = line;
+            values.add(value);
+        }
+    }
+}
\ No newline at end of file
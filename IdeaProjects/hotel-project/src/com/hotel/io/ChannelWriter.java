@@ -0,0 +1,257 @@
+package com.hotel.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+
+// Buffered UTF-8 writer over a channel. Values are encoded straight into a
+// byte array (numbers digit by digit, dates from the epoch day), so writing
+// a record builds no String per field or per line. The array is written to
+// the channel whenever it fills and on flush().
+final class ChannelWriter {
+    private static final byte[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final int MIN_BUFFER_BYTES = 64; // the largest single value (a long, a date)
+    private static final int MAX_CHAR_BYTES = 6;    // a \\u escape; UTF-8 needs at most 3 per char
+
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view; // the array, for channel writes
+    private int position;
+    private long bytesWritten;
+
+    ChannelWriter(WritableByteChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = new byte[Math.max(bufferBytes, MIN_BUFFER_BYTES)];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    // Pre-encoded bytes (separators, JSON keys)
+    ChannelWriter raw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            drain();
+            write(ByteBuffer.wrap(bytes));
+            return this;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    ChannelWriter raw(byte b) throws IOException {
+        ensure(1);
+        buffer[position++] = b;
+        return this;
+    }
+
+    // Text as is
+    ChannelWriter text(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; ) {
+            // Encode as much as surely fits, then make room again
+            int end = Math.min(length, i + (buffer.length - position) / MAX_CHAR_BYTES);
+            if (end == i) {
+                drain();
+                continue;
+            }
+            for (; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else {
+                    i = putChar(value, i);
+                }
+            }
+        }
+        return this;
+    }
+
+    // CSV cell: quoted (with "" for ") only if it holds a comma, quote or line break
+    ChannelWriter csv(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return text(value);
+        }
+        raw((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            ensure(MAX_CHAR_BYTES);
+            if (value.charAt(i) == '"') {
+                buffer[position++] = '"';
+            }
+            i = putChar(value, i);
+        }
+        return raw((byte) '"');
+    }
+
+    // JSON string literal, quotes included
+    ChannelWriter json(String value) throws IOException {
+        raw((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; ) {
+            int end = Math.min(length, i + (buffer.length - position) / MAX_CHAR_BYTES);
+            if (end == i) {
+                drain();
+                continue;
+            }
+            for (; i < end; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else if (c == '"' || c == '\\') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = (byte) c;
+                } else if (c == '\n') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'n';
+                } else if (c == '\r') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'r';
+                } else if (c == '\t') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 't';
+                } else if (c < 0x20) {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'u';
+                    buffer[position++] = '0';
+                    buffer[position++] = '0';
+                    buffer[position++] = HEX[c >> 4];
+                    buffer[position++] = HEX[c & 0xF];
+                } else {
+                    i = putChar(value, i);
+                }
+            }
+        }
+        return raw((byte) '"');
+    }
+
+    // Decimal integer
+    ChannelWriter number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return text(Long.toString(value));
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int at = position + digits - 1; at >= position; at--) {
+            buffer[at] = DIGITS[(int) (value % 10)];
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+
+    // Amount with two decimals (e.g. 120.50)
+    ChannelWriter money(double amount) throws IOException {
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            raw((byte) '-');
+            cents = -cents;
+        }
+        number(cents / 100);
+        ensure(3);
+        int fraction = (int) (cents % 100);
+        buffer[position++] = '.';
+        buffer[position++] = DIGITS[fraction / 10];
+        buffer[position++] = DIGITS[fraction % 10];
+        return this;
+    }
+
+    // ISO date (yyyy-MM-dd) of an epoch day, via the civil-from-days algorithm
+    ChannelWriter date(long epochDay) throws IOException {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153; // March = 0
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return text(LocalDate.ofEpochDay(epochDay).toString());
+        }
+
+        int y = (int) year;
+        ensure(10);
+        buffer[position++] = DIGITS[y / 1000];
+        buffer[position++] = DIGITS[y / 100 % 10];
+        buffer[position++] = DIGITS[y / 10 % 10];
+        buffer[position++] = DIGITS[y % 10];
+        buffer[position++] = '-';
+        buffer[position++] = DIGITS[month / 10];
+        buffer[position++] = DIGITS[month % 10];
+        buffer[position++] = '-';
+        buffer[position++] = DIGITS[day / 10];
+        buffer[position++] = DIGITS[day % 10];
+        return this;
+    }
+
+    // Write out everything buffered
+    void flush() throws IOException {
+        drain();
+    }
+
+    // Helper method: UTF-8 encode the char at i (with its low surrogate, if a
+    // pair); returns the index of the last char consumed. The caller has made
+    // room for MAX_CHAR_BYTES.
+    private int putChar(String value, int i) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer[position++] = '?'; // unpaired surrogate
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        view.limit(position).position(0);
+        write(view);
+        view.clear();
+        position = 0;
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.hotel.io;
+
+import java.nio.file.Path;
+
+// File formats for bulk import and export, chosen by file extension
+public enum DataFormat {
+    CSV,    // header row naming the columns, then one record per line
+    NDJSON; // one flat JSON object per line
+
+    public static DataFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unknown file format (expected .csv, .ndjson or .jsonl): " + file);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.hotel.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of one bulk import: how many records were read, loaded and
+// rejected, and the reasons for the first MAX_ERRORS rejections
+public class ImportReport {
+    public static final int MAX_ERRORS = 100;
+
+    private final String kind;
+    private final List<String> errors;
+    private long records;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+
+    ImportReport(String kind) {
+        this.kind = kind;
+        this.errors = new ArrayList<>();
+    }
+
+    // Getters
+    public String getKind() {
+        return kind;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    void addRecords(int count) {
+        records += count;
+    }
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void reject(long line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + line + ": " + reason);
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %,d of %,d %s in %d ms (%,d rejected)",
+                imported, records, kind, elapsedMillis, rejected);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.hotel.io;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.ReservationPage;
+import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Streams reservations to a file or channel as CSV or NDJSON. Stays are read
+// page by page (ReservationService.nextPage) and each field is encoded
+// straight into a buffered NIO writer, so memory stays flat however large
+// the book is. Columns match what BulkImporter reads back:
+//   email, firstName, lastName, roomNumber, roomType, price, checkIn, checkOut
+public class ReservationExporter {
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private static final byte[] CSV_HEADER = bytes("email,firstName,lastName,roomNumber,roomType,price,checkIn,checkOut\n");
+    private static final byte[] JSON_EMAIL = bytes("{\"email\":");
+    private static final byte[] JSON_FIRST_NAME = bytes(",\"firstName\":");
+    private static final byte[] JSON_LAST_NAME = bytes(",\"lastName\":");
+    private static final byte[] JSON_ROOM_NUMBER = bytes(",\"roomNumber\":");
+    private static final byte[] JSON_ROOM_TYPE = bytes(",\"roomType\":\"");
+    private static final byte[] JSON_PRICE = bytes("\",\"price\":");
+    private static final byte[] JSON_CHECK_IN = bytes(",\"checkIn\":\"");
+    private static final byte[] JSON_CHECK_OUT = bytes("\",\"checkOut\":\"");
+    private static final byte[] JSON_END = bytes("\"}\n");
+
+    private final ReservationService reservationService;
+    private final int pageSize;
+
+    public ReservationExporter() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public ReservationExporter(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.reservationService = ReservationService.getInstance();
+        this.pageSize = pageSize;
+    }
+
+    // 1. Export to a file (format from its extension, replaced if it exists).
+    // Only stays checking in within [from, to) are written (null = unbounded),
+    // and only for roomNumbers (null or empty = every room). Returns the count.
+    public long export(Path file, LocalDate from, LocalDate to, Collection<String> roomNumbers)
+            throws IOException {
+        DataFormat format = DataFormat.of(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(channel, format, from, to, roomNumbers);
+        }
+    }
+
+    // 2. Export to any channel (left open)
+    public long export(WritableByteChannel channel, DataFormat format, LocalDate from, LocalDate to,
+                       Collection<String> roomNumbers) throws IOException {
+        ChannelWriter out = new ChannelWriter(channel, BUFFER_BYTES);
+        ReservationPage page = new ReservationPage(pageSize, from, to, roomNumbers);
+        if (format == DataFormat.CSV) {
+            out.raw(CSV_HEADER);
+        }
+
+        long written = 0;
+        while (reservationService.nextPage(page)) {
+            for (int i = 0; i < page.size(); i++) {
+                if (format == DataFormat.CSV) {
+                    writeCsv(out, page, i);
+                } else {
+                    writeJson(out, page, i);
+                }
+            }
+            written += page.size();
+        }
+        out.flush();
+        return written;
+    }
+
+    private static void writeCsv(ChannelWriter out, ReservationPage page, int i) throws IOException {
+        Customer customer = page.getCustomer(i);
+        IRoom room = page.getRoom(i);
+        out.csv(customer.getEmail()).raw((byte) ',')
+                .csv(nullToEmpty(customer.getFirstName())).raw((byte) ',')
+                .csv(nullToEmpty(customer.getLastName())).raw((byte) ',')
+                .csv(room.getRoomNumber()).raw((byte) ',')
+                .text(room.getRoomType().name()).raw((byte) ',')
+                .money(room.getRoomPrice()).raw((byte) ',')
+                .date(page.getCheckInDay(i)).raw((byte) ',')
+                .date(page.getCheckOutDay(i)).raw((byte) '\n');
+    }
+
+    private static void writeJson(ChannelWriter out, ReservationPage page, int i) throws IOException {
+        Customer customer = page.getCustomer(i);
+        IRoom room = page.getRoom(i);
+        out.raw(JSON_EMAIL).json(customer.getEmail())
+                .raw(JSON_FIRST_NAME).json(nullToEmpty(customer.getFirstName()))
+                .raw(JSON_LAST_NAME).json(nullToEmpty(customer.getLastName()))
+                .raw(JSON_ROOM_NUMBER).json(room.getRoomNumber())
+                .raw(JSON_ROOM_TYPE).text(room.getRoomType().name())
+                .raw(JSON_PRICE).money(room.getRoomPrice())
+                .raw(JSON_CHECK_IN).date(page.getCheckInDay(i))
+                .raw(JSON_CHECK_OUT).date(page.getCheckOutDay(i))
+                .raw(JSON_END);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
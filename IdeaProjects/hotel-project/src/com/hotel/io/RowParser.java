@@ -0,0 +1,214 @@
+package com.hotel.io;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Splits one line of a CSV or NDJSON file into the values of a fixed list of
+// fields (null where absent). For CSV the header row decides which column
+// holds which field; NDJSON objects are matched by key and must be flat.
+// Immutable once built, so chunks can be parsed on several threads.
+final class RowParser {
+    private final DataFormat format;
+    private final String[] fields;
+    private final Map<String, Integer> fieldIndex;
+    private final int[] columnToField; // CSV only: field of each column, -1 = ignored
+
+    RowParser(DataFormat format, String[] fields, String header) {
+        this.format = format;
+        this.fields = fields;
+        this.fieldIndex = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            fieldIndex.put(fields[i].toLowerCase(Locale.ROOT), i);
+        }
+
+        if (format == DataFormat.CSV) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file has no header row");
+            }
+            List<String> columns = splitCsv(header);
+            this.columnToField = new int[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                Integer field = fieldIndex.get(columns.get(c).trim().toLowerCase(Locale.ROOT));
+                columnToField[c] = field == null ? -1 : field;
+            }
+        } else {
+            this.columnToField = null;
+        }
+    }
+
+    // Check that the CSV header names a column for each of the given fields
+    void requireColumns(String... required) {
+        if (format != DataFormat.CSV) {
+            return;
+        }
+        for (String name : required) {
+            int field = fieldIndex.get(name.toLowerCase(Locale.ROOT));
+            boolean found = false;
+            for (int mapped : columnToField) {
+                found |= mapped == field;
+            }
+            if (!found) {
+                throw new IllegalArgumentException("CSV header has no '" + name + "' column");
+            }
+        }
+    }
+
+    // Values of one line by field index; throws IllegalArgumentException if malformed
+    String[] parse(String line) {
+        return format == DataFormat.CSV ? parseCsv(line) : parseJson(line);
+    }
+
+    // Helper method: CSV columns to fields (blank cells count as absent)
+    private String[] parseCsv(String line) {
+        List<String> cells = splitCsv(line);
+        if (cells.size() > columnToField.length) {
+            throw new IllegalArgumentException("Expected " + columnToField.length + " columns, found " + cells.size());
+        }
+        String[] values = new String[fields.length];
+        for (int c = 0; c < cells.size(); c++) {
+            String cell = cells.get(c).trim();
+            if (columnToField[c] >= 0 && !cell.isEmpty()) {
+                values[columnToField[c]] = cell;
+            }
+        }
+        return values;
+    }
+
+    // Helper method: Split a CSV line on commas; double quotes group a cell
+    // and "" inside quotes is a literal quote (RFC 4180, one line per record)
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    // Helper method: One flat JSON object to fields; unknown keys are skipped
+    private String[] parseJson(String line) {
+        String[] values = new String[fields.length];
+        int[] at = {skipSpace(line, 0)};
+        expect(line, at, '{');
+        if (peek(line, at) == '}') {
+            return values;
+        }
+        while (true) {
+            String key = readString(line, at);
+            expect(line, at, ':');
+            String value = peek(line, at) == '"' ? readString(line, at) : readLiteral(line, at);
+            Integer field = fieldIndex.get(key.toLowerCase(Locale.ROOT));
+            if (field != null) {
+                values[field] = value;
+            }
+            char next = peek(line, at);
+            at[0]++;
+            if (next == '}') {
+                break;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Expected ',' or '}' at column " + at[0]);
+            }
+        }
+        if (skipSpace(line, at[0]) != line.length()) {
+            throw new IllegalArgumentException("Unexpected text after the object");
+        }
+        return values;
+    }
+
+    private static String readString(String line, int[] at) {
+        expect(line, at, '"');
+        StringBuilder value = new StringBuilder();
+        for (int i = at[0]; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                at[0] = i + 1;
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (++i >= line.length()) {
+                break;
+            }
+            char escaped = line.charAt(i);
+            switch (escaped) {
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'n': value.append('\n'); break;
+                case 'r': value.append('\r'); break;
+                case 't': value.append('\t'); break;
+                case 'u':
+                    if (i + 4 >= line.length()) {
+                        throw new IllegalArgumentException("Bad \\u escape");
+                    }
+                    value.append((char) Integer.parseInt(line.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default: value.append(escaped); // \" \\ \/
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    // Helper method: number, true, false or null (null becomes an absent value)
+    private static String readLiteral(String line, int[] at) {
+        int start = at[0];
+        int end = start;
+        while (end < line.length() && ",} \t".indexOf(line.charAt(end)) < 0) {
+            end++;
+        }
+        String literal = line.substring(start, end);
+        if (literal.isEmpty() || literal.charAt(0) == '{' || literal.charAt(0) == '[') {
+            throw new IllegalArgumentException("Expected a string, number or boolean at column " + start);
+        }
+        at[0] = end;
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static void expect(String line, int[] at, char expected) {
+        if (peek(line, at) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at column " + at[0]);
+        }
+        at[0]++;
+    }
+
+    // Next non-blank character (moves past the blanks), or 0 at end of line
+    private static char peek(String line, int[] at) {
+        at[0] = skipSpace(line, at[0]);
+        return at[0] < line.length() ? line.charAt(at[0]) : 0;
+    }
+
+    private static int skipSpace(String line, int at) {
+        while (at < line.length() && Character.isWhitespace(line.charAt(at))) {
+            at++;
+        }
+        return at;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.hotel.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Every amenity name any room has, each given an index in the order names are
+// first seen (the defaults first), so a room keeps its amenities as bits
+// instead of a list of strings: the first 64 indexes as one long mask, any
+// later ones in extra words (see Room). The list view of a mask is built once
+// and shared by every room with that mask (in a small direct-mapped cache, so
+// reading it allocates nothing); rooms with extra words build theirs per call.
+// The catalog also counts amenities added to rooms after they were built, so
+// indexes over rooms can tell when to look at them again.
+public final class AmenityCatalog {
+    public static final int MASK_BITS = 64; // indexes a room keeps in its single long
+    private static final int CACHED_LISTS = 1 << 12; // power of two
+
+    private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<>();
+    private static String[] names = new String[MASK_BITS]; // by index (guarded by the class)
+    private static volatile int count;
+    private static final ListView[] LISTS = new ListView[CACHED_LISTS]; // by hash of the mask
+    private static final AtomicLong ROOM_CHANGES = new AtomicLong();
+
+    // Default amenities (see Room)
+    public static final long FREE_WIFI = maskOf("Free WiFi");
+    public static final long FLAT_SCREEN_TV = maskOf("Flat-screen TV");
+    public static final long AIR_CONDITIONING = maskOf("Air Conditioning");
+    public static final long PRIVATE_BATHROOM = maskOf("Private Bathroom");
+    public static final long KING_SIZE_BED = maskOf("King Size Bed");
+    public static final long MINI_REFRIGERATOR = maskOf("Mini Refrigerator");
+    public static final long WORK_DESK = maskOf("Work Desk");
+    public static final long QUEEN_SIZE_BED = maskOf("Queen Size Bed");
+    public static final long PREMIUM_TOILETRIES = maskOf("Premium Toiletries");
+    public static final long COFFEE_TEA_MAKER = maskOf("Coffee/Tea Maker");
+    public static final long BATHROBE_SLIPPERS = maskOf("Bathrobe & Slippers");
+    public static final long PRIVATE_BALCONY = maskOf("Private Balcony");
+    public static final long OUTDOOR_SEATING = maskOf("Outdoor Seating");
+    public static final long OCEAN_VIEW = maskOf("Ocean View");
+    public static final long BINOCULARS = maskOf("Binoculars");
+
+    private AmenityCatalog() {
+    }
+
+    // Index of an amenity, adding it to the catalog if new
+    public static int indexOf(String amenity) {
+        Integer index = INDEXES.get(amenity);
+        return index != null ? index : register(amenity);
+    }
+
+    // Index of an amenity already in the catalog, or -1 (no room has it)
+    public static int find(String amenity) {
+        Integer index = INDEXES.get(amenity);
+        return index == null ? -1 : index;
+    }
+
+    // Names of the amenities in a mask, in catalog order (unmodifiable, shared)
+    public static List<String> names(long mask) {
+        int slot = (int) ((mask * 0x9E3779B97F4A7C15L) >>> 52) & (CACHED_LISTS - 1);
+        ListView view = LISTS[slot];
+        if (view == null || view.mask != mask) {
+            view = new ListView(mask, build(mask, null));
+            LISTS[slot] = view; // racing builders store equal views
+        }
+        return view.names;
+    }
+
+    // Names of the amenities in a mask plus extra words (word w holds indexes
+    // MASK_BITS + 64 * w and up; null if none), in catalog order (unmodifiable)
+    public static List<String> names(long mask, long[] extra) {
+        return extra == null ? names(mask) : build(mask, extra);
+    }
+
+    // Number of amenities in the catalog
+    public static int size() {
+        return count;
+    }
+
+    // Number of Room.addAmenity calls so far; a room's new amenity is visible
+    // to anyone who reads the count after it went up
+    public static long roomChanges() {
+        return ROOM_CHANGES.get();
+    }
+
+    static void roomChanged() {
+        ROOM_CHANGES.incrementAndGet();
+    }
+
+    // Helper method: the mask bit of a default amenity (always among the first 64)
+    private static long maskOf(String amenity) {
+        return 1L << indexOf(amenity);
+    }
+
+    // Helper method: give a new amenity the next free index
+    private static synchronized int register(String amenity) {
+        Integer index = INDEXES.get(amenity);
+        if (index != null) {
+            return index;
+        }
+        int next = count;
+        if (next == names.length) {
+            names = Arrays.copyOf(names, next * 2);
+        }
+        names[next] = amenity;
+        INDEXES.put(amenity, next);
+        count = next + 1;
+        return next;
+    }
+
+    // Helper method: the list view of a mask and its extra words
+    private static List<String> build(long mask, long[] extra) {
+        List<String> list = new ArrayList<>(Long.bitCount(mask));
+        synchronized (AmenityCatalog.class) {
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                list.add(names[Long.numberOfTrailingZeros(bits)]);
+            }
+            for (int w = 0; extra != null && w < extra.length; w++) {
+                for (long bits = extra[w]; bits != 0; bits &= bits - 1) {
+                    list.add(names[MASK_BITS + 64 * w + Long.numberOfTrailingZeros(bits)]);
+                }
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    // A mask and its names (immutable, so safe to share through the cache without locking)
+    private static final class ListView {
+        final long mask;
+        final List<String> names;
+
+        ListView(long mask, List<String> names) {
+            this.mask = mask;
+            this.names = names;
+        }
+    }
+}
\ No newline at end of file
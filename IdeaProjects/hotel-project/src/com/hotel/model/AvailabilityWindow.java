@@ -0,0 +1,37 @@
+package com.hotel.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// A date range with the rooms that are free for all of its nights
+public class AvailabilityWindow {
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final List<IRoom> rooms;
+
+    public AvailabilityWindow(LocalDate checkInDate, LocalDate checkOutDate, Collection<IRoom> rooms) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.rooms = new ArrayList<>(rooms);
+    }
+
+    // Getters
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public List<IRoom> getRooms() {
+        return new ArrayList<>(rooms); // Return copy for immutability
+    }
+
+    @Override
+    public String toString() {
+        return checkInDate + " to " + checkOutDate + " (" + rooms.size() + " room(s) free)";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.hotel.model;
+
+import java.time.LocalDate;
+
+// One room and date range inside a group booking
+public class BookingRequest {
+    private final IRoom room;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
+    public BookingRequest(IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
+        this.room = room;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    // Getters
+    public IRoom getRoom() {
+        return room;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingRequest{" +
+                "room=" + (room == null ? "null" : room.getRoomNumber()) +
+                ", checkIn=" + checkInDate +
+                ", checkOut=" + checkOutDate +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.hotel.model;
+
+// Outcome of one item in a group booking: the reservation, or why it was not booked
+public class BookingResult {
+    private final BookingRequest request;
+    private final Reservation reservation;
+    private final String failureReason;
+
+    private BookingResult(BookingRequest request, Reservation reservation, String failureReason) {
+        this.request = request;
+        this.reservation = reservation;
+        this.failureReason = failureReason;
+    }
+
+    public static BookingResult booked(BookingRequest request, Reservation reservation) {
+        return new BookingResult(request, reservation, null);
+    }
+
+    public static BookingResult failed(BookingRequest request, String failureReason) {
+        return new BookingResult(request, null, failureReason);
+    }
+
+    // Getters
+    public BookingRequest getRequest() {
+        return request;
+    }
+
+    public boolean isBooked() {
+        return reservation != null;
+    }
+
+    // Null unless booked
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    // Null when booked
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    @Override
+    public String toString() {
+        return isBooked()
+                ? "Booked: " + request
+                : "Not booked: " + request + " - " + failureReason;
+    }
+}
\ No newline at end of file
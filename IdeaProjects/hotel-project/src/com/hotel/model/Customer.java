@@ -1,20 +1,31 @@
 package com.hotel.model;
 
+import java.util.regex.Pattern;
+
 public class Customer {
     private final String firstName;
     private final String lastName;
     private final String email;
+    private final int hash; // of the email, ignoring case
 
-    private static final String EMAIL_REGEX = "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+    // Compiled once (String.matches would compile it for every account)
+    private static final Pattern EMAIL = Pattern.compile(
+            "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
 
     public Customer(String firstName, String lastName, String email) {
-        if (email == null || !email.matches(EMAIL_REGEX)) {
+        if (!isValidEmail(email)) {
             throw new IllegalArgumentException("Invalid email format: " + email);
         }
 
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
+        this.hash = emailHash(email);
+    }
+
+    // Check an address against the format every account must have
+    public static boolean isValidEmail(String email) {
+        return email != null && EMAIL.matcher(email).matches();
     }
 
     // Getters remain the same
@@ -22,18 +33,37 @@ public class Customer {
     public String getLastName() { return lastName; }
     public String getEmail() { return email; }
 
-    // equals() and hashCode() based on email (unique identifier)
+    // equals() and hashCode() based on email (unique identifier), ignoring
+    // case as the customer repository does
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Customer customer = (Customer) o;
-        return email.equals(customer.email);
+        return hash == customer.hash && email.equalsIgnoreCase(customer.email);
     }
 
     @Override
     public int hashCode() {
-        return email.hashCode();
+        return hash;
+    }
+
+    // Case-insensitive hash of an email: every character folded the way
+    // equalsIgnoreCase compares it (ASCII letters without a table lookup)
+    public static int emailHash(String email) {
+        int h = 0;
+        for (int i = 0, n = email.length(); i < n; i++) {
+            char c = email.charAt(i);
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h;
     }
 
     @Override
@@ -1,20 +1,25 @@
 package com.hotel.model;
 
 import java.time.LocalDate;
-import java.util.Objects;
 
 public class Reservation {
+    private final long id; // assigned by the reservation service; 0 until booked
     private final Customer customer;
     private final IRoom room;
     private final LocalDate checkInDate;
     private final LocalDate checkOutDate;
 
     public Reservation(Customer customer, IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
+        this(0, customer, room, checkInDate, checkOutDate);
+    }
+
+    public Reservation(long id, Customer customer, IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
         // Validate dates
         if (checkOutDate.isBefore(checkInDate) || checkOutDate.isEqual(checkInDate)) {
             throw new IllegalArgumentException("Check-out date must be after check-in date");
         }
 
+        this.id = id;
         this.customer = customer;
         this.room = room;
         this.checkInDate = checkInDate;
@@ -22,6 +27,10 @@ public class Reservation {
     }
 
     // Getters
+    public long getId() {
+        return id;
+    }
+
     public Customer getCustomer() {
         return customer;
     }
@@ -38,7 +47,7 @@ public class Reservation {
         return checkOutDate;
     }
 
-    // equals() and hashCode()
+    // equals() and hashCode(): the same stay, whatever id it was read with
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -50,14 +59,20 @@ public class Reservation {
                 checkOutDate.equals(that.checkOutDate);
     }
 
+    // Same value as Objects.hash(customer, room, checkInDate, checkOutDate),
+    // without boxing the fields into a varargs array
     @Override
     public int hashCode() {
-        return Objects.hash(customer, room, checkInDate, checkOutDate);
+        int result = 31 + customer.hashCode();
+        result = 31 * result + room.hashCode();
+        result = 31 * result + checkInDate.hashCode();
+        return 31 * result + checkOutDate.hashCode();
     }
 
     @Override
     public String toString() {
         return "Reservation {" +
+                (id != 0 ? "\n  ID: " + id : "") +
                 "\n  Customer: " + customer.getFirstName() + " " + customer.getLastName() +
                 "\n  Email: " + customer.getEmail() +
                 "\n  Room: " + room.getRoomNumber() +
@@ -0,0 +1,124 @@
+package com.hotel.model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// One page of reservations for streaming reads (exports). Stays are kept as
+// parallel arrays (room, customer, check-in/check-out epoch days) and the
+// page is refilled in place, so reading a large book builds no Reservation
+// or LocalDate per stay. The page also carries the filter and the cursor:
+// stays come room by room, in check-in order within a room.
+public class ReservationPage {
+    private final IRoom[] rooms;
+    private final Customer[] customers;
+    private final int[] checkInDays;
+    private final int[] checkOutDays;
+    private int size;
+
+    // Filter: check-in within [fromDay, toDay), rooms in roomNumbers (null = all)
+    private final long fromDay;
+    private final long toDay;
+    private final Set<String> roomNumbers;
+
+    // Cursor: next room ordinal and first check-in day to read in it
+    private int nextRoom;
+    private long nextDay;
+    private boolean done;
+
+    // from/to may be null (unbounded); roomNumbers null or empty means every room
+    public ReservationPage(int capacity, LocalDate from, LocalDate to, Collection<String> roomNumbers) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Page capacity must be positive");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        this.rooms = new IRoom[capacity];
+        this.customers = new Customer[capacity];
+        this.checkInDays = new int[capacity];
+        this.checkOutDays = new int[capacity];
+        this.fromDay = from == null ? Integer.MIN_VALUE : from.toEpochDay();
+        this.toDay = to == null ? Integer.MAX_VALUE : to.toEpochDay();
+        this.roomNumbers = roomNumbers == null || roomNumbers.isEmpty() ? null : new HashSet<>(roomNumbers);
+        this.nextDay = fromDay;
+    }
+
+    // Getters
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return rooms.length;
+    }
+
+    public IRoom getRoom(int i) {
+        return rooms[i];
+    }
+
+    public Customer getCustomer(int i) {
+        return customers[i];
+    }
+
+    public int getCheckInDay(int i) {
+        return checkInDays[i];
+    }
+
+    public int getCheckOutDay(int i) {
+        return checkOutDays[i];
+    }
+
+    public long getFromDay() {
+        return fromDay;
+    }
+
+    public long getToDay() {
+        return toDay;
+    }
+
+    public boolean includesRoom(String roomNumber) {
+        return roomNumbers == null || roomNumbers.contains(roomNumber);
+    }
+
+    // Methods for the service filling the page
+    public boolean isFull() {
+        return size == rooms.length;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public int getNextRoom() {
+        return nextRoom;
+    }
+
+    public long getNextDay() {
+        return nextDay;
+    }
+
+    // Start a refill: forget the previous page's stays
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(IRoom room, Customer customer, int checkInDay, int checkOutDay) {
+        rooms[size] = room;
+        customers[size] = customer;
+        checkInDays[size] = checkInDay;
+        checkOutDays[size] = checkOutDay;
+        size++;
+    }
+
+    // Where the next refill resumes
+    public void moveTo(int room, long day) {
+        this.nextRoom = room;
+        this.nextDay = day;
+    }
+
+    public void finish() {
+        this.done = true;
+    }
+}
\ No newline at end of file
@@ -2,9 +2,15 @@ package com.hotel.model;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class Room implements IRoom {
+    // 3 digits + optional letter, compiled once (imports check it per row)
+    private static final Pattern ROOM_NUMBER = Pattern.compile("^[0-9]{3}[A-Z]?$");
+
     private final String roomNumber;
     private final Double price;
     private final RoomType roomType;
@@ -13,7 +19,8 @@ public class Room implements IRoom {
     private final int floorNumber;
     private final boolean hasBalcony;
     private final boolean hasSeaView;
-    private final List<String> amenities;
+    private volatile long amenities; // AmenityCatalog indexes below MASK_BITS, as bits
+    private volatile long[] extraAmenities; // indexes from MASK_BITS on, null if none (replaced, never changed)
     private RoomStatus status;
     private LocalDateTime lastCleaned;
 
@@ -47,12 +54,11 @@ public class Room implements IRoom {
         this.floorNumber = floorNumber;
         this.hasBalcony = hasBalcony;
         this.hasSeaView = hasSeaView;
-        this.amenities = new ArrayList<>();
         this.status = RoomStatus.AVAILABLE;
         this.lastCleaned = LocalDateTime.now();
 
         // Add default amenities based on room type
-        addDefaultAmenities();
+        this.amenities = defaultAmenities(roomType, floorNumber, hasBalcony, hasSeaView);
     }
 
     // Constructor with minimal parameters (for backward compatibility)
@@ -63,12 +69,12 @@ public class Room implements IRoom {
                 false); // no sea view by default
     }
 
-    // Validation methods
-    private void validateRoomNumber(String roomNumber) {
+    // Validation methods (room numbers are also checked where no Room is built, e.g. imports)
+    public static void validateRoomNumber(String roomNumber) {
         if (roomNumber == null || roomNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Room number cannot be empty");
         }
-        if (!roomNumber.matches("^[0-9]{3}[A-Z]?$")) {
+        if (!ROOM_NUMBER.matcher(roomNumber).matches()) {
             throw new IllegalArgumentException("Room number format: 3 digits + optional letter (e.g., 101A)");
         }
     }
@@ -79,40 +85,35 @@ public class Room implements IRoom {
         }
     }
 
-    private void addDefaultAmenities() {
+    private static long defaultAmenities(RoomType roomType, int floorNumber,
+                                         boolean hasBalcony, boolean hasSeaView) {
         // All rooms get basic amenities
-        amenities.add("Free WiFi");
-        amenities.add("Flat-screen TV");
-        amenities.add("Air Conditioning");
-        amenities.add("Private Bathroom");
+        long amenities = AmenityCatalog.FREE_WIFI | AmenityCatalog.FLAT_SCREEN_TV
+                | AmenityCatalog.AIR_CONDITIONING | AmenityCatalog.PRIVATE_BATHROOM;
 
         // Add amenities based on room type
         if (roomType == RoomType.DOUBLE) {
-            amenities.add("King Size Bed");
-            amenities.add("Mini Refrigerator");
-            amenities.add("Work Desk");
+            amenities |= AmenityCatalog.KING_SIZE_BED | AmenityCatalog.MINI_REFRIGERATOR | AmenityCatalog.WORK_DESK;
         } else {
-            amenities.add("Queen Size Bed");
+            amenities |= AmenityCatalog.QUEEN_SIZE_BED;
         }
 
         // Add premium amenities for higher floors
         if (floorNumber >= 3) {
-            amenities.add("Premium Toiletries");
-            amenities.add("Coffee/Tea Maker");
-            amenities.add("Bathrobe & Slippers");
+            amenities |= AmenityCatalog.PREMIUM_TOILETRIES | AmenityCatalog.COFFEE_TEA_MAKER
+                    | AmenityCatalog.BATHROBE_SLIPPERS;
         }
 
         // Add balcony amenities if available
         if (hasBalcony) {
-            amenities.add("Private Balcony");
-            amenities.add("Outdoor Seating");
+            amenities |= AmenityCatalog.PRIVATE_BALCONY | AmenityCatalog.OUTDOOR_SEATING;
         }
 
         // Add view amenities if available
         if (hasSeaView) {
-            amenities.add("Ocean View");
-            amenities.add("Binoculars");
+            amenities |= AmenityCatalog.OCEAN_VIEW | AmenityCatalog.BINOCULARS;
         }
+        return amenities;
     }
 
     // Interface implementation
@@ -149,8 +150,34 @@ public class Room implements IRoom {
         return hasSeaView;
     }
 
+    // Amenity names in catalog order (unmodifiable, shared by rooms with the same amenities)
     public List<String> getAmenities() {
-        return new ArrayList<>(amenities); // Return copy for immutability
+        return AmenityCatalog.names(amenities, extraAmenities);
+    }
+
+    // Amenities as a set of AmenityCatalog indexes (a copy)
+    public BitSet getAmenityIndexes() {
+        long[] extra = extraAmenities;
+        if (extra == null) {
+            return BitSet.valueOf(new long[] {amenities});
+        }
+        long[] words = new long[extra.length + 1];
+        words[0] = amenities;
+        System.arraycopy(extra, 0, words, 1, extra.length);
+        return BitSet.valueOf(words);
+    }
+
+    public boolean hasAmenity(String amenity) {
+        int index = AmenityCatalog.find(amenity);
+        if (index < 0) {
+            return false;
+        }
+        if (index < AmenityCatalog.MASK_BITS) {
+            return (amenities & (1L << index)) != 0;
+        }
+        long[] extra = extraAmenities;
+        int word = (index - AmenityCatalog.MASK_BITS) >>> 6;
+        return extra != null && word < extra.length && (extra[word] & (1L << index)) != 0;
     }
 
     public RoomStatus getStatus() {
@@ -174,10 +201,21 @@ public class Room implements IRoom {
     }
 
     // Add custom amenity
-    public void addAmenity(String amenity) {
-        if (amenity != null && !amenity.trim().isEmpty() && !amenities.contains(amenity)) {
-            amenities.add(amenity);
+    public synchronized void addAmenity(String amenity) {
+        if (amenity == null || amenity.trim().isEmpty()) {
+            return;
+        }
+        int index = AmenityCatalog.indexOf(amenity);
+        if (index < AmenityCatalog.MASK_BITS) {
+            amenities |= 1L << index;
+        } else {
+            int word = (index - AmenityCatalog.MASK_BITS) >>> 6;
+            long[] extra = extraAmenities == null ? new long[word + 1]
+                    : Arrays.copyOf(extraAmenities, Math.max(extraAmenities.length, word + 1));
+            extra[word] |= 1L << index; // the shift only uses the low six bits
+            extraAmenities = extra;
         }
+        AmenityCatalog.roomChanged(); // after the new bit is in, so indexes that see the count see it
     }
 
     // Check if room needs cleaning (if not cleaned for 24 hours)
@@ -269,10 +307,11 @@ public class Room implements IRoom {
             sb.append("Standard");
         }
 
+        List<String> amenityNames = getAmenities();
         sb.append("\nTop Amenities: ").append(String.join(", ",
-                amenities.subList(0, Math.min(5, amenities.size()))));
-        if (amenities.size() > 5) {
-            sb.append("\n(+").append(amenities.size() - 5).append(" more amenities)");
+                amenityNames.subList(0, Math.min(5, amenityNames.size()))));
+        if (amenityNames.size() > 5) {
+            sb.append("\n(+").append(amenityNames.size() - 5).append(" more amenities)");
         }
 
         if (needsCleaning()) {
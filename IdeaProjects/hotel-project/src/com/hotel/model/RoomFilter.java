@@ -0,0 +1,96 @@
+package com.hotel.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Optional room attributes a guest can filter a search by.
+// Unset criteria match every room; set criteria must all match.
+public class RoomFilter {
+    private final Set<RoomType> roomTypes;
+    private final Set<String> amenities;
+    private Boolean seaView;
+    private Boolean balcony;
+    private Integer minFloor;
+    private Integer maxFloor;
+
+    public RoomFilter() {
+        this.roomTypes = EnumSet.noneOf(RoomType.class);
+        this.amenities = new LinkedHashSet<>();
+    }
+
+    // Accept any of the given room types (call again to add more)
+    public RoomFilter withRoomType(RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        roomTypes.add(roomType);
+        return this;
+    }
+
+    public RoomFilter withSeaView(boolean seaView) {
+        this.seaView = seaView;
+        return this;
+    }
+
+    public RoomFilter withBalcony(boolean balcony) {
+        this.balcony = balcony;
+        return this;
+    }
+
+    // Inclusive floor range
+    public RoomFilter withFloors(int minFloor, int maxFloor) {
+        if (maxFloor < minFloor) {
+            throw new IllegalArgumentException("Max floor must not be below min floor");
+        }
+        this.minFloor = minFloor;
+        this.maxFloor = maxFloor;
+        return this;
+    }
+
+    // Require an amenity (call again to require more)
+    public RoomFilter withAmenity(String amenity) {
+        if (amenity == null || amenity.trim().isEmpty()) {
+            throw new IllegalArgumentException("Amenity cannot be empty");
+        }
+        amenities.add(amenity);
+        return this;
+    }
+
+    // Getters (null / empty = not filtered)
+    public Set<RoomType> getRoomTypes() {
+        return Collections.unmodifiableSet(roomTypes);
+    }
+
+    public Set<String> getAmenities() {
+        return Collections.unmodifiableSet(amenities);
+    }
+
+    public Boolean getSeaView() {
+        return seaView;
+    }
+
+    public Boolean getBalcony() {
+        return balcony;
+    }
+
+    public Integer getMinFloor() {
+        return minFloor;
+    }
+
+    public Integer getMaxFloor() {
+        return maxFloor;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomFilter{" +
+                "roomTypes=" + roomTypes +
+                ", seaView=" + seaView +
+                ", balcony=" + balcony +
+                ", floors=" + minFloor + ".." + maxFloor +
+                ", amenities=" + amenities +
+                '}';
+    }
+}
\ No newline at end of file
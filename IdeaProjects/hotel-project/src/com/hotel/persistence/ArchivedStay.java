@@ -0,0 +1,62 @@
+package com.hotel.persistence;
+
+import java.util.Locale;
+
+// One stay as kept in the archive: plain keys and days, no live objects
+public final class ArchivedStay implements Comparable<ArchivedStay> {
+    private final long reservationId; // 0 if archived before stays had ids
+    private final String email;      // lower case
+    private final String roomNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+
+    public ArchivedStay(long reservationId, String email, String roomNumber, int checkInDay, int checkOutDay) {
+        this.reservationId = reservationId;
+        this.email = email.toLowerCase(Locale.ROOT);
+        this.roomNumber = roomNumber;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+    }
+
+    // Getters
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    // Archive order: customer, then check-in, then room
+    @Override
+    public int compareTo(ArchivedStay other) {
+        int byEmail = email.compareTo(other.email);
+        if (byEmail != 0) {
+            return byEmail;
+        }
+        int byDay = Integer.compare(checkInDay, other.checkInDay);
+        return byDay != 0 ? byDay : roomNumber.compareTo(other.roomNumber);
+    }
+
+    // Same stay (a room never has two stays starting the same day)
+    boolean sameStay(ArchivedStay other) {
+        return checkInDay == other.checkInDay && roomNumber.equals(other.roomNumber);
+    }
+
+    @Override
+    public String toString() {
+        return email + " " + roomNumber + " " + checkInDay + "-" + checkOutDay;
+    }
+}
\ No newline at end of file
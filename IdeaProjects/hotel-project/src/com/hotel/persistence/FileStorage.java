@@ -0,0 +1,297 @@
+package com.hotel.persistence;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.repository.CustomerRepository;
+import com.hotel.repository.InMemoryCustomerRepository;
+import com.hotel.repository.InMemoryReservationRepository;
+import com.hotel.repository.InMemoryRoomRepository;
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.StorageBackend;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+// File-backed storage: every room, customer and reservation written to a
+// repository is appended to one log (storage.log, in the journal's record
+// format) and waited for per the sync policy; reads are served from heap
+// copies rebuilt from the log when the backend is opened. The log only grows:
+// a re-saved room is appended again and the last copy wins on load, and a
+// removed reservation is logged as a removal.
+//
+// It replaces HotelPersistence rather than complementing it: the data is
+// already on disk, so the services need no journal of their own.
+public class FileStorage implements StorageBackend {
+    private static final String LOG_FILE = "storage.log";
+
+    private final Path dir;
+    private final Journal log;
+    private final InMemoryRoomRepository roomCache = new InMemoryRoomRepository();
+    private final InMemoryCustomerRepository customerCache = new InMemoryCustomerRepository();
+    private final InMemoryReservationRepository reservationCache = new InMemoryReservationRepository();
+    private final RoomRepository rooms = new FileRoomRepository();
+    private final CustomerRepository customers = new FileCustomerRepository();
+    private final ReservationRepository reservations = new FileReservationRepository();
+    private long loadedRecords;
+
+    private FileStorage(Path dir, SyncPolicy policy, long batchDelayMillis, int batchBytes) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        this.log = new Journal(dir.resolve(LOG_FILE), policy, batchDelayMillis, batchBytes, this::load);
+    }
+
+    // Open (or create) the storage in dir with the journal's default batching limits
+    public static FileStorage open(Path dir, SyncPolicy policy) throws IOException {
+        return new FileStorage(dir, policy, HotelPersistence.DEFAULT_BATCH_DELAY_MILLIS,
+                HotelPersistence.DEFAULT_BATCH_BYTES);
+    }
+
+    // Getters
+    public Path getDir() {
+        return dir;
+    }
+
+    public SyncPolicy getPolicy() {
+        return log.getPolicy();
+    }
+
+    // Records read from the log when opening
+    public long getLoadedRecords() {
+        return loadedRecords;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public RoomRepository rooms() {
+        return rooms;
+    }
+
+    @Override
+    public CustomerRepository customers() {
+        return customers;
+    }
+
+    @Override
+    public ReservationRepository reservations() {
+        return reservations;
+    }
+
+    // Flush outstanding records and close the log; the repositories are read-only after this
+    @Override
+    public void close() throws IOException {
+        log.sync();
+        log.close();
+    }
+
+    // Helper method: rebuild the heap copies from one logged record
+    private void load(JournalRecord record) {
+        loadedRecords++;
+        switch (record.getType()) {
+            case ADD_ROOM:
+                roomCache.save(record.toRoom());
+                break;
+            case ADD_CUSTOMER:
+                customerCache.add(new Customer(record.getFirstName(), record.getLastName(), record.getEmail()));
+                break;
+            case RESERVATION:
+                Customer customer = customerCache.findByEmail(record.getEmail());
+                for (int i = 0; i < record.getStayCount(); i++) {
+                    IRoom room = roomCache.findByNumber(record.getRoomNumber(i));
+                    if (customer == null || room == null) {
+                        System.out.println("Storage: skipping booking of room " + record.getRoomNumber(i)
+                                + " for " + record.getEmail() + " (unknown customer or room)");
+                        continue;
+                    }
+                    reservationCache.add(new Reservation(record.getReservationId(i), customer, room,
+                            LocalDate.ofEpochDay(record.getCheckInDay(i)),
+                            LocalDate.ofEpochDay(record.getCheckOutDay(i))));
+                }
+                break;
+            case REMOVE_RESERVATION:
+                Customer owner = customerCache.findByEmail(record.getEmail());
+                List<Reservation> removed = new ArrayList<>(record.getStayCount());
+                for (int i = 0; i < record.getStayCount(); i++) {
+                    IRoom room = roomCache.findByNumber(record.getRoomNumber(i));
+                    if (owner != null && room != null) {
+                        removed.add(new Reservation(record.getReservationId(i), owner, room,
+                                LocalDate.ofEpochDay(record.getCheckInDay(i)),
+                                LocalDate.ofEpochDay(record.getCheckOutDay(i))));
+                    }
+                }
+                reservationCache.removeAll(removed);
+                break;
+            case CHANGE_RESERVATION:
+                Customer guest = customerCache.findByEmail(record.getEmail());
+                IRoom changedRoom = roomCache.findByNumber(record.getRoomNumber(0));
+                if (guest != null && changedRoom != null) {
+                    reservationCache.replace(
+                            new Reservation(record.getReservationId(0), guest, changedRoom,
+                                    LocalDate.ofEpochDay(record.getCheckInDay(0)),
+                                    LocalDate.ofEpochDay(record.getCheckOutDay(0))),
+                            new Reservation(record.getReservationId(1), guest, changedRoom,
+                                    LocalDate.ofEpochDay(record.getCheckInDay(1)),
+                                    LocalDate.ofEpochDay(record.getCheckOutDay(1))));
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + record.getType());
+        }
+    }
+
+    // Helper method: wait for the last of a batch of appends (-1 = nothing appended)
+    private void awaitDurable(long position) {
+        if (position >= 0) {
+            log.awaitDurable(position);
+        }
+    }
+
+    private final class FileRoomRepository implements RoomRepository {
+        @Override
+        public void save(IRoom room) {
+            roomCache.save(room);
+            awaitDurable(log.append(JournalRecord.addRoom(room)));
+        }
+
+        @Override
+        public void saveAll(Collection<? extends IRoom> newRooms) {
+            long position = -1;
+            for (IRoom room : newRooms) {
+                roomCache.save(room);
+                position = log.append(JournalRecord.addRoom(room));
+            }
+            awaitDurable(position);
+        }
+
+        @Override
+        public IRoom findByNumber(String roomNumber) {
+            return roomCache.findByNumber(roomNumber);
+        }
+
+        @Override
+        public boolean exists(String roomNumber) {
+            return roomCache.exists(roomNumber);
+        }
+
+        @Override
+        public Collection<IRoom> findAll() {
+            return roomCache.findAll();
+        }
+
+        @Override
+        public int count() {
+            return roomCache.count();
+        }
+    }
+
+    private final class FileCustomerRepository implements CustomerRepository {
+        @Override
+        public boolean add(Customer customer) {
+            if (!customerCache.add(customer)) {
+                return false;
+            }
+            awaitDurable(log.append(JournalRecord.addCustomer(customer)));
+            return true;
+        }
+
+        @Override
+        public List<Customer> addAll(Collection<Customer> newCustomers) {
+            List<Customer> existing = new ArrayList<>();
+            long position = -1;
+            for (Customer customer : newCustomers) {
+                if (customerCache.add(customer)) {
+                    position = log.append(JournalRecord.addCustomer(customer));
+                } else {
+                    existing.add(customer);
+                }
+            }
+            awaitDurable(position);
+            return existing;
+        }
+
+        @Override
+        public Customer findByEmail(String email) {
+            return customerCache.findByEmail(email);
+        }
+
+        @Override
+        public boolean exists(String email) {
+            return customerCache.exists(email);
+        }
+
+        @Override
+        public Collection<Customer> findAll() {
+            return customerCache.findAll();
+        }
+
+        @Override
+        public int count() {
+            return customerCache.count();
+        }
+    }
+
+    private final class FileReservationRepository implements ReservationRepository {
+        @Override
+        public void add(Reservation reservation) {
+            reservationCache.add(reservation);
+            awaitDurable(log.append(JournalRecord.reservations(Collections.singletonList(reservation))));
+        }
+
+        // One record per run of stays of the same customer, so a group booking
+        // is replayed whole or not at all, as it is from the journal
+        @Override
+        public void addAll(Collection<Reservation> newReservations) {
+            long position = -1;
+            List<Reservation> run = new ArrayList<>();
+            for (Reservation reservation : newReservations) {
+                if (!run.isEmpty() && !run.get(0).getCustomer().equals(reservation.getCustomer())) {
+                    position = log.append(JournalRecord.reservations(run));
+                    run = new ArrayList<>();
+                }
+                reservationCache.add(reservation);
+                run.add(reservation);
+            }
+            if (!run.isEmpty()) {
+                position = log.append(JournalRecord.reservations(run));
+            }
+            awaitDurable(position);
+        }
+
+        @Override
+        public void removeAll(Collection<Reservation> removed) {
+            long position = -1;
+            for (Reservation reservation : removed) {
+                reservationCache.removeAll(Collections.singletonList(reservation));
+                position = log.append(JournalRecord.removals(Collections.singletonList(reservation)));
+            }
+            awaitDurable(position);
+        }
+
+        @Override
+        public void replace(Reservation previous, Reservation updated) {
+            reservationCache.replace(previous, updated);
+            awaitDurable(log.append(JournalRecord.change(previous, updated)));
+        }
+
+        @Override
+        public void forEach(Consumer<Reservation> action) {
+            reservationCache.forEach(action);
+        }
+
+        @Override
+        public int count() {
+            return reservationCache.count();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,468 @@
+package com.hotel.persistence;
+
+import com.hotel.model.BookingResult;
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Makes the services durable. The data directory holds journal segments
+// (journal-N.log), the mapped reservation store (reservations.store) and at
+// most one complete snapshot: rooms and customers in snapshot-N.dat, and the
+// store checkpoint in reservations-N.keys, which together hold everything
+// journaled before segment N. Opening loads the snapshot, attaches the store
+// (indexed in place, see MappedReservationStore), replays only the segments
+// from N on, then journals every change the services make until closed. The
+// snapshot and the store are read in parallel partitions (see WarmStartLoader),
+// and the time each startup phase took is logged.
+//
+// A snapshot rotates the journal to a new segment, checkpoints the store (every
+// booking is in the store before it is journaled), copies the customers and
+// rooms while bookings carry on, writes them to a temp file and renames it
+// into place, then deletes the segments it covers. Changes made meanwhile may
+// be in both the snapshot and the new segment; replay skips what is already there.
+// Store records and journaled stays carry their reservation ids, so a stay is
+// recognised by its id on replay and comes back under the same id. Closing
+// checkpoints the store again (under the latest snapshot's keys), so the next
+// open finds the stays booked since that snapshot in place.
+//
+// Stays that have ended are moved to the stay archive (archive/) when opening
+// and before each periodic snapshot. A snapshot follows every run that moved
+// something, so the journal no longer holds those stays and the store
+// checkpoint has their records marked archived.
+public class HotelPersistence implements Closeable {
+    public static final long DEFAULT_BATCH_DELAY_MILLIS = 5;
+    public static final int DEFAULT_BATCH_BYTES = 256 * 1024;
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 10 * 60 * 1000;
+
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String STORE_FILE = "reservations.store";
+    private static final String KEYS_PREFIX = "reservations-";
+    private static final String KEYS_SUFFIX = ".keys";
+    private static final String ARCHIVE_DIR = "archive";
+
+    private final Path dataDir;
+    private final CustomerService customerService;
+    private final ReservationService reservationService;
+    private final Journal journal;
+    private final MappedReservationStore store;
+    private final StayArchive archive;
+    private final ScheduledExecutorService snapshotter;
+
+    // Bookings replayed before their customer or room record (changes are
+    // journaled once visible, so a booker can overtake the room's own record)
+    private final List<JournalRecord> deferred = new ArrayList<>();
+    private boolean loadingSnapshot; // no duplicates possible, skip the checks
+    private long snapshotRecords;
+    private long storedReservations;
+    private long archivedStays;
+    private long replayedRecords;
+    private final Map<String, Long> startupPhases;
+
+    // Guarded by this
+    private long segment;                // sequence number of the active segment
+    private long snapshotSequence;       // sequence number of the latest snapshot, or -1
+    private long positionAtLastSnapshot;
+
+    private HotelPersistence(Path dataDir, SyncPolicy policy, long batchDelayMillis, int batchBytes,
+                             long snapshotIntervalMillis) throws IOException {
+        this.dataDir = dataDir;
+        this.customerService = CustomerService.getInstance();
+        this.reservationService = ReservationService.getInstance();
+        Files.createDirectories(dataDir);
+
+        long snapshot = latest(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        deleteBefore(snapshot); // left over if we crashed right after a snapshot
+        TreeSet<Long> segments = sequences(JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        this.segment = segments.isEmpty() ? Math.max(snapshot, 0) : segments.last();
+        this.snapshotSequence = snapshot;
+
+        customerService.setLoggingEnabled(false);
+        reservationService.setLoggingEnabled(false);
+        WarmStartLoader loader = new WarmStartLoader(customerService, reservationService, this::apply);
+        try {
+            if (snapshot >= 0) {
+                loadingSnapshot = true;
+                snapshotRecords = loader.loadSnapshot(snapshotPath(snapshot));
+                replayedRecords += snapshotRecords;
+                loadingSnapshot = false;
+            }
+            // Keys of an older snapshot than ours may be left over from a crash
+            // mid-snapshot; only the matching checkpoint is trusted
+            this.store = new MappedReservationStore(dataDir.resolve(STORE_FILE),
+                    snapshot >= 0 ? keysPath(snapshot) : null);
+            reservationService.attachStore(store);
+            storedReservations = reservationService.getTotalReservations();
+            loader.mark("store index");
+            for (long closedSegment : segments.headSet(segment)) {
+                Journal.replay(journalPath(closedSegment), this::apply);
+            }
+            this.journal = new Journal(journalPath(segment), policy, batchDelayMillis, batchBytes, this::apply);
+            for (JournalRecord record : deferred) {
+                restoreReservations(record, false);
+            }
+            deferred.clear();
+            loader.mark("journal tail");
+
+            // Stays that ended while we were down leave the live set before
+            // anyone can see them
+            this.archive = StayArchive.open(dataDir.resolve(ARCHIVE_DIR));
+            reservationService.attachArchive(archive);
+            archivedStays = reservationService.archivePastStays(LocalDate.now());
+            loader.mark("archive");
+        } finally {
+            customerService.setLoggingEnabled(true);
+            reservationService.setLoggingEnabled(true);
+        }
+        this.positionAtLastSnapshot = journal.getPosition();
+        customerService.setJournal(journal);
+        reservationService.setJournal(journal);
+        if (archivedStays > 0) {
+            snapshot(); // or the journal would bring the archived stays back next time
+            loader.mark("snapshot");
+        }
+        this.startupPhases = loader.getPhaseMillis();
+        System.out.println(loader.summary());
+
+        if (snapshotIntervalMillis > 0) {
+            snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "snapshotter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::periodicSnapshot, snapshotIntervalMillis,
+                    snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            snapshotter = null;
+        }
+    }
+
+    // Open the data directory with the default batching limits and snapshot interval
+    public static HotelPersistence open(Path dataDir, SyncPolicy policy) throws IOException {
+        return new HotelPersistence(dataDir, policy, DEFAULT_BATCH_DELAY_MILLIS, DEFAULT_BATCH_BYTES,
+                DEFAULT_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    // snapshotIntervalMillis <= 0 turns periodic snapshots off (snapshot() still works)
+    public static HotelPersistence open(Path dataDir, SyncPolicy policy, long batchDelayMillis, int batchBytes,
+                                        long snapshotIntervalMillis) throws IOException {
+        return new HotelPersistence(dataDir, policy, batchDelayMillis, batchBytes, snapshotIntervalMillis);
+    }
+
+    // Getters
+    public Journal getJournal() {
+        return journal;
+    }
+
+    // Records restored when opening (snapshot plus journal tail)
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    // Of those, how many came from the snapshot
+    public long getSnapshotRecords() {
+        return snapshotRecords;
+    }
+
+    // Reservations indexed from the store when opening (not counted as records)
+    public long getStoredReservations() {
+        return storedReservations;
+    }
+
+    // Stays moved to the archive when opening
+    public long getArchivedStays() {
+        return archivedStays;
+    }
+
+    public StayArchive getArchive() {
+        return archive;
+    }
+
+    // How long each startup phase took (ms), in the order they ran
+    public Map<String, Long> getStartupPhases() {
+        return startupPhases;
+    }
+
+    // 1. Write a snapshot of the current state and drop the journal behind it
+    public synchronized void snapshot() throws IOException {
+        long next = segment + 1;
+        journal.rotate(journalPath(next));
+        segment = next;
+        positionAtLastSnapshot = journal.getPosition();
+
+        // Checkpoint the store first, then copy customers, then rooms: a
+        // booking's customer and room were visible before it, so are copied too
+        store.checkpoint(keysPath(next));
+        Collection<Customer> customers = customerService.getAllCustomers();
+        Collection<IRoom> rooms = reservationService.getAllRooms();
+
+        Path temp = dataDir.resolve(SNAPSHOT_PREFIX + next + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             BufferedOutputStream out = new BufferedOutputStream(file, 1 << 16)) {
+            for (IRoom room : rooms) {
+                out.write(Journal.encode(JournalRecord.addRoom(room)));
+            }
+            for (Customer customer : customers) {
+                out.write(Journal.encode(JournalRecord.addCustomer(customer)));
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        snapshotSequence = next;
+        deleteBefore(next);
+    }
+
+    // 2. Stop snapshots and journaling, flush what is outstanding and checkpoint
+    // the store (without a snapshot the next open replays the whole journal
+    // anyway). The store stays mapped and the archive open: the reservation
+    // service still reads their stays, and whatever the store gains after this
+    // checkpoint is dropped on the next open.
+    @Override
+    public void close() throws IOException {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        customerService.setJournal(null);
+        reservationService.setJournal(null);
+        journal.close();
+        synchronized (this) {
+            if (snapshotSequence >= 0) {
+                store.checkpoint(keysPath(snapshotSequence));
+            }
+        }
+    }
+
+    // Helper method: scheduled archiving of ended stays, then a snapshot unless
+    // nothing was journaled or archived since the last one
+    private void periodicSnapshot() {
+        try {
+            synchronized (this) {
+                int archived = reservationService.archivePastStays(LocalDate.now());
+                if (archived == 0 && journal.getPosition() == positionAtLastSnapshot) {
+                    return;
+                }
+                snapshot();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // Helper method: re-apply one journaled change. Changes already present are
+    // skipped, so replaying a record twice is harmless.
+    private void apply(JournalRecord record) {
+        replayedRecords++;
+        switch (record.getType()) {
+            case ADD_ROOM:
+                reservationService.addRoom(record.toRoom());
+                break;
+            case ADD_CUSTOMER:
+                if (!customerService.customerExists(record.getEmail())) {
+                    customerService.addCustomer(record.getEmail(), record.getFirstName(), record.getLastName());
+                }
+                break;
+            case RESERVATION:
+                restoreReservations(record, true);
+                break;
+            case REMOVE_RESERVATION:
+                for (int i = 0; i < record.getStayCount(); i++) {
+                    Reservation cancelled = findStay(record, i);
+                    if (cancelled != null) {
+                        try {
+                            reservationService.cancelReservation(cancelled.getId());
+                        } catch (IllegalArgumentException e) {
+                            System.out.println("Journal: could not restore cancellation: " + e.getMessage());
+                        }
+                    }
+                }
+                break;
+            case CHANGE_RESERVATION:
+                Reservation previous = findStay(record, 0); // by id, or by the old dates
+                if (previous == null && findStay(record, 1) == null) {
+                    // Neither stay made it to disk (the store dropped the new
+                    // record after cancelling the old one): book the new dates
+                    restoreStay(record, 1);
+                } else if (previous != null && hasDates(previous, record, 0)) {
+                    try {
+                        reservationService.changeReservationDates(previous.getId(),
+                                LocalDate.ofEpochDay(record.getCheckInDay(1)),
+                                LocalDate.ofEpochDay(record.getCheckOutDay(1)));
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Journal: could not restore date change: " + e.getMessage());
+                    }
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + record.getType());
+        }
+    }
+
+    // Helper method: re-book the stays of a RESERVATION record that are not booked
+    // yet, under the ids they were booked with. With defer set, a record naming
+    // an unknown customer or room waits for the end of replay instead.
+    private void restoreReservations(JournalRecord record, boolean defer) {
+        Customer customer = customerService.getCustomer(record.getEmail());
+        if (customer == null) {
+            if (defer) {
+                deferred.add(record);
+            } else {
+                System.out.println("Journal: skipping booking for unknown customer " + record.getEmail());
+            }
+            return;
+        }
+
+        List<Reservation> missing = new ArrayList<>();
+        for (int i = 0; i < record.getStayCount(); i++) {
+            IRoom room = reservationService.getARoom(record.getRoomNumber(i));
+            LocalDate checkIn = LocalDate.ofEpochDay(record.getCheckInDay(i));
+            LocalDate checkOut = LocalDate.ofEpochDay(record.getCheckOutDay(i));
+            if (room == null) {
+                if (defer) {
+                    deferred.add(record);
+                    return;
+                }
+                System.out.println("Journal: skipping booking of unknown room " + record.getRoomNumber(i));
+            } else if (loadingSnapshot || findStay(record, i) == null) {
+                missing.add(new Reservation(record.getReservationId(i), customer, room, checkIn, checkOut));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (BookingResult result : reservationService.restoreReservations(customer, missing)) {
+                if (!result.isBooked()) {
+                    System.out.println("Journal: could not restore booking: " + result.getFailureReason());
+                }
+            }
+        }
+    }
+
+    // Helper method: book one stay of a record again, under its id
+    private void restoreStay(JournalRecord record, int stay) {
+        Customer customer = customerService.getCustomer(record.getEmail());
+        IRoom room = reservationService.getARoom(record.getRoomNumber(stay));
+        if (customer == null || room == null) {
+            System.out.println("Journal: could not restore date change of room " + record.getRoomNumber(stay)
+                    + " for " + record.getEmail() + " (unknown customer or room)");
+            return;
+        }
+        Reservation lost = new Reservation(record.getReservationId(stay), customer, room,
+                LocalDate.ofEpochDay(record.getCheckInDay(stay)), LocalDate.ofEpochDay(record.getCheckOutDay(stay)));
+        for (BookingResult result : reservationService.restoreReservations(customer,
+                Collections.singletonList(lost))) {
+            if (!result.isBooked()) {
+                System.out.println("Journal: could not restore date change: " + result.getFailureReason());
+            }
+        }
+    }
+
+    // Helper method: the booked reservation of one stay of a record: the one
+    // holding its reservation id (whatever its dates now), or for a stay
+    // journaled without an id the one with the same room, dates and customer;
+    // null if there is none
+    private Reservation findStay(JournalRecord record, int stay) {
+        if (record.getReservationId(stay) != 0) {
+            return reservationService.getReservation(record.getReservationId(stay));
+        }
+        Reservation found = reservationService.getReservation(record.getRoomNumber(stay),
+                LocalDate.ofEpochDay(record.getCheckInDay(stay)));
+        if (found == null || found.getCheckOutDate().toEpochDay() != record.getCheckOutDay(stay)
+                || !found.getCustomer().getEmail().equalsIgnoreCase(record.getEmail())) {
+            return null;
+        }
+        return found;
+    }
+
+    // Helper method: does a reservation have the dates of one stay of a record?
+    private static boolean hasDates(Reservation reservation, JournalRecord record, int stay) {
+        return reservation.getCheckInDate().toEpochDay() == record.getCheckInDay(stay)
+                && reservation.getCheckOutDate().toEpochDay() == record.getCheckOutDay(stay);
+    }
+
+    // Helper method: delete snapshots and journal segments older than sequence
+    private void deleteBefore(long sequence) throws IOException {
+        for (long old : sequences(JOURNAL_PREFIX, JOURNAL_SUFFIX).headSet(sequence)) {
+            Files.deleteIfExists(journalPath(old));
+        }
+        for (long old : sequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headSet(sequence)) {
+            Files.deleteIfExists(snapshotPath(old));
+        }
+        for (long old : sequences(KEYS_PREFIX, KEYS_SUFFIX).headSet(sequence)) {
+            Files.deleteIfExists(keysPath(old));
+        }
+    }
+
+    // Helper method: highest sequence number among matching files, or -1
+    private long latest(String prefix, String suffix) throws IOException {
+        TreeSet<Long> found = sequences(prefix, suffix);
+        return found.isEmpty() ? -1 : found.last();
+    }
+
+    // Helper method: sequence numbers of the files named prefix + N + suffix
+    private TreeSet<Long> sequences(String prefix, String suffix) throws IOException {
+        TreeSet<Long> found = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataDir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(prefix.length(), name.length() - suffix.length());
+                try {
+                    found.add(Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return found;
+    }
+
+    // Helper method: make the rename durable (not supported on every platform)
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(dataDir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    private Path journalPath(long sequence) {
+        return dataDir.resolve(JOURNAL_PREFIX + sequence + JOURNAL_SUFFIX);
+    }
+
+    private Path snapshotPath(long sequence) {
+        return dataDir.resolve(SNAPSHOT_PREFIX + sequence + SNAPSHOT_SUFFIX);
+    }
+
+    private Path keysPath(long sequence) {
+        return dataDir.resolve(KEYS_PREFIX + sequence + KEYS_SUFFIX);
+    }
+}
\ No newline at end of file
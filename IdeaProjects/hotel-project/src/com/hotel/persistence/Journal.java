@@ -0,0 +1,442 @@
+package com.hotel.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead journal. Each record is framed as
+// [int length][int CRC32 of payload][payload].
+//
+// Writers copy their record into an in-memory batch and get back the journal
+// position just past it. A single flusher thread swaps the batch out, writes
+// it and fsyncs once; every writer whose record was in that batch is released
+// by the same sync (group commit). How long writers wait, and how long the
+// flusher lets a batch grow, depends on the SyncPolicy.
+//
+// Positions are logical and keep growing across rotate(), which moves
+// appends to a new segment file so older segments can be dropped once a
+// snapshot covers them.
+public class Journal implements Closeable {
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_BATCH_BYTES = 64 * 1024;
+    private static final int MAX_PENDING_BATCHES = 8; // back-pressure on ASYNC writers
+    private static final int READ_BUFFER_BYTES = 256 * 1024;
+
+    private final SyncPolicy policy;
+    private final long batchDelayNanos;
+    private final int batchBytes;
+    private final Thread flusher;
+
+    // Guards everything below
+    private final Object lock = new Object();
+    private Path file;                   // current segment
+    private FileChannel channel;
+    private boolean rotating;            // appends wait while the segment changes
+    private ByteBuffer pending;          // records not yet handed to the flusher
+    private ByteBuffer spare;            // the other half of the double buffer
+    private long appendedPosition;       // journal length including pending records
+    private long durablePosition;        // journal length covered by the last fsync
+    private long syncCount;
+    private IOException failure;
+    private boolean closed;
+
+    // Open (or create) a journal. Valid records already in the file are passed to
+    // replay in order; a torn or corrupt tail from a crash is cut off.
+    public Journal(Path file, SyncPolicy policy, long batchDelayMillis, int batchBytes,
+                   Consumer<JournalRecord> replay) throws IOException {
+        if (batchDelayMillis < 0 || batchBytes <= 0) {
+            throw new IllegalArgumentException("Batch delay must be >= 0 and batch size > 0");
+        }
+        this.file = file;
+        this.policy = policy;
+        this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(batchDelayMillis);
+        this.batchBytes = batchBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long validLength = replay(channel, replay);
+        if (validLength < channel.size()) {
+            System.out.println("Journal " + file + ": discarding " + (channel.size() - validLength)
+                    + " bytes of incomplete records");
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+        this.appendedPosition = validLength;
+        this.durablePosition = validLength;
+        this.pending = ByteBuffer.allocate(INITIAL_BATCH_BYTES);
+        this.spare = ByteBuffer.allocate(INITIAL_BATCH_BYTES);
+
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Getters
+    public Path getFile() {
+        synchronized (lock) {
+            return file;
+        }
+    }
+
+    public SyncPolicy getPolicy() {
+        return policy;
+    }
+
+    // Logical position just past the last appended record
+    public long getPosition() {
+        synchronized (lock) {
+            return appendedPosition;
+        }
+    }
+
+    // Number of fsyncs so far (each covers one group of records)
+    public long getSyncCount() {
+        synchronized (lock) {
+            return syncCount;
+        }
+    }
+
+    // 1. Buffer a record; returns the journal position to pass to awaitDurable
+    public long append(JournalRecord record) {
+        byte[] frame = encode(record);
+        synchronized (lock) {
+            // Writers that do not wait for syncs must not outrun the disk forever
+            boolean interrupted = false;
+            while (!closed && (rotating
+                    || (long) pending.position() >= (long) batchBytes * MAX_PENDING_BATCHES)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (closed) {
+                throw new IllegalStateException("Journal " + file + " is closed");
+            }
+            boolean startsBatch = pending.position() == 0;
+            if (pending.remaining() < frame.length) {
+                pending = grow(pending, frame.length);
+            }
+            pending.put(frame);
+            appendedPosition += frame.length;
+            if (startsBatch || pending.position() >= batchBytes) {
+                lock.notifyAll(); // wake the flusher to start or cut the batch
+            }
+            return appendedPosition;
+        }
+    }
+
+    // 2. Block until everything up to position is on disk (no wait under ASYNC)
+    public void awaitDurable(long position) {
+        if (policy == SyncPolicy.ASYNC) {
+            return;
+        }
+        waitFor(position);
+    }
+
+    // 3. Block until every record appended so far is on disk, whatever the policy
+    public void sync() {
+        long position;
+        synchronized (lock) {
+            position = appendedPosition;
+            lock.notifyAll();
+        }
+        waitFor(position);
+    }
+
+    // 4. Continue in a new segment file. Appends pause only while the records
+    // already buffered are synced to the old segment; everything appended
+    // before this call is in the old segment, everything after in the new one.
+    public void rotate(Path next) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal " + file + " is closed");
+            }
+            rotating = true;
+            try {
+                lock.notifyAll(); // the flusher may be waiting to batch
+                while (durablePosition < appendedPosition && failure == null) {
+                    lock.wait();
+                }
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                // Nothing pending and the flusher is idle, so the channel is ours
+                FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.close();
+                channel = nextChannel;
+                file = next;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while rotating journal " + file, e);
+            } finally {
+                rotating = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // 5. Flush outstanding records and stop the flusher
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            channel.close();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Read-only replay of a closed segment or snapshot file; returns the number
+    // of bytes of intact records
+    public static long replay(Path file, Consumer<JournalRecord> handler) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return replay(in, handler);
+        }
+    }
+
+    // Helper method: wait for the flusher to cover position
+    private void waitFor(long position) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (durablePosition < position && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durablePosition < position) {
+                throw new UncheckedIOException("Journal write failed", failure);
+            }
+        }
+    }
+
+    // Helper method: the flusher thread. Write and sync one batch per round.
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+            FileChannel out;
+            synchronized (lock) {
+                try {
+                    while (!closed && pending.position() == 0) {
+                        lock.wait();
+                    }
+                    if (policy != SyncPolicy.PER_WRITE && !rotating) {
+                        // Let the batch fill up until the delay or size limit
+                        long deadline = System.nanoTime() + batchDelayNanos;
+                        long remaining;
+                        while (!closed && !rotating && pending.position() < batchBytes
+                                && (remaining = deadline - System.nanoTime()) > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                if (pending.position() == 0) {
+                    return; // closed and drained
+                }
+                batch = pending;
+                pending = spare;
+                spare = null;
+                batchEnd = appendedPosition;
+                out = channel;
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    out.write(batch);
+                }
+                out.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (lock) {
+                batch.clear();
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                    lock.notifyAll();
+                    return;
+                }
+                durablePosition = batchEnd;
+                syncCount++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Helper method: length + checksum framing around the record payload
+    static byte[] encode(JournalRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(0);
+            record.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+        byte[] frame = bytes.toByteArray();
+        int length = frame.length - HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(frame, HEADER_BYTES, length);
+        ByteBuffer.wrap(frame).putInt(length).putInt((int) crc.getValue());
+        return frame;
+    }
+
+    // Helper method: offsets of the frames in a file held in memory, up to the
+    // first torn one. Only the lengths are read; checksums are left to decode(),
+    // so the frames can be decoded in any order and on any thread.
+    static int[] frameOffsets(ByteBuffer bytes) {
+        int[] offsets = new int[1024];
+        int count = 0;
+        int position = 0;
+        int size = bytes.limit();
+        while (position + HEADER_BYTES <= size) {
+            int length = bytes.getInt(position);
+            if (length <= 0 || length > size - position - HEADER_BYTES) {
+                break; // torn write
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = position;
+            position += HEADER_BYTES + length;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    // Helper method: the record framed at offset, or null if it fails its
+    // checksum or does not parse
+    static JournalRecord decode(ByteBuffer bytes, int offset) {
+        int length = bytes.getInt(offset);
+        byte[] payload = new byte[length];
+        bytes.get(offset + HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != bytes.getInt(offset + 4)) {
+            return null;
+        }
+        try {
+            return JournalRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Helper method: feed every intact record to the handler; returns where the
+    // intact prefix of the file ends. Reads sequentially through one buffer.
+    private static long replay(FileChannel channel, Consumer<JournalRecord> handler) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        buffer.flip();
+        CRC32 crc = new CRC32();
+
+        while (position + HEADER_BYTES <= size) {
+            if (!fill(channel, buffer, position, HEADER_BYTES)) {
+                break;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break; // torn write
+            }
+            if (buffer.capacity() < HEADER_BYTES + length) {
+                ByteBuffer bigger = ByteBuffer.allocate(HEADER_BYTES + length);
+                bigger.put(buffer).flip();
+                buffer = bigger;
+            }
+            if (!fill(channel, buffer, position, HEADER_BYTES + length)) {
+                break;
+            }
+
+            int offset = buffer.position() + HEADER_BYTES;
+            crc.reset();
+            crc.update(buffer.array(), offset, length);
+            if ((int) crc.getValue() != checksum) {
+                break; // corrupt tail
+            }
+
+            JournalRecord record;
+            try {
+                record = JournalRecord.readFrom(new DataInputStream(
+                        new ByteArrayInputStream(buffer.array(), offset, length)));
+            } catch (IOException e) {
+                break;
+            }
+            handler.accept(record);
+            buffer.position(buffer.position() + HEADER_BYTES + length);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    // Helper method: make sure the buffer holds at least needed bytes starting at
+    // file offset position (the buffer's current position); false at end of file
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, long position, int needed)
+            throws IOException {
+        if (buffer.remaining() >= needed) {
+            return true;
+        }
+        long readFrom = position + buffer.remaining();
+        buffer.compact();
+        while (buffer.position() < needed) {
+            int read = channel.read(buffer, readFrom);
+            if (read < 0) {
+                buffer.flip();
+                return false;
+            }
+            readFrom += read;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    // Helper method: bigger batch buffer keeping the records already in it
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + needed);
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.hotel.persistence;
+
+import com.hotel.model.Customer;
+import com.hotel.model.FreeRoom;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomType;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+// One journal entry: a room added, a customer added, a set of stays booked
+// together for one customer (a single booking is a set of one), a set of a
+// customer's stays taken out of the live reservations, or one stay moved to
+// new dates (the stay as it was, then as it is, so replay applies both or neither).
+// Stays carry their reservation ids; records written before ids were journaled
+// read back with id 0.
+public final class JournalRecord {
+    public enum Type { ADD_ROOM, ADD_CUSTOMER, RESERVATION, REMOVE_RESERVATION, CHANGE_RESERVATION }
+
+    private static final int WITH_IDS = 0x80; // set on the type byte of stays written with their ids
+
+    private final Type type;
+
+    // ADD_ROOM
+    private final String roomNumber;
+    private final double price;
+    private final RoomType roomType;
+    private final int floorNumber;
+    private final boolean balcony;
+    private final boolean seaView;
+    private final boolean freeRoom;
+
+    // ADD_CUSTOMER and RESERVATION
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+
+    // RESERVATION, REMOVE_RESERVATION and CHANGE_RESERVATION (parallel arrays, one entry per stay)
+    private final String[] roomNumbers;
+    private final long[] checkInDays;
+    private final long[] checkOutDays;
+    private final long[] reservationIds;
+
+    private JournalRecord(Type type, String roomNumber, double price, RoomType roomType,
+                          int floorNumber, boolean balcony, boolean seaView, boolean freeRoom,
+                          String email, String firstName, String lastName,
+                          String[] roomNumbers, long[] checkInDays, long[] checkOutDays,
+                          long[] reservationIds) {
+        this.type = type;
+        this.roomNumber = roomNumber;
+        this.price = price;
+        this.roomType = roomType;
+        this.floorNumber = floorNumber;
+        this.balcony = balcony;
+        this.seaView = seaView;
+        this.freeRoom = freeRoom;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.roomNumbers = roomNumbers;
+        this.checkInDays = checkInDays;
+        this.checkOutDays = checkOutDays;
+        this.reservationIds = reservationIds;
+    }
+
+    public static JournalRecord addRoom(IRoom room) {
+        int floor = 1;
+        boolean balcony = false;
+        boolean seaView = false;
+        if (room instanceof Room) {
+            Room details = (Room) room;
+            floor = details.getFloorNumber();
+            balcony = details.hasBalcony();
+            seaView = details.hasSeaView();
+        }
+        return new JournalRecord(Type.ADD_ROOM, room.getRoomNumber(), room.getRoomPrice(),
+                room.getRoomType(), floor, balcony, seaView, room instanceof FreeRoom,
+                null, null, null, null, null, null, null);
+    }
+
+    public static JournalRecord addCustomer(Customer customer) {
+        return new JournalRecord(Type.ADD_CUSTOMER, null, 0, null, 0, false, false, false,
+                customer.getEmail(), customer.getFirstName(), customer.getLastName(),
+                null, null, null, null);
+    }
+
+    // All stays must belong to the same customer
+    public static JournalRecord reservations(List<Reservation> reservations) {
+        return stays(Type.RESERVATION, reservations);
+    }
+
+    // All stays must belong to the same customer
+    public static JournalRecord removals(List<Reservation> reservations) {
+        return stays(Type.REMOVE_RESERVATION, reservations);
+    }
+
+    // The same stay before and after a date change
+    public static JournalRecord change(Reservation previous, Reservation updated) {
+        return stays(Type.CHANGE_RESERVATION, Arrays.asList(previous, updated));
+    }
+
+    private static JournalRecord stays(Type type, List<Reservation> reservations) {
+        int n = reservations.size();
+        String[] rooms = new String[n];
+        long[] checkIns = new long[n];
+        long[] checkOuts = new long[n];
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            Reservation reservation = reservations.get(i);
+            rooms[i] = reservation.getRoom().getRoomNumber();
+            checkIns[i] = reservation.getCheckInDate().toEpochDay();
+            checkOuts[i] = reservation.getCheckOutDate().toEpochDay();
+            ids[i] = reservation.getId();
+        }
+        return new JournalRecord(type, null, 0, null, 0, false, false, false,
+                reservations.get(0).getCustomer().getEmail(), null, null, rooms, checkIns, checkOuts, ids);
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    // Rebuild the room an ADD_ROOM record describes
+    public IRoom toRoom() {
+        if (freeRoom) {
+            return new FreeRoom(roomNumber, roomType, floorNumber, balcony, seaView);
+        }
+        return new Room(roomNumber, price, roomType, floorNumber, balcony, seaView);
+    }
+
+    // Number of stays in a RESERVATION, REMOVE_RESERVATION or CHANGE_RESERVATION record
+    public int getStayCount() {
+        return roomNumbers.length;
+    }
+
+    public String getRoomNumber(int stay) {
+        return roomNumbers[stay];
+    }
+
+    public long getCheckInDay(int stay) {
+        return checkInDays[stay];
+    }
+
+    public long getCheckOutDay(int stay) {
+        return checkOutDays[stay];
+    }
+
+    // Reservation id of a stay (0 if it was journaled without one)
+    public long getReservationId(int stay) {
+        return reservationIds[stay];
+    }
+
+    // Binary encoding (the journal adds length and checksum framing)
+    void writeTo(DataOutput out) throws IOException {
+        out.writeByte(reservationIds != null ? type.ordinal() | WITH_IDS : type.ordinal());
+        switch (type) {
+            case ADD_ROOM:
+                out.writeUTF(roomNumber);
+                out.writeDouble(price);
+                out.writeByte(roomType.ordinal());
+                out.writeInt(floorNumber);
+                out.writeBoolean(balcony);
+                out.writeBoolean(seaView);
+                out.writeBoolean(freeRoom);
+                break;
+            case ADD_CUSTOMER:
+                out.writeUTF(email);
+                out.writeUTF(firstName);
+                out.writeUTF(lastName);
+                break;
+            case RESERVATION:
+            case REMOVE_RESERVATION:
+            case CHANGE_RESERVATION:
+                out.writeUTF(email);
+                out.writeInt(roomNumbers.length);
+                for (int i = 0; i < roomNumbers.length; i++) {
+                    out.writeUTF(roomNumbers[i]);
+                    out.writeLong(checkInDays[i]);
+                    out.writeLong(checkOutDays[i]);
+                    out.writeLong(reservationIds[i]);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + type);
+        }
+    }
+
+    static JournalRecord readFrom(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        boolean withIds = (ordinal & WITH_IDS) != 0;
+        ordinal &= ~WITH_IDS;
+        if (ordinal >= Type.values().length) {
+            throw new IOException("Unknown record type: " + ordinal);
+        }
+
+        Type type = Type.values()[ordinal];
+        switch (type) {
+            case ADD_ROOM: {
+                String number = in.readUTF();
+                double price = in.readDouble();
+                RoomType roomType = RoomType.values()[in.readUnsignedByte()];
+                int floor = in.readInt();
+                boolean balcony = in.readBoolean();
+                boolean seaView = in.readBoolean();
+                boolean free = in.readBoolean();
+                return new JournalRecord(Type.ADD_ROOM, number, price, roomType, floor, balcony, seaView,
+                        free, null, null, null, null, null, null, null);
+            }
+            case ADD_CUSTOMER:
+                return new JournalRecord(Type.ADD_CUSTOMER, null, 0, null, 0, false, false, false,
+                        in.readUTF(), in.readUTF(), in.readUTF(), null, null, null, null);
+            default: {
+                String email = in.readUTF();
+                int n = in.readInt();
+                String[] rooms = new String[n];
+                long[] checkIns = new long[n];
+                long[] checkOuts = new long[n];
+                long[] ids = new long[n];
+                for (int i = 0; i < n; i++) {
+                    rooms[i] = in.readUTF();
+                    checkIns[i] = in.readLong();
+                    checkOuts[i] = in.readLong();
+                    ids[i] = withIds ? in.readLong() : 0;
+                }
+                return new JournalRecord(type, null, 0, null, 0, false, false, false,
+                        email, null, null, rooms, checkIns, checkOuts, ids);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,397 @@
+package com.hotel.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reservations as fixed-width binary records in a memory-mapped file:
+//
+//   int roomOrdinal | int customerOrdinal | int checkInDay | int checkOutDay | byte status | 7 bytes padding
+//   | long reservationId
+//
+// A stay keeps its reservation id across restarts; one moved to new dates is
+// appended again under the same id.
+//
+// Room numbers and customer emails are stored once, in key tables that map
+// them to the ordinals the records use. Records are read in place, so a scan
+// never builds Reservation or LocalDate objects.
+//
+// Only records covered by a checkpoint are trusted when reopening: checkpoint()
+// forces the mapped records, then writes the record count and the key tables
+// to a separate keys file. Records appended after the last checkpoint are
+// dropped on reopen (the journal still has them). A store of the older
+// 20-byte layout, which had no reservation ids, is rewritten in this one when
+// opened, with record i (from 0) taking the id i + 1.
+//
+// The old record of a moved stay is only cancelled by a checkpoint covering
+// the new one (cancelAtCheckpoint): the keys file lists those cancellations
+// and reopening applies them again, so a crash never leaves the stay with
+// neither record active, or with both.
+public class MappedReservationStore implements AutoCloseable {
+    public static final byte ACTIVE = 1;
+    public static final byte CANCELLED = 2;
+    public static final byte ARCHIVED = 3;  // moved to the stay archive
+
+    private static final int RECORD_BYTES = 32;
+    private static final int STATUS_OFFSET = 16;
+    private static final int ID_OFFSET = 24;
+    private static final int CHUNK_RECORDS = 1 << 20; // 32 MB per mapping
+    private static final int KEYS_MAGIC = 0x484B5932; // "HKY2"
+    private static final int OLD_KEYS_MAGIC = 0x484B4559; // "HKEY": 20-byte records without ids
+    private static final int OLD_RECORD_BYTES = 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0]; // replaced when growing
+
+    // Key tables (guarded by this)
+    private final List<String> roomNumbers = new ArrayList<>();
+    private final Map<String, Integer> roomOrdinals = new HashMap<>();
+    private final List<String> customerEmails = new ArrayList<>();
+    private final Map<String, Integer> customerOrdinals = new HashMap<>();
+
+    // Records [0, size) are written; published after each append
+    private volatile int size;
+
+    // Records to cancel at the next checkpoint (guarded by this)
+    private final List<Integer> pendingCancels = new ArrayList<>();
+
+    // Receives the fields of one record during a scan
+    public interface RecordVisitor {
+        void visit(int record, int roomOrdinal, int customerOrdinal, int checkInDay, int checkOutDay, byte status,
+                   long reservationId);
+    }
+
+    // Open the store; keys is the file written by the last checkpoint (null or
+    // missing = start empty)
+    public MappedReservationStore(Path file, Path keys) throws IOException {
+        Path oldFile = file.resolveSibling(file.getFileName() + ".v1");
+        if (keys != null && Files.exists(keys) && keysMagic(keys) == OLD_KEYS_MAGIC) {
+            upgrade(file, keys, oldFile);
+        }
+        Files.deleteIfExists(oldFile);
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int records = 0;
+        if (keys != null && Files.exists(keys)) {
+            records = readKeys(keys);
+        }
+        ensureCapacity(records);
+        this.size = records;
+        for (int record : pendingCancels) { // listed by the checkpoint, maybe not in the file yet
+            cancelIfActive(record);
+        }
+        pendingCancels.clear();
+    }
+
+    // Getters
+    public Path getFile() {
+        return file;
+    }
+
+    // Number of records, whatever their status
+    public int size() {
+        return size;
+    }
+
+    // 1. Append an active record; returns its index
+    public synchronized int append(long reservationId, String roomNumber, String customerEmail,
+                                   long checkInDay, long checkOutDay) {
+        int record = size;
+        ensureCapacity(record + 1);
+        MappedByteBuffer chunk = chunks[record / CHUNK_RECORDS];
+        int offset = (record % CHUNK_RECORDS) * RECORD_BYTES;
+        chunk.putInt(offset, ordinal(roomNumber, roomNumbers, roomOrdinals));
+        chunk.putInt(offset + 4, ordinal(customerEmail.toLowerCase(Locale.ROOT), customerEmails, customerOrdinals));
+        chunk.putInt(offset + 8, Math.toIntExact(checkInDay));
+        chunk.putInt(offset + 12, Math.toIntExact(checkOutDay));
+        chunk.put(offset + STATUS_OFFSET, ACTIVE);
+        chunk.putLong(offset + ID_OFFSET, reservationId);
+        size = record + 1;
+        return record;
+    }
+
+    // 2. Change a record's status in place (a single byte, so never torn)
+    public void setStatus(int record, byte status) {
+        checkIndex(record);
+        chunks[record / CHUNK_RECORDS].put((record % CHUNK_RECORDS) * RECORD_BYTES + STATUS_OFFSET, status);
+    }
+
+    // 2b. Cancel an active record once a checkpoint has made every record
+    // appended so far durable (the old record of a stay just appended again
+    // under new dates)
+    public synchronized void cancelAtCheckpoint(int record) {
+        checkIndex(record);
+        pendingCancels.add(record);
+    }
+
+    // 3. Visit every record in index order
+    public void scan(RecordVisitor visitor) {
+        scan(0, size, visitor);
+    }
+
+    // Visit records [from, to) in index order (partitions of a parallel scan)
+    public void scan(int from, int to, RecordVisitor visitor) {
+        if (from < 0 || to > size || from > to) {
+            throw new IllegalArgumentException("No reservation records " + from + ".." + to);
+        }
+        MappedByteBuffer[] mapped = chunks;
+        for (int record = from; record < to; record++) {
+            MappedByteBuffer chunk = mapped[record / CHUNK_RECORDS];
+            int offset = (record % CHUNK_RECORDS) * RECORD_BYTES;
+            visitor.visit(record, chunk.getInt(offset), chunk.getInt(offset + 4), chunk.getInt(offset + 8),
+                    chunk.getInt(offset + 12), chunk.get(offset + STATUS_OFFSET), chunk.getLong(offset + ID_OFFSET));
+        }
+    }
+
+    // 4. Single fields of a record
+    public int roomOrdinal(int record) {
+        return field(record, 0);
+    }
+
+    public int customerOrdinal(int record) {
+        return field(record, 4);
+    }
+
+    public int checkInDay(int record) {
+        return field(record, 8);
+    }
+
+    public int checkOutDay(int record) {
+        return field(record, 12);
+    }
+
+    public byte status(int record) {
+        checkIndex(record);
+        return chunks[record / CHUNK_RECORDS].get((record % CHUNK_RECORDS) * RECORD_BYTES + STATUS_OFFSET);
+    }
+
+    public long reservationId(int record) {
+        checkIndex(record);
+        return chunks[record / CHUNK_RECORDS].getLong((record % CHUNK_RECORDS) * RECORD_BYTES + ID_OFFSET);
+    }
+
+    // 5. Key tables
+    public synchronized String roomNumber(int ordinal) {
+        return roomNumbers.get(ordinal);
+    }
+
+    public synchronized String customerEmail(int ordinal) {
+        return customerEmails.get(ordinal);
+    }
+
+    public synchronized int roomCount() {
+        return roomNumbers.size();
+    }
+
+    public synchronized int customerCount() {
+        return customerEmails.size();
+    }
+
+    // Ordinal of a room number, or -1 if no record uses it
+    public synchronized int roomOrdinal(String roomNumber) {
+        Integer ordinal = roomOrdinals.get(roomNumber);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    // Ordinal of a customer email (any case), or -1 if no record uses it
+    public synchronized int customerOrdinal(String email) {
+        Integer ordinal = customerOrdinals.get(email.toLowerCase(Locale.ROOT));
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    // 6. Make every record so far durable and record the count, the key tables
+    // and the cancellations waiting for this checkpoint in keys (written to a
+    // temp file, then renamed); then apply those cancellations. Appends carry
+    // on while the pages are forced.
+    public void checkpoint(Path keys) throws IOException {
+        int records;
+        List<String> rooms;
+        List<String> customers;
+        List<Integer> cancels;
+        MappedByteBuffer[] mapped;
+        synchronized (this) {
+            records = size;
+            rooms = new ArrayList<>(roomNumbers);
+            customers = new ArrayList<>(customerEmails);
+            cancels = new ArrayList<>(pendingCancels);
+            pendingCancels.clear();
+            mapped = chunks;
+        }
+        for (MappedByteBuffer chunk : mapped) {
+            chunk.force();
+        }
+
+        Path temp = keys.resolveSibling(keys.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile());
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+            data.writeInt(KEYS_MAGIC);
+            data.writeInt(records);
+            writeKeys(data, rooms);
+            writeKeys(data, customers);
+            data.writeInt(cancels.size());
+            for (int record : cancels) {
+                data.writeInt(record);
+            }
+            data.flush();
+            out.getFD().sync();
+        }
+        Files.move(temp, keys, StandardCopyOption.ATOMIC_MOVE);
+        for (int record : cancels) {
+            cancelIfActive(record);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        chunks = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    // Helper method: ordinal for a key, assigning the next one if new
+    private static int ordinal(String key, List<String> keys, Map<String, Integer> ordinals) {
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = keys.size();
+            keys.add(key);
+            ordinals.put(key, ordinal);
+        }
+        return ordinal;
+    }
+
+    // Helper method: map more chunks until there is room for 'records' records
+    private void ensureCapacity(int records) {
+        try {
+            MappedByteBuffer[] mapped = chunks;
+            while ((long) mapped.length * CHUNK_RECORDS < records || mapped.length == 0) {
+                long position = (long) mapped.length * CHUNK_RECORDS * RECORD_BYTES;
+                mapped = Arrays.copyOf(mapped, mapped.length + 1);
+                mapped[mapped.length - 1] = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        (long) CHUNK_RECORDS * RECORD_BYTES);
+            }
+            chunks = mapped;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Helper method: cancel a record unless it left the active stays otherwise
+    private void cancelIfActive(int record) {
+        if (status(record) == ACTIVE) {
+            setStatus(record, CANCELLED);
+        }
+    }
+
+    private int field(int record, int offset) {
+        checkIndex(record);
+        return chunks[record / CHUNK_RECORDS].getInt((record % CHUNK_RECORDS) * RECORD_BYTES + offset);
+    }
+
+    private void checkIndex(int record) {
+        if (record < 0 || record >= size) {
+            throw new IllegalArgumentException("No reservation record " + record);
+        }
+    }
+
+    private static void writeKeys(DataOutputStream data, List<String> keys) throws IOException {
+        data.writeInt(keys.size());
+        for (String key : keys) {
+            data.writeUTF(key);
+        }
+    }
+
+    private static List<String> readKeyList(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(data.readUTF());
+        }
+        return keys;
+    }
+
+    // Helper method: the magic number a keys file starts with
+    private static int keysMagic(Path keys) throws IOException {
+        try (DataInputStream data = new DataInputStream(Files.newInputStream(keys))) {
+            return data.readInt();
+        }
+    }
+
+    // Helper method: rewrite a store of the older 20-byte layout and its keys
+    // file in the current layout, numbering the checkpointed records 1, 2, ...
+    // as their ids. The old store is kept as oldFile until the new keys file
+    // is in place, so a crash part way through just upgrades again from it.
+    private static void upgrade(Path file, Path keys, Path oldFile) throws IOException {
+        if (!Files.exists(oldFile)) {
+            Files.move(file, oldFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Path newFile = file.resolveSibling(file.getFileName() + ".v2");
+        Path newKeys = keys.resolveSibling(keys.getFileName() + ".v2");
+        Files.deleteIfExists(newFile);
+        try (InputStream keysIn = Files.newInputStream(keys);
+             DataInputStream keyData = new DataInputStream(new BufferedInputStream(keysIn, 1 << 16));
+             InputStream recordsIn = Files.newInputStream(oldFile);
+             DataInputStream recordData = new DataInputStream(new BufferedInputStream(recordsIn, 1 << 16));
+             MappedReservationStore upgraded = new MappedReservationStore(newFile, null)) {
+            keyData.readInt(); // OLD_KEYS_MAGIC
+            int records = keyData.readInt();
+            List<String> rooms = readKeyList(keyData);
+            List<String> customers = readKeyList(keyData);
+            for (int record = 0; record < records; record++) {
+                int room = recordData.readInt();
+                int customer = recordData.readInt();
+                int checkIn = recordData.readInt();
+                int checkOut = recordData.readInt();
+                byte status = recordData.readByte();
+                recordData.skipBytes(OLD_RECORD_BYTES - STATUS_OFFSET - 1);
+                upgraded.append(record + 1L, rooms.get(room), customers.get(customer), checkIn, checkOut);
+                upgraded.setStatus(record, status);
+            }
+            upgraded.checkpoint(newKeys);
+        }
+        Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(newKeys, keys, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Helper method: load the key tables and the checkpoint's cancellations;
+    // returns the checkpointed record count
+    private int readKeys(Path keys) throws IOException {
+        try (InputStream in = Files.newInputStream(keys);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16))) {
+            int magic = data.readInt();
+            if (magic != KEYS_MAGIC) {
+                throw new IOException(keys + " is not a reservation store keys file");
+            }
+            int records = data.readInt();
+            int rooms = data.readInt();
+            for (int i = 0; i < rooms; i++) {
+                ordinal(data.readUTF(), roomNumbers, roomOrdinals);
+            }
+            int customers = data.readInt();
+            for (int i = 0; i < customers; i++) {
+                ordinal(data.readUTF(), customerEmails, customerOrdinals);
+            }
+            int cancels = data.readInt();
+            for (int i = 0; i < cancels; i++) {
+                pendingCancels.add(data.readInt());
+            }
+            return records;
+        }
+    }
+}
\ No newline at end of file
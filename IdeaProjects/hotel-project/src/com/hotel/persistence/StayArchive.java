@@ -0,0 +1,428 @@
+package com.hotel.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Stays that have ended, kept out of the heap in append-only segment files
+// (archive-N.seg, one per archiving run). A segment holds its stays sorted by
+// customer, check-in and room, in deflated blocks of a few hundred records,
+// followed by an index of the blocks (offset, sizes, first and last customer):
+//
+//   block*  : deflated [UTF email | UTF roomNumber | int checkInDay | int checkOutDay | long reservationId]*
+//   index   : int blocks, then per block long offset | int length | int rawLength | int records
+//             | UTF firstEmail | UTF lastEmail
+//   trailer : int archivedThrough | int records | long indexOffset | int magic
+//
+// Opening reads only the indexes. A customer's history inflates just the
+// blocks that can hold that customer; a report streams every segment merged
+// into one sorted sequence. Segments are written to a temp file, synced and
+// renamed, so a run is archived completely or not at all. A crash between
+// archiving and the next snapshot can archive a stay twice; reads drop the
+// duplicate (size() still counts it). Segments written before stays had ids
+// (magic "HARC") are still read; their stays come back with id 0.
+public class StayArchive implements Closeable {
+    public static final int DEFAULT_BLOCK_RECORDS = 512;
+
+    private static final String SEGMENT_PREFIX = "archive-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAGIC = 0x48415232; // "HAR2"
+    private static final int MAGIC_WITHOUT_IDS = 0x48415243; // "HARC"
+    private static final int TRAILER_BYTES = 20;
+
+    private final Path dir;
+    private final int blockRecords;
+    private volatile List<Segment> segments = Collections.emptyList(); // replaced on append
+    private volatile int archivedThrough = Integer.MIN_VALUE;
+    private volatile long size;
+    private long nextSequence; // guarded by this
+
+    private StayArchive(Path dir, int blockRecords) throws IOException {
+        this.dir = dir;
+        this.blockRecords = blockRecords;
+        Files.createDirectories(dir);
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> found = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*")) {
+            for (Path file : found) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    files.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                } else {
+                    Files.delete(file); // temp file of a run that did not finish
+                }
+            }
+        }
+        List<Segment> opened = new ArrayList<>();
+        for (Path file : files.values()) {
+            Segment segment = new Segment(file);
+            opened.add(segment);
+            size += segment.records;
+            archivedThrough = Math.max(archivedThrough, segment.archivedThrough);
+        }
+        this.segments = Collections.unmodifiableList(opened);
+        this.nextSequence = files.isEmpty() ? 0 : files.lastKey() + 1;
+    }
+
+    // Open (or create) the archive in dir
+    public static StayArchive open(Path dir) throws IOException {
+        return new StayArchive(dir, DEFAULT_BLOCK_RECORDS);
+    }
+
+    public static StayArchive open(Path dir, int blockRecords) throws IOException {
+        if (blockRecords < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        return new StayArchive(dir, blockRecords);
+    }
+
+    // Getters
+    public Path getDir() {
+        return dir;
+    }
+
+    // Latest cutoff archived: every stay that had ended by this epoch day was
+    // archived (Integer.MIN_VALUE when nothing was)
+    public int getArchivedThrough() {
+        return archivedThrough;
+    }
+
+    // Stays archived (a stay archived twice after a crash counts twice)
+    public long size() {
+        return size;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    // Bytes on disk over all segments
+    public long getBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes;
+        }
+        return bytes;
+    }
+
+    // 1. Archive the stays that had ended by archivedThroughDay, as one new
+    // segment; returns once the segment is durable
+    public synchronized void append(List<ArchivedStay> stays, int archivedThroughDay) throws IOException {
+        if (stays.isEmpty()) {
+            archivedThrough = Math.max(archivedThrough, archivedThroughDay);
+            return;
+        }
+        ArchivedStay[] sorted = stays.toArray(new ArchivedStay[0]);
+        Arrays.sort(sorted);
+
+        long sequence = nextSequence;
+        Path file = dir.resolve(SEGMENT_PREFIX + sequence + SEGMENT_SUFFIX);
+        Path temp = dir.resolve(SEGMENT_PREFIX + sequence + ".tmp");
+        writeSegment(temp, sorted, archivedThroughDay);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        nextSequence = sequence + 1;
+
+        List<Segment> next = new ArrayList<>(segments);
+        next.add(new Segment(file));
+        segments = Collections.unmodifiableList(next);
+        size += sorted.length;
+        archivedThrough = Math.max(archivedThrough, archivedThroughDay);
+    }
+
+    // 2. A customer's archived stays checking in within [fromDay, toDay), in
+    // check-in order (room number breaks ties)
+    public List<ArchivedStay> forCustomer(String email, long fromDay, long toDay) {
+        String key = email.toLowerCase(Locale.ROOT);
+        List<ArchivedStay> found = new ArrayList<>();
+        for (Segment segment : segments) {
+            for (int block = segment.firstBlockFor(key);
+                 block < segment.blocks() && segment.firstEmails[block].compareTo(key) <= 0; block++) {
+                for (ArchivedStay stay : segment.readBlock(block)) {
+                    if (stay.getEmail().equals(key) && stay.getCheckInDay() >= fromDay
+                            && stay.getCheckInDay() < toDay) {
+                        found.add(stay);
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingInt(ArchivedStay::getCheckInDay)
+                .thenComparing(ArchivedStay::getRoomNumber));
+        List<ArchivedStay> unique = new ArrayList<>(found.size());
+        for (ArchivedStay stay : found) {
+            if (unique.isEmpty() || !unique.get(unique.size() - 1).sameStay(stay)) {
+                unique.add(stay);
+            }
+        }
+        return unique;
+    }
+
+    // 3. Visit every archived stay once, by customer, check-in and room.
+    // Segments are merged block by block, so memory stays at one block each.
+    public void forEach(Consumer<ArchivedStay> action) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparing(Cursor::current));
+        for (Segment segment : segments) {
+            Cursor cursor = new Cursor(segment);
+            if (cursor.current() != null) {
+                cursors.add(cursor);
+            }
+        }
+        ArchivedStay last = null;
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            ArchivedStay stay = cursor.current();
+            if (last == null || !last.getEmail().equals(stay.getEmail()) || !last.sameStay(stay)) {
+                action.accept(stay);
+                last = stay;
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments = Collections.emptyList();
+    }
+
+    // Helper method: write a sorted run as a segment file and sync it
+    private void writeSegment(Path file, ArchivedStay[] sorted, int archivedThroughDay) throws IOException {
+        int blocks = (sorted.length + blockRecords - 1) / blockRecords;
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexData = new DataOutputStream(index);
+        indexData.writeInt(blocks);
+
+        Deflater deflater = new Deflater();
+        byte[] compressed = new byte[64 * 1024];
+        try (FileOutputStream out = new FileOutputStream(file.toFile());
+             BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16)) {
+            long offset = 0;
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            DataOutputStream rawData = new DataOutputStream(raw);
+            for (int start = 0; start < sorted.length; start += blockRecords) {
+                int end = Math.min(sorted.length, start + blockRecords);
+                raw.reset();
+                for (int i = start; i < end; i++) {
+                    rawData.writeUTF(sorted[i].getEmail());
+                    rawData.writeUTF(sorted[i].getRoomNumber());
+                    rawData.writeInt(sorted[i].getCheckInDay());
+                    rawData.writeInt(sorted[i].getCheckOutDay());
+                    rawData.writeLong(sorted[i].getReservationId());
+                }
+                rawData.flush();
+
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                int length = 0;
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(compressed);
+                    buffered.write(compressed, 0, n);
+                    length += n;
+                }
+
+                indexData.writeLong(offset);
+                indexData.writeInt(length);
+                indexData.writeInt(raw.size());
+                indexData.writeInt(end - start);
+                indexData.writeUTF(sorted[start].getEmail());
+                indexData.writeUTF(sorted[end - 1].getEmail());
+                offset += length;
+            }
+            indexData.flush();
+            index.writeTo(buffered);
+
+            DataOutputStream trailer = new DataOutputStream(buffered);
+            trailer.writeInt(archivedThroughDay);
+            trailer.writeInt(sorted.length);
+            trailer.writeLong(offset);
+            trailer.writeInt(MAGIC);
+            trailer.flush();
+            out.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Helper method: make a rename durable
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename is still atomic
+        }
+    }
+
+    // One segment file: its block index, read when opened
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final long bytes;
+        private final boolean withIds; // false for a "HARC" segment
+        private final int archivedThrough;
+        private final int records;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int[] rawLengths;
+        private final int[] counts;
+        private final String[] firstEmails;
+        private final String[] lastEmails;
+
+        Segment(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.bytes = channel.size();
+            if (bytes < TRAILER_BYTES) {
+                channel.close();
+                throw new IOException(file + " is not an archive segment");
+            }
+            ByteBuffer trailer = read(bytes - TRAILER_BYTES, TRAILER_BYTES);
+            this.archivedThrough = trailer.getInt();
+            this.records = trailer.getInt();
+            long indexOffset = trailer.getLong();
+            int magic = trailer.getInt();
+            if (magic != MAGIC && magic != MAGIC_WITHOUT_IDS) {
+                channel.close();
+                throw new IOException(file + " is not an archive segment");
+            }
+            this.withIds = magic == MAGIC;
+
+            ByteBuffer indexBytes = read(indexOffset, (int) (bytes - TRAILER_BYTES - indexOffset));
+            DataInputStream index = new DataInputStream(new ByteArrayInputStream(
+                    indexBytes.array(), 0, indexBytes.limit()));
+            int blocks = index.readInt();
+            this.offsets = new long[blocks];
+            this.lengths = new int[blocks];
+            this.rawLengths = new int[blocks];
+            this.counts = new int[blocks];
+            this.firstEmails = new String[blocks];
+            this.lastEmails = new String[blocks];
+            for (int b = 0; b < blocks; b++) {
+                offsets[b] = index.readLong();
+                lengths[b] = index.readInt();
+                rawLengths[b] = index.readInt();
+                counts[b] = index.readInt();
+                firstEmails[b] = index.readUTF();
+                lastEmails[b] = index.readUTF();
+            }
+        }
+
+        int blocks() {
+            return offsets.length;
+        }
+
+        // First block whose last customer is not before email (blocks() if none)
+        int firstBlockFor(String email) {
+            int lo = 0;
+            int hi = lastEmails.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (lastEmails[mid].compareTo(email) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        // Inflate and decode one block
+        ArchivedStay[] readBlock(int block) {
+            Inflater inflater = new Inflater();
+            try {
+                ByteBuffer compressed = read(offsets[block], lengths[block]);
+                inflater.setInput(compressed.array(), 0, compressed.limit());
+                byte[] raw = new byte[rawLengths[block]];
+                int filled = 0;
+                while (filled < raw.length && !inflater.finished()) {
+                    filled += inflater.inflate(raw, filled, raw.length - filled);
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw, 0, filled));
+                ArchivedStay[] stays = new ArchivedStay[counts[block]];
+                for (int i = 0; i < stays.length; i++) {
+                    String email = in.readUTF();
+                    String roomNumber = in.readUTF();
+                    int checkIn = in.readInt();
+                    int checkOut = in.readInt();
+                    stays[i] = new ArchivedStay(withIds ? in.readLong() : 0, email, roomNumber, checkIn, checkOut);
+                }
+                return stays;
+            } catch (IOException | DataFormatException e) {
+                throw new IllegalStateException("Cannot read block " + block + " of " + file + ": "
+                        + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException(file + " is truncated");
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // Sequential reader over one segment for the merged scan
+    private static final class Cursor {
+        private final Segment segment;
+        private int block;
+        private ArchivedStay[] stays = new ArchivedStay[0];
+        private int at;
+
+        Cursor(Segment segment) {
+            this.segment = segment;
+            this.block = -1;
+            advance();
+        }
+
+        ArchivedStay current() {
+            return at < stays.length ? stays[at] : null;
+        }
+
+        // Move to the next stay; false once the segment is used up
+        boolean advance() {
+            at++;
+            while (at >= stays.length) {
+                if (++block >= segment.blocks()) {
+                    return false;
+                }
+                stays = segment.readBlock(block);
+                at = 0;
+            }
+            return true;
+        }
+    }
+}
\ No newline at end of file
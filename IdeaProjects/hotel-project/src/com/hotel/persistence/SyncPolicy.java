@@ -0,0 +1,17 @@
+package com.hotel.persistence;
+
+// When journal writers consider their record safe on disk
+public enum SyncPolicy {
+    // Every writer waits for an fsync covering its record. Writers that arrive
+    // while a sync is running share the next one (group commit).
+    PER_WRITE,
+
+    // Writers still wait for their fsync, but the journal holds each sync back
+    // until the batch delay passes or the batch size is reached, so one fsync
+    // covers many writers at the cost of some latency.
+    BATCHED,
+
+    // Writers return as soon as the record is buffered; the journal syncs in the
+    // background every batch delay. A crash can lose the last few records.
+    ASYNC
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.hotel.persistence;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.service.CustomerService;
+import com.hotel.service.ReservationService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// Loads a snapshot on startup with the work split into partitions across the
+// ForkJoinPool. The file is mapped and its frames located in one pass over the
+// length headers; each partition then checks and decodes its share of the
+// frames and builds the Room and Customer objects. Only once every partition
+// is done do the services get the rooms and the customers, in one bulk call
+// each, so they never hold part of a snapshot. The reservation store is
+// indexed the same way when attached (see StoredStays).
+//
+// Also keeps the startup phase timings: the caller marks the end of each
+// phase it runs, the loader marks its own.
+final class WarmStartLoader {
+    private static final int MIN_PARTITION_FRAMES = 4096;
+
+    private final CustomerService customerService;
+    private final ReservationService reservationService;
+    private final Consumer<JournalRecord> otherRecords;
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    private final long startNanos;
+    private long phaseStartNanos;
+
+    // otherRecords gets what a snapshot holds besides rooms and customers
+    // (stays, in snapshots written before the reservation store), in file order
+    WarmStartLoader(CustomerService customerService, ReservationService reservationService,
+                    Consumer<JournalRecord> otherRecords) {
+        this.customerService = customerService;
+        this.reservationService = reservationService;
+        this.otherRecords = otherRecords;
+        this.startNanos = System.nanoTime();
+        this.phaseStartNanos = startNanos;
+    }
+
+    // 1. Load a snapshot file; returns the number of records it held, up to the
+    // first damaged one
+    long loadSnapshot(Path file) throws IOException {
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                long[] records = new long[1];
+                Journal.replay(file, record -> {
+                    records[0]++;
+                    otherRecords.accept(record);
+                });
+                mark("snapshot replay");
+                return records[0];
+            }
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int[] frames = Journal.frameOffsets(bytes);
+        mark("snapshot read");
+
+        // Decode the partitions side by side; everything after a damaged frame is dropped
+        int partitions = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(),
+                frames.length / MIN_PARTITION_FRAMES));
+        List<ForkJoinTask<Partition>> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int from = (int) ((long) frames.length * p / partitions);
+            int to = (int) ((long) frames.length * (p + 1) / partitions);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> decode(bytes, frames, from, to)));
+        }
+        List<IRoom> rooms = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        List<JournalRecord> others = new ArrayList<>();
+        long records = 0;
+        boolean damaged = false;
+        for (ForkJoinTask<Partition> task : tasks) {
+            Partition partition = task.join();
+            if (damaged) {
+                continue;
+            }
+            rooms.addAll(partition.rooms);
+            customers.addAll(partition.customers);
+            others.addAll(partition.others);
+            records += partition.intact;
+            damaged = partition.damaged;
+        }
+        mark("snapshot decode");
+
+        // Publish: rooms before customers, as the snapshot lists them
+        reservationService.addRooms(rooms);
+        customerService.addCustomers(customers);
+        others.forEach(otherRecords);
+        mark("rooms and customers");
+        return records;
+    }
+
+    // 2. End the current phase
+    void mark(String phase) {
+        long now = System.nanoTime();
+        phaseMillis.merge(phase, (now - phaseStartNanos) / 1_000_000, Long::sum);
+        phaseStartNanos = now;
+    }
+
+    // Phase -> milliseconds, in the order the phases ran
+    Map<String, Long> getPhaseMillis() {
+        return Collections.unmodifiableMap(phaseMillis);
+    }
+
+    // One line for the console: every phase, the total and the threads available
+    String summary() {
+        StringBuilder line = new StringBuilder("Startup:");
+        for (Map.Entry<String, Long> phase : phaseMillis.entrySet()) {
+            line.append(' ').append(phase.getKey()).append(' ').append(phase.getValue()).append(" ms,");
+        }
+        return line.append(" total ").append((System.nanoTime() - startNanos) / 1_000_000)
+                .append(" ms on ").append(ForkJoinPool.getCommonPoolParallelism()).append(" worker thread(s)")
+                .toString();
+    }
+
+    // Helper method: check and decode frames [from, to); stops at a damaged one
+    private static Partition decode(ByteBuffer bytes, int[] frames, int from, int to) {
+        Partition partition = new Partition();
+        for (int i = from; i < to; i++) {
+            JournalRecord record = Journal.decode(bytes, frames[i]);
+            if (record == null) {
+                partition.damaged = true;
+                break;
+            }
+            switch (record.getType()) {
+                case ADD_ROOM:
+                    partition.rooms.add(record.toRoom());
+                    break;
+                case ADD_CUSTOMER:
+                    partition.customers.add(new Customer(record.getFirstName(), record.getLastName(),
+                            record.getEmail()));
+                    break;
+                default:
+                    partition.others.add(record);
+            }
+            partition.intact++;
+        }
+        return partition;
+    }
+
+    // What one partition decoded
+    private static final class Partition {
+        final List<IRoom> rooms = new ArrayList<>();
+        final List<Customer> customers = new ArrayList<>();
+        final List<JournalRecord> others = new ArrayList<>();
+        int intact;
+        boolean damaged;
+    }
+}
\ No newline at end of file
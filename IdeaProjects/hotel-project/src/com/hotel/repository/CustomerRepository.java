@@ -0,0 +1,26 @@
+package com.hotel.repository;
+
+import com.hotel.model.Customer;
+import java.util.Collection;
+import java.util.List;
+
+// Where customers are kept, keyed by email. Emails are compared ignoring
+// case, and an account is never replaced once added.
+public interface CustomerRepository {
+    // 1. Store a customer; false if the email already has an account
+    boolean add(Customer customer);
+
+    // 2. Store many customers; returns the ones left out because their email
+    // already has an account
+    List<Customer> addAll(Collection<Customer> customers);
+
+    // 3. Lookups (any case)
+    Customer findByEmail(String email);
+
+    boolean exists(String email);
+
+    // 4. Every customer (a copy) and how many there are
+    Collection<Customer> findAll();
+
+    int count();
+}
\ No newline at end of file
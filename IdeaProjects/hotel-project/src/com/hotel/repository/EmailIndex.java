@@ -0,0 +1,115 @@
+package com.hotel.repository;
+
+import com.hotel.model.Customer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Customers by email, ignoring case, in an open-addressing table: one array
+// of customers and one of their hashes, probed linearly. The hash folds case
+// a character at a time (Customer.emailHash, which Customer.hashCode uses too)
+// and matches are confirmed with equalsIgnoreCase, so a lookup never builds a
+// lower-case copy of the address (or anything else).
+//
+// Writers take the index's lock; readers take none. A reader racing an add
+// may miss the customer being added, never anyone else: slots are only ever
+// filled, and a grown table is fully built before it is published.
+final class EmailIndex {
+    private static final int INITIAL_CAPACITY = 64; // power of two
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private volatile int size;
+
+    // 1. Add a customer; false if their email (in any case) is already taken
+    synchronized boolean add(Customer customer) {
+        String email = customer.getEmail();
+        int hash = hash(email);
+        Table current = table;
+        int mask = current.customers.length - 1;
+        int i = hash & mask;
+        for (Customer existing; (existing = current.customers[i]) != null; i = (i + 1) & mask) {
+            if (current.hashes[i] == hash && existing.getEmail().equalsIgnoreCase(email)) {
+                return false;
+            }
+        }
+        if ((size + 1) * 2 > current.customers.length) {
+            current = grow(current);
+            table = current;
+            mask = current.customers.length - 1;
+            i = hash & mask;
+            while (current.customers[i] != null) {
+                i = (i + 1) & mask;
+            }
+        }
+        current.hashes[i] = hash; // a racing reader that sees a stale hash only misses this customer
+        current.customers[i] = customer;
+        size++;
+        return true;
+    }
+
+    // 2. The customer with this email (any case), or null
+    Customer find(String email) {
+        int hash = hash(email);
+        Table current = table;
+        int mask = current.customers.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Customer candidate = current.customers[i];
+            if (candidate == null) {
+                return null;
+            }
+            if (current.hashes[i] == hash && candidate.getEmail().equalsIgnoreCase(email)) {
+                return candidate;
+            }
+        }
+    }
+
+    // 3. Every customer (a copy) and how many there are
+    List<Customer> values() {
+        Table current = table;
+        List<Customer> all = new ArrayList<>(size);
+        for (Customer customer : current.customers) {
+            if (customer != null) {
+                all.add(customer);
+            }
+        }
+        return all;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Case-insensitive hash (see Customer.emailHash), spread so linear
+    // probing sees well-mixed low bits
+    static int hash(String email) {
+        int h = Customer.emailHash(email) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Helper method: a table twice the size holding every customer (writers only)
+    private static Table grow(Table old) {
+        Table grown = new Table(old.customers.length * 2);
+        int mask = grown.customers.length - 1;
+        for (int j = 0; j < old.customers.length; j++) {
+            if (old.customers[j] != null) {
+                int i = old.hashes[j] & mask;
+                while (grown.customers[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                grown.hashes[i] = old.hashes[j];
+                grown.customers[i] = old.customers[j];
+            }
+        }
+        return grown;
+    }
+
+    // Slots and their hashes; kept under half full
+    private static final class Table {
+        final Customer[] customers;
+        final int[] hashes;
+
+        Table(int capacity) {
+            this.customers = new Customer[capacity];
+            this.hashes = new int[capacity];
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.hotel.repository;
+
+import com.hotel.model.Customer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class InMemoryCustomerRepository implements CustomerRepository {
+    private final EmailIndex customers = new EmailIndex(); // email (any case) -> Customer
+
+    @Override
+    public boolean add(Customer customer) {
+        return customers.add(customer);
+    }
+
+    @Override
+    public List<Customer> addAll(Collection<Customer> newCustomers) {
+        List<Customer> existing = new ArrayList<>();
+        for (Customer customer : newCustomers) {
+            if (!add(customer)) {
+                existing.add(customer);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public Customer findByEmail(String email) {
+        return customers.find(email);
+    }
+
+    @Override
+    public boolean exists(String email) {
+        return customers.find(email) != null;
+    }
+
+    @Override
+    public Collection<Customer> findAll() {
+        return customers.values();
+    }
+
+    @Override
+    public int count() {
+        return customers.size();
+    }
+}
\ No newline at end of file
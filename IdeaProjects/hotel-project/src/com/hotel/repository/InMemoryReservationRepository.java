@@ -0,0 +1,44 @@
+package com.hotel.repository;
+
+import com.hotel.model.Reservation;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class InMemoryReservationRepository implements ReservationRepository {
+    private final Set<Reservation> reservations = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void add(Reservation reservation) {
+        reservations.add(reservation);
+    }
+
+    @Override
+    public void addAll(Collection<Reservation> newReservations) {
+        reservations.addAll(newReservations);
+    }
+
+    @Override
+    public void removeAll(Collection<Reservation> removed) {
+        for (Reservation reservation : removed) {
+            reservations.remove(reservation);
+        }
+    }
+
+    @Override
+    public void replace(Reservation previous, Reservation updated) {
+        reservations.remove(previous);
+        reservations.add(updated);
+    }
+
+    @Override
+    public void forEach(Consumer<Reservation> action) {
+        reservations.forEach(action);
+    }
+
+    @Override
+    public int count() {
+        return reservations.size();
+    }
+}
\ No newline at end of file
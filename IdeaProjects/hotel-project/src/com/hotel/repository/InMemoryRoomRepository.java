@@ -0,0 +1,43 @@
+package com.hotel.repository;
+
+import com.hotel.model.IRoom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryRoomRepository implements RoomRepository {
+    private final Map<String, IRoom> rooms = new ConcurrentHashMap<>(); // roomNumber -> Room
+
+    @Override
+    public void save(IRoom room) {
+        rooms.put(room.getRoomNumber(), room);
+    }
+
+    @Override
+    public void saveAll(Collection<? extends IRoom> newRooms) {
+        for (IRoom room : newRooms) {
+            rooms.put(room.getRoomNumber(), room);
+        }
+    }
+
+    @Override
+    public IRoom findByNumber(String roomNumber) {
+        return rooms.get(roomNumber);
+    }
+
+    @Override
+    public boolean exists(String roomNumber) {
+        return rooms.containsKey(roomNumber);
+    }
+
+    @Override
+    public Collection<IRoom> findAll() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    @Override
+    public int count() {
+        return rooms.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.hotel.repository;
+
+// Default backend: concurrent maps on the heap, gone when the JVM exits
+// (unless HotelPersistence journals the services)
+public class InMemoryStorage implements StorageBackend {
+    private final InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+    private final InMemoryCustomerRepository customers = new InMemoryCustomerRepository();
+    private final NoOpReservationRepository reservations = new NoOpReservationRepository();
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public InMemoryRoomRepository rooms() {
+        return rooms;
+    }
+
+    @Override
+    public InMemoryCustomerRepository customers() {
+        return customers;
+    }
+
+    // Keeps nothing: the reservation service's own table is the heap copy
+    @Override
+    public NoOpReservationRepository reservations() {
+        return reservations;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.hotel.repository;
+
+import com.hotel.model.Reservation;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Repository that keeps no reservations, for a backend whose only copy would
+// be on the heap next to the reservation service's own stay table
+public class NoOpReservationRepository implements ReservationRepository {
+    @Override
+    public void add(Reservation reservation) {
+        // Nothing to keep
+    }
+
+    @Override
+    public void addAll(Collection<Reservation> newReservations) {
+        // Nothing to keep
+    }
+
+    @Override
+    public void removeAll(Collection<Reservation> removed) {
+        // Nothing kept
+    }
+
+    @Override
+    public void replace(Reservation previous, Reservation updated) {
+        // Nothing kept
+    }
+
+    @Override
+    public void forEach(Consumer<Reservation> action) {
+        // Nothing kept
+    }
+
+    @Override
+    public int count() {
+        return 0;
+    }
+}
\ No newline at end of file
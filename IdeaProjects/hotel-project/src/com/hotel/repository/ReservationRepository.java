@@ -0,0 +1,27 @@
+package com.hotel.repository;
+
+import com.hotel.model.Reservation;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Where committed reservations are kept. Availability is decided by the
+// reservation service's own indexes; a repository only stores what was booked.
+public interface ReservationRepository {
+    // 1. Store one booking / many bookings (a backend may make the batch durable once)
+    void add(Reservation reservation);
+
+    void addAll(Collection<Reservation> reservations);
+
+    // 2. Take reservations out (matched by equals); unknown ones are ignored
+    void removeAll(Collection<Reservation> reservations);
+
+    // 3. Swap a stay for its version with new dates, as one change (the old
+    // one is ignored if unknown)
+    void replace(Reservation previous, Reservation updated);
+
+    // 4. Visit every stored reservation, in no particular order
+    void forEach(Consumer<Reservation> action);
+
+    // 5. How many there are
+    int count();
+}
\ No newline at end of file
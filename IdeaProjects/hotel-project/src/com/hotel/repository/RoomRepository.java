@@ -0,0 +1,23 @@
+package com.hotel.repository;
+
+import com.hotel.model.IRoom;
+import java.util.Collection;
+
+// Where rooms are kept, keyed by room number. Saving a room whose number is
+// already there replaces it.
+public interface RoomRepository {
+    // 1. Store one room / many rooms (a backend may make the batch durable once)
+    void save(IRoom room);
+
+    void saveAll(Collection<? extends IRoom> rooms);
+
+    // 2. Lookups
+    IRoom findByNumber(String roomNumber);
+
+    boolean exists(String roomNumber);
+
+    // 3. Every room (a copy) and how many there are
+    Collection<IRoom> findAll();
+
+    int count();
+}
\ No newline at end of file
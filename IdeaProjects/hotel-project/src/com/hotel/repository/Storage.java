@@ -0,0 +1,32 @@
+package com.hotel.repository;
+
+// Holds the storage backend the service singletons are built on. It can be
+// replaced until a service first asks for it; after that it is fixed for the
+// life of the JVM.
+public final class Storage {
+    private static StorageBackend backend;
+    private static boolean bound;
+
+    private Storage() {
+    }
+
+    // 1. Choose the backend (call at startup, before any service is used)
+    public static synchronized void install(StorageBackend storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage backend cannot be null");
+        }
+        if (bound) {
+            throw new IllegalStateException("Storage is already in use: " + backend.getName());
+        }
+        backend = storage;
+    }
+
+    // 2. The backend in use, falling back to memory if none was installed
+    public static synchronized StorageBackend current() {
+        if (backend == null) {
+            backend = new InMemoryStorage();
+        }
+        bound = true;
+        return backend;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.hotel.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// A set of repositories the services keep their data in. Pick one with
+// Storage.install before the services are first used; the default is
+// InMemoryStorage.
+public interface StorageBackend extends Closeable {
+    String getName();
+
+    RoomRepository rooms();
+
+    CustomerRepository customers();
+
+    // Given every booking, cancellation and date change. The reservation
+    // service keeps every live stay itself, so a backend that would only hold
+    // them on the heap can keep nothing here.
+    ReservationRepository reservations();
+
+    // Make every write so far durable and release files (nothing to do in memory)
+    @Override
+    void close() throws IOException;
+}
\ No newline at end of file
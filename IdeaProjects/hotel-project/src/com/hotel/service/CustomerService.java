@@ -1,17 +1,31 @@
 package com.hotel.service;
 
+import com.hotel.event.EventStream;
 import com.hotel.model.Customer;
+import com.hotel.persistence.Journal;
+import com.hotel.persistence.JournalRecord;
+import com.hotel.repository.CustomerRepository;
+import com.hotel.repository.Storage;
 import java.util.*;
 
 public class CustomerService {
     // Singleton instance
     private static final CustomerService INSTANCE = new CustomerService();
 
-    // Store customers by email (unique key)
-    private final Map<String, Customer> customers;
+    // Customers by email (unique key, any case), in the installed storage backend
+    private final CustomerRepository customers;
+
+    // Write-ahead journal for new accounts (none = memory only)
+    private volatile Journal journal;
+    private volatile boolean loggingEnabled;
+
+    // Change events for in-process subscribers, published once an account is durable
+    private final EventStream events;
 
     private CustomerService() {
-        customers = new HashMap<>();
+        customers = Storage.current().customers();
+        loggingEnabled = true;
+        events = EventStream.getInstance();
     }
 
     public static CustomerService getInstance() {
@@ -21,49 +35,101 @@ public class CustomerService {
     // Add a new customer
     public void addCustomer(String email, String firstName, String lastName) {
         // Check if customer already exists
-        if (customers.containsKey(email.toLowerCase())) {
+        if (customers.exists(email)) {
             throw new IllegalArgumentException("Customer with email " + email + " already exists");
         }
 
-        // Create and store new customer
+        // Create and store new customer; journal it once visible, so a snapshot
+        // taken after this record is written always contains the account
         Customer customer = new Customer(firstName, lastName, email);
-        customers.put(email.toLowerCase(), customer);
-        System.out.println("Account created for: " + firstName + " " + lastName);
+        if (!customers.add(customer)) {
+            throw new IllegalArgumentException("Customer with email " + email + " already exists");
+        }
+        Journal current = journal;
+        if (current != null) {
+            current.awaitDurable(current.append(JournalRecord.addCustomer(customer)));
+        }
+        events.customersCreated(Collections.singletonList(customer));
+        if (loggingEnabled) {
+            System.out.println("Account created for: " + firstName + " " + lastName);
+        }
+    }
+
+    // Add many customers at once (imports): each is journaled as it is added,
+    // with a single wait for durability. Returns the customers left out
+    // because their email already has an account.
+    public List<Customer> addCustomers(Collection<Customer> newCustomers) {
+        List<Customer> existing = customers.addAll(newCustomers);
+        Collection<Customer> added = newCustomers;
+        if (!existing.isEmpty()) {
+            Set<Customer> left = Collections.newSetFromMap(new IdentityHashMap<>());
+            left.addAll(existing);
+            added = new ArrayList<>(newCustomers.size() - existing.size());
+            for (Customer customer : newCustomers) {
+                if (!left.contains(customer)) {
+                    added.add(customer);
+                }
+            }
+        }
+        Journal current = journal;
+        if (current != null && !added.isEmpty()) {
+            long position = -1;
+            for (Customer customer : added) {
+                position = current.append(JournalRecord.addCustomer(customer));
+            }
+            current.awaitDurable(position);
+        }
+        events.customersCreated(added);
+        if (loggingEnabled) {
+            System.out.println("Accounts created: " + (newCustomers.size() - existing.size()));
+        }
+        return existing;
     }
 
     // Get customer by email
     public Customer getCustomer(String customerEmail) {
-        return customers.get(customerEmail.toLowerCase());
+        return customers.findByEmail(customerEmail);
     }
 
     // Get all customers
     public Collection<Customer> getAllCustomers() {
-        return new ArrayList<>(customers.values());
+        return customers.findAll();
     }
 
     // Check if customer exists
     public boolean customerExists(String email) {
-        return customers.containsKey(email.toLowerCase());
+        return customers.exists(email);
+    }
+
+    // Journal every account created from now on (null = stop journaling)
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    // Turn the per-account console message off for bulk loads and replay
+    public void setLoggingEnabled(boolean enabled) {
+        this.loggingEnabled = enabled;
     }
 
     // Get total number of customers
     public int getTotalCustomers() {
-        return customers.size();
+        return customers.count();
     }
 
     // Print all customers (for admin)
     public void printAllCustomers() {
-        if (customers.isEmpty()) {
+        Collection<Customer> all = customers.findAll();
+        if (all.isEmpty()) {
             System.out.println("No customers found.");
             return;
         }
 
         System.out.println("\n=== ALL CUSTOMERS ===");
-        System.out.println("Total customers: " + customers.size());
+        System.out.println("Total customers: " + all.size());
         System.out.println("---------------------");
 
         int count = 1;
-        for (Customer customer : customers.values()) {
+        for (Customer customer : all) {
             System.out.println(count + ". " + customer.getFirstName() + " " +
                     customer.getLastName() + " (" + customer.getEmail() + ")");
             count++;
@@ -0,0 +1,212 @@
+package com.hotel.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+// Day-granular occupancy bitmaps, one per room, by room ordinal.
+// Bit (epochDay & 63) of word (epochDay >> 6) is set when that night is booked.
+// Words live in a ring of HORIZON_WORDS slots, so moving the window forward
+// only clears the slots that fall off the front instead of copying arrays.
+//
+// Threading: book() and release() may run concurrently for any rooms and hold the read side
+// of the window lock; isFree() never blocks and is validated against slides
+// with an optimistic stamp.
+class OccupancyCalendar {
+    // 16 words x 64 nights = 1024 nights, i.e. at least two years ahead of today
+    static final int HORIZON_WORDS = 16;
+    static final int HORIZON_DAYS = HORIZON_WORDS * 64;
+
+    private volatile AtomicLongArray[] nights; // room ordinal -> ring of booked-night words
+    private final StampedLock windowLock; // write-held while the window slides
+    private volatile long baseWord; // absolute index of the first word inside the window
+
+    OccupancyCalendar(long startEpochDay) {
+        this.nights = new AtomicLongArray[64];
+        this.windowLock = new StampedLock();
+        this.baseWord = Math.floorDiv(startEpochDay, 64);
+    }
+
+    // Register a room with an empty calendar (keeps existing bits on re-add)
+    synchronized void addRoom(int room) {
+        AtomicLongArray[] current = nights;
+        if (room >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, room + 1));
+        }
+        if (current[room] == null) {
+            current[room] = new AtomicLongArray(HORIZON_WORDS);
+        }
+        nights = current; // publish the row with the array
+    }
+
+    // Stamp for a lock-free read; 0 while a slide is in progress
+    long tryOptimisticRead() {
+        return windowLock.tryOptimisticRead();
+    }
+
+    // Check that no slide happened since the stamp was taken
+    boolean validate(long stamp) {
+        return windowLock.validate(stamp);
+    }
+
+    // First night (inclusive) covered by the window
+    long firstDay() {
+        return baseWord * 64;
+    }
+
+    // Last night (exclusive) covered by the window
+    long endDay() {
+        return (baseWord + HORIZON_WORDS) * 64;
+    }
+
+    // Check if every night in [fromDay, toDay) falls inside the window
+    boolean covers(long fromDay, long toDay) {
+        return fromDay >= firstDay() && toDay <= endDay();
+    }
+
+    // Check if a room has no booked night in [fromDay, toDay).
+    // The range must be covered by the window.
+    boolean isFree(int room, long fromDay, long toDay) {
+        AtomicLongArray bits = row(room);
+        if (bits == null) {
+            return true;
+        }
+
+        long firstWord = fromDay >> 6;
+        long lastWord = (toDay - 1) >> 6;
+        for (long word = firstWord; word <= lastWord; word++) {
+            long mask = rangeMask(word, fromDay, toDay);
+            if ((bits.get(slot(word)) & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mark the nights [fromDay, toDay) as booked; nights outside the window are ignored
+    void book(int room, long fromDay, long toDay) {
+        long stamp = windowLock.readLock(); // keep the window still while we pick slots
+        try {
+            refill(room, fromDay, toDay);
+        } finally {
+            windowLock.unlockRead(stamp);
+        }
+    }
+
+    // Keep the window still across a calendar change and the timeline CAS that
+    // goes with it, so a slide cannot re-book nights from a timeline that is
+    // about to change. Use refill() and clear() until releaseWindow().
+    long holdWindow() {
+        return windowLock.readLock();
+    }
+
+    // End a holdWindow()
+    void releaseWindow(long stamp) {
+        windowLock.unlockRead(stamp);
+    }
+
+    // Same as book(), but only valid inside a slideTo() refill callback,
+    // which already holds the window lock exclusively, or under holdWindow()
+    void refill(int room, long fromDay, long toDay) {
+        AtomicLongArray bits = row(room);
+        if (bits == null) {
+            return;
+        }
+
+        long from = Math.max(fromDay, firstDay());
+        long to = Math.min(toDay, endDay());
+        if (from >= to) {
+            return;
+        }
+
+        long firstWord = from >> 6;
+        long lastWord = (to - 1) >> 6;
+        for (long word = firstWord; word <= lastWord; word++) {
+            bits.accumulateAndGet(slot(word), rangeMask(word, from, to), (a, b) -> a | b);
+        }
+    }
+
+    // Clear the nights [fromDay, toDay) of a stay that was cancelled or moved;
+    // nights outside the window are ignored. The caller makes sure no other
+    // stay of the room holds any of these nights.
+    void release(int room, long fromDay, long toDay) {
+        long stamp = windowLock.readLock();
+        try {
+            clear(room, fromDay, toDay);
+        } finally {
+            windowLock.unlockRead(stamp);
+        }
+    }
+
+    // Same as release(), but only valid under holdWindow()
+    void clear(int room, long fromDay, long toDay) {
+        AtomicLongArray bits = row(room);
+        long from = Math.max(fromDay, firstDay());
+        long to = Math.min(toDay, endDay());
+        if (bits == null || from >= to) {
+            return;
+        }
+
+        long firstWord = from >> 6;
+        long lastWord = (to - 1) >> 6;
+        for (long word = firstWord; word <= lastWord; word++) {
+            bits.accumulateAndGet(slot(word), ~rangeMask(word, from, to), (a, b) -> a & b);
+        }
+    }
+
+    // Check if the window should move forward to the word containing epochDay
+    boolean needsSlide(long epochDay) {
+        return Math.floorDiv(epochDay, 64) > baseWord;
+    }
+
+    // Move the window so it starts at the word containing epochDay.
+    // Nights from the first newly exposed one to endDay() start out empty;
+    // refill receives that first night and must re-book them before readers
+    // can validate again, using refill() rather than book().
+    void slideTo(long epochDay, LongConsumer refill) {
+        long stamp = windowLock.writeLock();
+        try {
+            long newBaseWord = Math.floorDiv(epochDay, 64);
+            if (newBaseWord <= baseWord) {
+                return;
+            }
+
+            long dropped = Math.min(newBaseWord - baseWord, HORIZON_WORDS);
+            for (AtomicLongArray bits : nights) {
+                if (bits == null) {
+                    continue;
+                }
+                for (long word = baseWord; word < baseWord + dropped; word++) {
+                    bits.set(slot(word), 0L);
+                }
+            }
+
+            long oldEndDay = endDay();
+            baseWord = newBaseWord;
+            refill.accept(Math.max(oldEndDay, firstDay()));
+        } finally {
+            windowLock.unlockWrite(stamp);
+        }
+    }
+
+    // Booked-night words of a room, or null if it was never added
+    private AtomicLongArray row(int room) {
+        AtomicLongArray[] current = nights;
+        return room < current.length ? current[room] : null;
+    }
+
+    // Ring slot for an absolute word index
+    private static int slot(long word) {
+        return (int) Math.floorMod(word, (long) HORIZON_WORDS);
+    }
+
+    // Bits of the given word that fall inside [fromDay, toDay)
+    private static long rangeMask(long word, long fromDay, long toDay) {
+        long wordStart = word << 6;
+        int lo = (int) Math.max(fromDay - wordStart, 0);
+        int hi = (int) Math.min(toDay - wordStart, 64); // exclusive
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.hotel.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Index range [0, size) split into equal partitions that run side by side on
+// the ForkJoinPool (bulk loads and index builds; searches use RoomSearchTask)
+final class Partitions {
+    // Work on one partition: indexes [from, to)
+    interface Task {
+        void run(int partition, int from, int to);
+    }
+
+    private Partitions() {
+    }
+
+    // Number of partitions for size items: one per pool thread, but none
+    // smaller than minSize (so small loads stay on the calling thread)
+    static int of(int size, int minSize) {
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), size / minSize));
+    }
+
+    // Run the task on every partition and wait for all of them; a partition
+    // that fails rethrows here
+    static void run(int size, int partitions, Task task) {
+        if (partitions == 1) {
+            task.run(0, 0, size);
+            return;
+        }
+        ForkJoinTask<?>[] running = new ForkJoinTask<?>[partitions];
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            int from = (int) ((long) size * p / partitions);
+            int to = (int) ((long) size * (p + 1) / partitions);
+            running[p] = ForkJoinPool.commonPool().submit(() -> task.run(partition, from, to));
+        }
+        for (ForkJoinTask<?> partition : running) {
+            partition.join();
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,142 @@
 package com.hotel.service;
 
+import com.hotel.event.EventStream;
+import com.hotel.model.AvailabilityWindow;
+import com.hotel.model.BookingRequest;
+import com.hotel.model.BookingResult;
 import com.hotel.model.Customer;
 import com.hotel.model.IRoom;
 import java.time.LocalDateTime;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationPage;
+import com.hotel.model.RoomFilter;
+import com.hotel.persistence.ArchivedStay;
+import com.hotel.persistence.Journal;
+import com.hotel.persistence.JournalRecord;
+import com.hotel.persistence.MappedReservationStore;
+import com.hotel.persistence.StayArchive;
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.Storage;
+import com.hotel.repository.StorageBackend;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class ReservationService {
     // Static reference (Singleton pattern)
     private static final ReservationService INSTANCE = new ReservationService();
 
-    // Collections to store data
-    private final Map<String, IRoom> rooms; // roomNumber -> Room
-    private final Set<Reservation> reservations;
+    // Rooms (by room number) and committed reservations, in the installed
+    // storage backend; everything below is derived from them. A backend that
+    // keeps no reservations of its own (memory) gets none: the stay table
+    // below is then the only copy, and every read of live stays goes to it.
+    private final RoomRepository rooms;
+    private final ReservationRepository reservations;
+
+    // Rooms by ordinal (insertion order), so searches can split the room
+    // space into index ranges, each with its interval index: an immutable,
+    // versioned snapshot of the room's stays (days and table rows) ordered by
+    // check-in. Every booking swaps in a new snapshot with a CAS, so readers
+    // never lock and writers only retry when someone else changed the same
+    // room. Room numbers map to ordinals through their int encoding; every
+    // index below is keyed by ordinal.
+    private final RoomRegistry roomRegistry;
+
+    // Attribute bitmaps over room ordinals for filtered searches
+    private final RoomAttributeIndex attributeIndex;
+
+    // Committed stays as columns (room and customer ordinals, check-in and
+    // check-out days), with a per-customer index ordered by check-in, so a
+    // guest's lookup never touches other customers' reservations. The
+    // timelines hold row numbers; Reservations are built on the way out.
+    private final ReservationTable stayTable;
+
+    // The LocalDate of every day within ~11 years of start-up, built once and
+    // shared by the Reservations built from the table (days further out are
+    // built as needed)
+    private static final int DATE_SPAN_DAYS = 4096;
+    private final long firstDateDay;
+    private final LocalDate[] dates;
+
+    // Booked-night bitmaps for the next ~2 years; searches inside that window
+    // test a few words per room instead of comparing reservation dates
+    private final OccupancyCalendar calendar;
+    private volatile boolean calendarEnabled;
+
+    // Booking locks striped by room ordinal: bookings for rooms on different
+    // stripes run in parallel, searches never take a lock
+    private static final int LOCK_STRIPES = 64; // power of two
+    private final ReentrantLock[] bookingLocks;
+
+    // How reserveARoom commits: under the room's lock, or lock-free with
+    // bounded CAS retries against the room's snapshot
+    public enum ConcurrencyMode { LOCKING, OPTIMISTIC }
+
+    private static final int MAX_OPTIMISTIC_ATTEMPTS = 16;
+    private volatile ConcurrencyMode concurrencyMode;
+    private final LongAdder optimisticRetries; // lost CAS races that were retried
+    private final LongAdder optimisticAborts;  // bookings that ran out of attempts
+
+    // Searches over at least this many rooms fan out over the common
+    // ForkJoinPool; smaller hotels stay on the calling thread
+    private static final int DEFAULT_PARALLEL_SEARCH_THRESHOLD = 4096;
+    private static final int MIN_SEARCH_CHUNK = 1024;
+    private volatile int parallelSearchThreshold;
+
+    // Write-ahead journal for rooms and bookings (none = memory only), and
+    // whether each change is announced on the console
+    private volatile Journal journal;
+    private volatile boolean loggingEnabled;
+
+    // Change events for in-process subscribers, published once a change is durable
+    private final EventStream events;
+
+    // Mapped reservation store: committed bookings are appended to it, and the
+    // stays it held when attached are served from it (see StoredStays) instead
+    // of living on the heap as Reservation objects
+    private volatile MappedReservationStore store;
+    private volatile StoredStays storedStays;
+
+    // Stays that have ended, moved out of every structure above by
+    // archivePastStays. Stays checking in before archivedThrough can no
+    // longer be booked: that part of each room's history is not indexed.
+    private volatile StayArchive archive;
+    private volatile int archivedThrough = Integer.MIN_VALUE;
+    private final Object archiveLock = new Object(); // one archiving run at a time
 
     // Private constructor
     private ReservationService() {
-        rooms = new HashMap<>();
-        reservations = new HashSet<>();
+        StorageBackend storage = Storage.current();
+        rooms = storage.rooms();
+        reservations = storage.reservations();
+        roomRegistry = new RoomRegistry();
+        attributeIndex = new RoomAttributeIndex();
+        stayTable = new ReservationTable();
+        firstDateDay = LocalDate.now().toEpochDay() - DATE_SPAN_DAYS;
+        dates = new LocalDate[2 * DATE_SPAN_DAYS];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(firstDateDay + i);
+        }
+        calendar = new OccupancyCalendar(LocalDate.now().toEpochDay());
+        calendarEnabled = true;
+        bookingLocks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            bookingLocks[i] = new ReentrantLock();
+        }
+        concurrencyMode = ConcurrencyMode.LOCKING;
+        optimisticRetries = new LongAdder();
+        optimisticAborts = new LongAdder();
+        parallelSearchThreshold = DEFAULT_PARALLEL_SEARCH_THRESHOLD;
+        loggingEnabled = true;
+        events = EventStream.getInstance();
+        indexStoredData();
     }
 
     // Get singleton instance
@@ -31,8 +149,16 @@ public class ReservationService {
         if (room == null) {
             throw new IllegalArgumentException("Room cannot be null");
         }
-        rooms.put(room.getRoomNumber(), room);
-        System.out.println("Room added: " + room.getRoomNumber());
+        // Indexes first, so a booker never sees a room without them
+        indexRoom(room);
+        rooms.save(room);
+        // Journal once visible, so a snapshot taken after this record is
+        // written always contains the room
+        awaitDurable(logChange(JournalRecord.addRoom(room)));
+        events.roomsAdded(Collections.singletonList(room));
+        if (loggingEnabled) {
+            System.out.println("Room added: " + room.getRoomNumber());
+        }
     }
 
     // 2. Get a room by room ID
@@ -40,7 +166,7 @@ public class ReservationService {
         if (roomId == null || roomId.trim().isEmpty()) {
             throw new IllegalArgumentException("Room ID cannot be empty");
         }
-        return rooms.get(roomId);
+        return rooms.findByNumber(roomId);
     }
 
     // 3. Reserve a room
@@ -61,24 +187,166 @@ public class ReservationService {
         }
 
         // Check if room exists
-        if (!rooms.containsKey(room.getRoomNumber())) {
+        int ordinal = roomRegistry.ordinalOf(room.getRoomNumber());
+        if (ordinal == RoomRegistry.NONE) {
             throw new IllegalArgumentException("Room does not exist: " + room.getRoomNumber());
         }
-
-        // Check if room is available
-        if (!isRoomAvailable(room, checkInDate, checkOutDate)) {
-            throw new IllegalArgumentException("Room " + room.getRoomNumber() +
-                    " is not available from " + checkInDate + " to " + checkOutDate);
+        if (checkInDate.toEpochDay() < archivedThrough) {
+            throw new IllegalArgumentException(archivedMessage());
         }
 
+        advanceCalendar();
+
         // Create and store reservation
-        Reservation reservation = new Reservation(customer, room, checkInDate, checkOutDate);
-        reservations.add(reservation);
+        int row = addRow(0, ordinal, customer, checkInDate, checkOutDate);
+        Reservation reservation = new Reservation(stayTable.id(row), customer, room, checkInDate, checkOutDate);
+        try {
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                commitOptimistic(reservation, row);
+            } else {
+                // Check and book under the room's lock so two bookers cannot both win
+                ReentrantLock lock = lockFor(ordinal);
+                lock.lock();
+                try {
+                    commit(reservation, row);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            stayTable.free(row);
+            throw e;
+        }
 
-        System.out.println("Reservation created successfully!");
+        // Stored outside the lock: a backend may wait for the disk here
+        reservations.add(reservation);
+        awaitDurable(logChange(JournalRecord.reservations(Collections.singletonList(reservation))));
+        events.reservationCreated(reservation);
+        if (loggingEnabled) {
+            System.out.println("Reservation created successfully!");
+        }
         return reservation;
     }
 
+    // 3b. Reserve several rooms for one customer, all or nothing.
+    // Every item is validated in one pass (including clashes inside the group),
+    // then all rooms are committed together under their locks. Returns one
+    // result per request, in order: either all are booked or none is.
+    public List<BookingResult> reserveRooms(Customer customer, List<BookingRequest> requests) {
+        return reserveRooms(customer, requests, null);
+    }
+
+    // 3c. Book stays again under the reservation ids they were booked with
+    // (journal replay), all or nothing as in reserveRooms. A stay with id 0
+    // gets a new one; any other id must not belong to a booking already.
+    public List<BookingResult> restoreReservations(Customer customer, List<Reservation> stays) {
+        if (stays == null || stays.isEmpty()) {
+            throw new IllegalArgumentException("Reservations cannot be empty");
+        }
+        List<BookingRequest> requests = new ArrayList<>(stays.size());
+        long[] ids = new long[stays.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Reservation stay = stays.get(i);
+            if (stay == null) {
+                throw new IllegalArgumentException("Reservation cannot be null");
+            }
+            if (stay.getId() != 0 && getReservation(stay.getId()) != null) {
+                throw new IllegalArgumentException("Reservation id already in use: " + stay.getId());
+            }
+            requests.add(new BookingRequest(stay.getRoom(), stay.getCheckInDate(), stay.getCheckOutDate()));
+            ids[i] = stay.getId();
+        }
+        return reserveRooms(customer, requests, ids);
+    }
+
+    // Helper method: reserveRooms, with the stays' ids given (0 = a new one) or null for all new
+    private List<BookingResult> reserveRooms(Customer customer, List<BookingRequest> requests, long[] ids) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Booking requests cannot be empty");
+        }
+
+        // Validate every item and group them by room
+        String[] failures = new String[requests.size()];
+        Map<Integer, List<Integer>> itemsByRoom = new LinkedHashMap<>(); // room ordinal -> items
+        boolean rejected = false;
+        for (int i = 0; i < requests.size(); i++) {
+            failures[i] = validateBookingRequest(requests.get(i));
+            if (failures[i] != null) {
+                rejected = true;
+            } else {
+                itemsByRoom.computeIfAbsent(roomRegistry.ordinalOf(requests.get(i).getRoom().getRoomNumber()),
+                        k -> new ArrayList<>()).add(i);
+            }
+        }
+        rejected |= markGroupClashes(requests, itemsByRoom, failures);
+        if (rejected) {
+            return rejectGroup(requests, failures);
+        }
+
+        advanceCalendar();
+        Reservation[] booked = new Reservation[requests.size()];
+        int[] rows = new int[requests.size()];
+        for (Map.Entry<Integer, List<Integer>> entry : itemsByRoom.entrySet()) {
+            for (int i : entry.getValue()) {
+                BookingRequest request = requests.get(i);
+                rows[i] = addRow(ids == null ? 0 : ids[i], entry.getKey(), customer,
+                        request.getCheckInDate(), request.getCheckOutDate());
+                booked[i] = new Reservation(stayTable.id(rows[i]), customer, request.getRoom(),
+                        request.getCheckInDate(), request.getCheckOutDate());
+            }
+        }
+
+        // Lock every room involved, in stripe order so groups cannot deadlock
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (int room : itemsByRoom.keySet()) {
+            stripes.add(stripeFor(room));
+        }
+        for (int stripe : stripes) {
+            bookingLocks[stripe].lock();
+        }
+        try {
+            for (int attempt = 1; attempt <= MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+                if (tryCommitGroup(itemsByRoom, booked, rows, failures)) {
+                    break;
+                }
+                optimisticRetries.increment(); // raced with an optimistic single booking
+                if (attempt == MAX_OPTIMISTIC_ATTEMPTS) {
+                    optimisticAborts.increment();
+                    Arrays.fill(failures, "Rooms are busy, please try again");
+                }
+            }
+        } finally {
+            for (int stripe : stripes) {
+                bookingLocks[stripe].unlock();
+            }
+        }
+
+        for (String failure : failures) {
+            if (failure != null) {
+                for (int row : rows) {
+                    stayTable.free(row);
+                }
+                return rejectGroup(requests, failures);
+            }
+        }
+
+        reservations.addAll(Arrays.asList(booked));
+        List<BookingResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(BookingResult.booked(requests.get(i), booked[i]));
+        }
+        // One record for the whole group, so replay restores all of it or none
+        awaitDurable(logChange(JournalRecord.reservations(Arrays.asList(booked))));
+        events.reservationsCreated(Arrays.asList(booked));
+        if (loggingEnabled) {
+            System.out.println("Group reservation created successfully! (" + booked.length + " rooms)");
+        }
+        return results;
+    }
+
     // 4. Find available rooms for given dates
     public Collection<IRoom> findRooms(LocalDate checkInDate, LocalDate checkOutDate) {
         // Validate dates
@@ -89,97 +357,1351 @@ public class ReservationService {
             throw new IllegalArgumentException("Check-out date must be after check-in date");
         }
 
-        List<IRoom> availableRooms = new ArrayList<>();
+        // Lock-free: read the calendar optimistically and fall back to the
+        // interval index if the window slid underneath us
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        long stamp = calendar.tryOptimisticRead();
+        boolean useCalendar = calendarEnabled && stamp != 0 && calendar.covers(fromDay, toDay);
 
-        for (IRoom room : rooms.values()) {
-            if (isRoomAvailable(room, checkInDate, checkOutDate)) {
-                availableRooms.add(room);
-            }
+        List<IRoom> availableRooms = collectAvailableRooms(checkInDate, checkOutDate, useCalendar, null);
+        if (useCalendar && !calendar.validate(stamp)) {
+            availableRooms = collectAvailableRooms(checkInDate, checkOutDate, false, null);
+        }
+
+        return availableRooms;
+    }
+
+    // 4b. Find available rooms that also match a filter (type, view, balcony,
+    // floors, amenities). Only rooms passing the attribute bitmaps are checked.
+    public Collection<IRoom> findRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomFilter filter) {
+        if (filter == null) {
+            return findRooms(checkInDate, checkOutDate);
+        }
+        // Validate dates
+        if (checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (checkOutDate.isBefore(checkInDate) || checkOutDate.isEqual(checkInDate)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+
+        BitSet candidates = attributeIndex.match(filter);
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        long stamp = calendar.tryOptimisticRead();
+        boolean useCalendar = calendarEnabled && stamp != 0 && calendar.covers(fromDay, toDay);
+
+        List<IRoom> availableRooms = collectAvailableRooms(checkInDate, checkOutDate, useCalendar, candidates);
+        if (useCalendar && !calendar.validate(stamp)) {
+            availableRooms = collectAvailableRooms(checkInDate, checkOutDate, false, candidates);
         }
 
         return availableRooms;
     }
 
+    // 4c. Find the date windows nearest to the requested stay, keeping its length.
+    // Check-in may move up to flexibilityDays either way (never before today).
+    // Returns up to maxResults windows, nearest first (earlier on ties), each
+    // with its free rooms - from one pass over every room's bookings.
+    public List<AvailabilityWindow> findAvailableWindows(LocalDate checkInDate, LocalDate checkOutDate,
+                                                         int flexibilityDays, int maxResults) {
+        if (checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (checkOutDate.isBefore(checkInDate) || checkOutDate.isEqual(checkInDate)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        if (flexibilityDays < 0 || maxResults < 1) {
+            throw new IllegalArgumentException("Flexibility must be >= 0 and results >= 1");
+        }
+
+        int nights = (int) (checkOutDate.toEpochDay() - checkInDate.toEpochDay());
+        int preferred = RoomTimeline.epochDay(checkInDate.toEpochDay());
+        int firstStart = Math.max(preferred - flexibilityDays,
+                RoomTimeline.epochDay(LocalDate.now().toEpochDay()));
+        int lastStart = preferred + flexibilityDays;
+        if (lastStart < firstStart) {
+            return new ArrayList<>(); // whole range is in the past
+        }
+
+        // freeByStart[s] = ordinals of rooms free for [firstStart + s, + nights)
+        BitSet[] freeByStart = new BitSet[lastStart - firstStart + 1];
+        int count = roomRegistry.size(); // read before the table: slots below it are filled
+        IRoom[] table = roomRegistry.rooms();
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            final int room = ordinal;
+            roomRegistry.timeline(ordinal).get().forEachGap(
+                    firstStart, lastStart + nights, (start, end) -> {
+                        for (int day = start; day + nights <= end; day++) {
+                            int offset = day - firstStart;
+                            if (freeByStart[offset] == null) {
+                                freeByStart[offset] = new BitSet();
+                            }
+                            freeByStart[offset].set(room);
+                        }
+                    });
+        }
+
+        // Nearest start first, earlier wins ties: preferred, -1, +1, -2, +2, ...
+        List<AvailabilityWindow> windows = new ArrayList<>();
+        for (int distance = 0; distance <= flexibilityDays && windows.size() < maxResults; distance++) {
+            addWindowIfFree(windows, freeByStart, firstStart, preferred - distance, nights, table);
+            if (distance > 0 && windows.size() < maxResults) {
+                addWindowIfFree(windows, freeByStart, firstStart, preferred + distance, nights, table);
+            }
+        }
+        return windows;
+    }
+
     // 5. Get all reservations for a customer
     public Collection<Reservation> getCustomersReservation(Customer customer) {
         if (customer == null) {
             throw new IllegalArgumentException("Customer cannot be null");
         }
 
-        List<Reservation> customerReservations = new ArrayList<>();
+        return withColdStays(customer, Long.MIN_VALUE, Long.MAX_VALUE,
+                liveStays(customer, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
 
-        for (Reservation reservation : reservations) {
-            if (reservation.getCustomer().equals(customer)) {
-                customerReservations.add(reservation);
-            }
+    // 5b. Get a customer's reservations checking in on or after 'from' and before 'to'
+    public Collection<Reservation> getCustomersReservation(Customer customer,
+                                                           LocalDate from, LocalDate to) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
         }
 
-        return customerReservations;
+        return withColdStays(customer, from.toEpochDay(), to.toEpochDay(),
+                liveStays(customer, from.toEpochDay(), to.toEpochDay()));
+    }
+
+    // 5c. Get a customer's upcoming reservations (checking in today or later)
+    public Collection<Reservation> getUpcomingReservations(Customer customer) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+
+        long today = LocalDate.now().toEpochDay();
+        return withColdStays(customer, today, Long.MAX_VALUE, liveStays(customer, today, Long.MAX_VALUE));
     }
 
     // 6. Print all reservations
     public void printAllReservation() {
-        if (reservations.isEmpty()) {
+        if (getTotalReservations() == 0) {
             System.out.println("\n=== No reservations found ===");
             return;
         }
 
         System.out.println("\n=== ALL RESERVATIONS ===");
-        System.out.println("Total reservations: " + reservations.size());
+        System.out.println("Total reservations: " + getTotalReservations());
         System.out.println("------------------------");
 
-        int count = 1;
-        for (Reservation reservation : reservations) {
-            System.out.println("Reservation #" + count);
+        int[] count = {1};
+        Consumer<Reservation> print = reservation -> {
+            System.out.println("Reservation #" + count[0]);
             System.out.println(reservation);
             System.out.println("------------------------");
-            count++;
+            count[0]++;
+        };
+        forEachArchived(print);
+        StoredStays stored = storedStays;
+        if (stored != null) {
+            stored.forEach(print);
         }
+        stayTable.forEach((customer, id, room, checkIn, checkOut) ->
+                print.accept(materialize(customer, id, room, checkIn, checkOut)));
     }
 
     // 7. Get all rooms (optional helper method)
     public Collection<IRoom> getAllRooms() {
-        return new ArrayList<>(rooms.values());
+        return rooms.findAll();
     }
 
     // 8. Check if room exists
     public boolean roomExists(String roomId) {
-        return rooms.containsKey(roomId);
+        return rooms.exists(roomId);
     }
 
     // 9. Get total number of rooms
     public int getTotalRooms() {
-        return rooms.size();
+        return rooms.count();
     }
 
-    // 10. Get total number of reservations
+    // 9b. Get all reservations, archived ones included (unordered copy)
+    public Collection<Reservation> getAllReservations() {
+        List<Reservation> all = new ArrayList<>(getTotalReservations());
+        forEachArchived(all::add);
+        StoredStays stored = storedStays;
+        if (stored != null) {
+            stored.forEach(all::add);
+        }
+        stayTable.forEach((customer, id, room, checkIn, checkOut) ->
+                all.add(materialize(customer, id, room, checkIn, checkOut)));
+        return all;
+    }
+
+    // 10. Get total number of reservations, archived ones included
     public int getTotalReservations() {
-        return reservations.size();
+        StoredStays stored = storedStays;
+        StayArchive archived = archive;
+        return stayTable.size() + (stored == null ? 0 : stored.loaded())
+                + (archived == null ? 0 : Math.toIntExact(archived.size()));
+    }
+
+    // 11. Switch the occupancy calendar on or off (off = interval index only)
+    public void setOccupancyCalendarEnabled(boolean enabled) {
+        this.calendarEnabled = enabled;
+    }
+
+    // 12. Choose how bookings are committed (default LOCKING)
+    public void setConcurrencyMode(ConcurrencyMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Concurrency mode cannot be null");
+        }
+        this.concurrencyMode = mode;
+    }
+
+    // 13. Get the current booking concurrency mode
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
+    // 14. Optimistic bookings that lost a race on their room and retried
+    public long getOptimisticRetries() {
+        return optimisticRetries.sum();
+    }
+
+    // 15. Optimistic bookings given up after MAX_OPTIMISTIC_ATTEMPTS races
+    public long getOptimisticAborts() {
+        return optimisticAborts.sum();
+    }
+
+    // 16. Room count from which findRooms searches in parallel
+    public void setParallelSearchThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.parallelSearchThreshold = threshold;
+    }
+
+    // 17. Journal every room added and booking made from now on (null = stop journaling)
+    public void setJournal(Journal journal) {
+        this.journal = journal;
     }
 
-    // Helper method: Check room availability
-    private boolean isRoomAvailable(IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
-        for (Reservation reservation : reservations) {
-            // If this reservation is for the same room
-            if (reservation.getRoom().getRoomNumber().equals(room.getRoomNumber())) {
-                // Check if dates overlap
-                if (datesOverlap(
-                        reservation.getCheckInDate(), reservation.getCheckOutDate(),
-                        checkInDate, checkOutDate)) {
-                    return false; // Room is booked
+    // 18. Turn the per-change console messages off for bulk loads and replay
+    public void setLoggingEnabled(boolean enabled) {
+        this.loggingEnabled = enabled;
+    }
+
+    // 19. Serve the reservations in a mapped store and append new bookings to it.
+    // A primitive scan (in parallel partitions for large stores) builds the room
+    // timelines, the occupancy calendar and a per-customer index; no Reservation
+    // is built until a caller asks for it. The timelines are all built before
+    // any is installed, and the store is published last.
+    // Rooms must be added first, and a non-empty store must come before any booking.
+    public void attachStore(MappedReservationStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+        if (this.store != null) {
+            throw new IllegalStateException("A reservation store is already attached");
+        }
+
+        IRoom[] roomsByOrdinal = new IRoom[store.roomCount()];
+        for (int ordinal = 0; ordinal < roomsByOrdinal.length; ordinal++) {
+            roomsByOrdinal[ordinal] = rooms.findByNumber(store.roomNumber(ordinal));
+        }
+        StoredStays stays = new StoredStays(store, roomsByOrdinal);
+        if (stays.loaded() > 0 && stayTable.size() > 0) {
+            throw new IllegalStateException("Attach the reservation store before making bookings");
+        }
+        stayTable.skipIds(stays.maxId());
+
+        RoomTimeline[] timelines = new RoomTimeline[roomsByOrdinal.length];
+        Partitions.run(roomsByOrdinal.length, Partitions.of(roomsByOrdinal.length, MIN_SEARCH_CHUNK),
+                (partition, from, to) -> {
+                    for (int ordinal = from; ordinal < to; ordinal++) {
+                        if (roomsByOrdinal[ordinal] == null) {
+                            continue;
+                        }
+                        int room = roomRegistry.ordinalOf(roomsByOrdinal[ordinal].getRoomNumber());
+                        int[] checkIns = stays.checkIns(ordinal);
+                        int[] checkOuts = stays.checkOuts(ordinal);
+                        timelines[ordinal] = RoomTimeline.ofStored(checkIns, checkOuts);
+                        for (int i = 0; i < checkIns.length; i++) {
+                            calendar.book(room, checkIns[i], checkOuts[i]);
+                        }
+                    }
+                });
+        for (int ordinal = 0; ordinal < timelines.length; ordinal++) {
+            if (timelines[ordinal] != null) {
+                roomRegistry.timeline(roomRegistry.ordinalOf(roomsByOrdinal[ordinal].getRoomNumber()))
+                        .set(timelines[ordinal]);
+            }
+        }
+        this.storedStays = stays;
+        this.store = store;
+        if (stays.skipped() > 0) {
+            System.out.println("Reservation store: skipped " + stays.skipped() + " stays of unknown rooms");
+        }
+    }
+
+    // 20. Add many rooms at once (imports): each is journaled as it is added,
+    // with a single wait for durability and a single console line at the end
+    public void addRooms(Collection<? extends IRoom> newRooms) {
+        long position = -1;
+        for (IRoom room : newRooms) {
+            if (room == null) {
+                throw new IllegalArgumentException("Room cannot be null");
+            }
+            indexRoom(room);
+            position = Math.max(position, logChange(JournalRecord.addRoom(room)));
+        }
+        rooms.saveAll(newRooms);
+        awaitDurable(position);
+        events.roomsAdded(newRooms);
+        if (loggingEnabled) {
+            System.out.println("Rooms added: " + newRooms.size());
+        }
+    }
+
+    // 21. Load many stays at once (imports). Stays are grouped by room and merged
+    // into each room's timeline in one pass and one swap, then indexed and
+    // journaled together, instead of copying the timeline for every stay.
+    // Returns the stays left out: unknown room, checking in before the archive
+    // cutoff, or overlapping a booked stay or another stay of the batch.
+    public List<Reservation> importReservations(Collection<Reservation> stays) {
+        List<Reservation> rejected = new ArrayList<>();
+        Map<Integer, List<Reservation>> byRoom = new HashMap<>(); // room ordinal -> stays
+        for (Reservation reservation : stays) {
+            if (reservation == null) {
+                throw new IllegalArgumentException("Reservation cannot be null");
+            }
+            int room = roomRegistry.ordinalOf(reservation.getRoom().getRoomNumber());
+            if (room != RoomRegistry.NONE && reservation.getCheckInDate().toEpochDay() >= archivedThrough) {
+                byRoom.computeIfAbsent(room, k -> new ArrayList<>()).add(reservation);
+            } else {
+                rejected.add(reservation);
+            }
+        }
+
+        advanceCalendar();
+        List<Reservation> booked = new ArrayList<>(stays.size());
+        for (Map.Entry<Integer, List<Reservation>> entry : byRoom.entrySet()) {
+            List<Reservation> batch = entry.getValue();
+            batch.sort(Comparator.comparing(Reservation::getCheckInDate));
+            AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(entry.getKey());
+            RowBatch rows = new RowBatch(entry.getKey(), batch, false);
+            BitSet clashes = new BitSet();
+            ReentrantLock lock = lockFor(entry.getKey());
+            lock.lock();
+            try {
+                while (true) {
+                    RoomTimeline current = timeline.get();
+                    clashes.clear();
+                    if (timeline.compareAndSet(current, rows.mergeInto(current, clashes))) {
+                        break;
+                    }
+                    optimisticRetries.increment(); // raced with an optimistic single booking
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (clashes.get(i)) {
+                    stayTable.free(rows.rows[i]);
+                    rejected.add(batch.get(i));
+                } else {
+                    Reservation reservation = withId(batch.get(i), rows.rows[i]);
+                    indexReservation(reservation, rows.rows[i]);
+                    booked.add(reservation);
                 }
             }
         }
-        return true; // Room is available
+
+        long position = -1;
+        for (Reservation reservation : booked) {
+            position = Math.max(position,
+                    logChange(JournalRecord.reservations(Collections.singletonList(reservation))));
+        }
+        reservations.addAll(booked);
+        awaitDurable(position);
+        events.reservationsCreated(booked);
+        if (loggingEnabled) {
+            System.out.println("Reservations imported: " + booked.size() + " (" + rejected.size() + " left out)");
+        }
+        return rejected;
     }
 
-    // Helper method: Check if two date ranges overlap
-    private boolean datesOverlap(LocalDate start1, LocalDate end1,
-                                 LocalDate start2, LocalDate end2) {
-        // Two date ranges overlap if:
-        // range1 starts before range2 ends AND range1 ends after range2 starts
+    // 22. Refill a page with the next stays matching its filter: room by room, in
+    // the order rooms were added, and by check-in within a room. Each room is
+    // read from its current snapshot, so paging never blocks bookers, and
+    // stored stays are read in place. Returns false once every room is read.
+    public boolean nextPage(ReservationPage page) {
+        if (page == null) {
+            throw new IllegalArgumentException("Page cannot be null");
+        }
+        page.clear();
+        if (page.isDone()) {
+            return false;
+        }
+
+        StoredStays stored = storedStays;
+        MappedReservationStore currentStore = store;
+        int count = roomRegistry.size(); // read before the table: slots below it are filled
+        IRoom[] table = roomRegistry.rooms();
+        long day = page.getNextDay();
+        for (int ordinal = page.getNextRoom(); ordinal < count; ordinal++, day = page.getFromDay()) {
+            IRoom room = table[ordinal];
+            if (!page.includesRoom(room.getRoomNumber())) {
+                continue;
+            }
+            RoomTimeline timeline = roomRegistry.timeline(ordinal).get();
+            int storedOrdinal = -1;
+            for (int i = timeline.firstStartingFrom(day);
+                 i < timeline.size() && timeline.checkInDay(i) < page.getToDay(); i++) {
+                if (page.isFull()) {
+                    page.moveTo(ordinal, timeline.checkInDay(i));
+                    return true;
+                }
+                int row = timeline.row(i);
+                Customer customer;
+                if (row != RoomTimeline.STORED) {
+                    customer = stayTable.customerAt(row, ordinal, timeline.checkInDay(i));
+                    if (customer == null) {
+                        continue; // archived since the snapshot was taken
+                    }
+                } else {
+                    if (storedOrdinal < 0) {
+                        storedOrdinal = currentStore.roomOrdinal(room.getRoomNumber());
+                    }
+                    customer = stored.customerAt(storedOrdinal, timeline.checkInDay(i));
+                    if (customer == null) {
+                        continue;
+                    }
+                }
+                page.add(room, customer, timeline.checkInDay(i), timeline.checkOutDay(i));
+            }
+        }
+        page.finish();
+        return page.size() > 0;
+    }
+
+    // 23. Keep ended stays in an archive from now on (see archivePastStays).
+    // Bookings checking in before the archive's cutoff are refused from here on.
+    public void attachArchive(StayArchive archive) {
+        if (archive == null) {
+            throw new IllegalArgumentException("Archive cannot be null");
+        }
+        if (this.archive != null) {
+            throw new IllegalStateException("A stay archive is already attached");
+        }
+        this.archive = archive;
+        this.archivedThrough = Math.max(archivedThrough, archive.getArchivedThrough());
+    }
+
+    // 24. Move every stay that has ended by 'cutoff' (at most today) into the
+    // archive, then out of the timelines, the per-customer index, the
+    // repository and the mapped store, so those only hold current and future
+    // stays. The archive segment is durable before anything is dropped.
+    // Bookers are never blocked; returns the number of stays archived.
+    public int archivePastStays(LocalDate cutoff) {
+        if (cutoff == null) {
+            throw new IllegalArgumentException("Cutoff date cannot be null");
+        }
+        if (cutoff.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Only stays that have ended can be archived");
+        }
+        StayArchive current = archive;
+        if (current == null) {
+            throw new IllegalStateException("No stay archive attached");
+        }
+
+        synchronized (archiveLock) {
+            int cutoffDay = RoomTimeline.epochDay(cutoff.toEpochDay());
+            int previousCutoff = archivedThrough;
+            // From here on nothing can be booked behind the cutoff
+            archivedThrough = Math.max(previousCutoff, cutoffDay);
+
+            StoredStays stored = storedStays;
+            MappedReservationStore currentStore = store;
+            int count = roomRegistry.size(); // read before the table: slots below it are filled
+            IRoom[] table = roomRegistry.rooms();
+            RoomTimeline[] snapshots = new RoomTimeline[count];
+            int[] storedOrdinals = new int[count];
+            List<ArchivedStay> ended = new ArrayList<>();
+            List<Integer> endedRows = new ArrayList<>();
+            List<Reservation> endedReservations = new ArrayList<>();
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                String roomNumber = table[ordinal].getRoomNumber();
+                RoomTimeline timeline = roomRegistry.timeline(ordinal).get();
+                snapshots[ordinal] = timeline;
+                storedOrdinals[ordinal] = -1;
+                for (int i = 0, n = timeline.endedBy(cutoffDay); i < n; i++) {
+                    int row = timeline.row(i);
+                    Customer customer;
+                    long id;
+                    if (row != RoomTimeline.STORED) {
+                        customer = stayTable.customerAt(row, ordinal, timeline.checkInDay(i));
+                        if (customer == null) {
+                            continue;
+                        }
+                        id = stayTable.id(row);
+                        endedRows.add(row);
+                        endedReservations.add(materialize(row));
+                    } else {
+                        if (storedOrdinals[ordinal] < 0) {
+                            storedOrdinals[ordinal] = currentStore.roomOrdinal(roomNumber);
+                        }
+                        int record = stored.recordAt(storedOrdinals[ordinal], timeline.checkInDay(i));
+                        customer = record < 0 ? null : stored.customer(record);
+                        if (customer == null) {
+                            continue;
+                        }
+                        id = stored.reservationId(record);
+                    }
+                    ended.add(new ArchivedStay(id, customer.getEmail(), roomNumber,
+                            timeline.checkInDay(i), timeline.checkOutDay(i)));
+                }
+            }
+
+            try {
+                current.append(ended, cutoffDay);
+            } catch (IOException e) {
+                archivedThrough = previousCutoff;
+                throw new IllegalStateException("Cannot write stay archive: " + e.getMessage(), e);
+            }
 
-        // Note: end dates are exclusive (check-out day is not occupied)
-        return start1.isBefore(end2) && end1.isAfter(start2);
+            // Durable in the archive: drop the stays from the live structures
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                RoomTimeline archived = snapshots[ordinal];
+                int n = archived.endedBy(cutoffDay);
+                if (n == 0) {
+                    continue;
+                }
+                AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(ordinal);
+                while (true) {
+                    RoomTimeline live = timeline.get();
+                    if (timeline.compareAndSet(live, live.withoutEnded(archived, cutoffDay))) {
+                        break;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    if (archived.row(i) == RoomTimeline.STORED) {
+                        stored.markArchived(storedOrdinals[ordinal], archived.checkInDay(i));
+                    }
+                }
+            }
+            for (int i = 0; i < endedRows.size(); i++) {
+                stayTable.release(endedRows.get(i), endedReservations.get(i).getId()); // unless cancelled since
+            }
+            reservations.removeAll(endedReservations);
+            if (currentStore != null && !endedReservations.isEmpty()) {
+                markArchivedInStore(currentStore, endedReservations, cutoffDay);
+            }
+            if (loggingEnabled) {
+                System.out.println("Stays archived: " + ended.size());
+            }
+            return ended.size();
+        }
+    }
+
+    // 25. Find a booking by its reservation id: two array reads for a stay
+    // booked since start-up, a status check for one served from the mapped
+    // store. Null if there is none, or it was cancelled or archived.
+    public Reservation getReservation(long reservationId) {
+        int row = stayTable.rowOf(reservationId);
+        if (row != ReservationTable.NO_ROW) {
+            Reservation reservation = materialize(row);
+            return reservation.getCustomer() == null ? null : reservation; // released meanwhile
+        }
+        StoredStays stored = storedStays;
+        int record = stored == null ? -1 : stored.recordOf(reservationId);
+        return record < 0 ? null : stored.get(record);
+    }
+
+    // 25b. Find the booking of a room checking in on a date (null if there is none)
+    public Reservation getReservation(String roomNumber, LocalDate checkInDate) {
+        if (roomNumber == null || checkInDate == null) {
+            throw new IllegalArgumentException("Room number and check-in date are required");
+        }
+        int room = roomRegistry.ordinalOf(roomNumber);
+        if (room == RoomRegistry.NONE) {
+            return null;
+        }
+        int day = RoomTimeline.epochDay(checkInDate.toEpochDay());
+        RoomTimeline timeline = roomRegistry.timeline(room).get();
+        int i = timeline.firstStartingFrom(day);
+        if (i == timeline.size() || timeline.checkInDay(i) != day) {
+            return null;
+        }
+        int row = timeline.row(i);
+        if (row != RoomTimeline.STORED) {
+            return stayTable.customerAt(row, room, day) == null ? null : materialize(row);
+        }
+        StoredStays stored = storedStays;
+        int record = stored.recordAt(store.roomOrdinal(roomNumber), day);
+        return record < 0 ? null : stored.get(record);
+    }
+
+    // 26. Cancel a booking by reservation id. Under the room's lock its nights
+    // are cleared in the calendar and then it leaves the room's timeline (so
+    // a booker that wins those nights can never have its own cleared), the
+    // customer index and the mapped store; then the repository, journal and
+    // subscribers hear of it. Returns the cancelled reservation.
+    public Reservation cancelReservation(long reservationId) {
+        Reservation found = getReservation(reservationId);
+        if (found == null) {
+            throw new IllegalArgumentException("Reservation not found: " + reservationId);
+        }
+        advanceCalendar();
+
+        int room = roomRegistry.ordinalOf(found.getRoom().getRoomNumber());
+        Reservation cancelled;
+        ReentrantLock lock = lockFor(room);
+        lock.lock();
+        try {
+            // Looked up again: another cancel or change may have got here first
+            StoredStays stored = storedStays;
+            int row = stayTable.rowOf(reservationId);
+            int record = row == ReservationTable.NO_ROW && stored != null ? stored.recordOf(reservationId) : -1;
+            cancelled = row != ReservationTable.NO_ROW ? materialize(row) : record >= 0 ? stored.get(record) : null;
+            if (cancelled == null || cancelled.getCustomer() == null) {
+                throw new IllegalArgumentException("Reservation not found: " + reservationId);
+            }
+
+            if (row != ReservationTable.NO_ROW) {
+                removeStay(room, row, stayTable.checkInDay(row), stayTable.checkOutDay(row));
+                markCancelledInStore(stayTable.storeRecord(row));
+                stayTable.release(row, reservationId);
+            } else {
+                removeStay(room, RoomTimeline.STORED, stored.checkInDay(record), stored.checkOutDay(record));
+                stored.markCancelled(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Stored outside the lock: a backend may wait for the disk here
+        reservations.removeAll(Collections.singletonList(cancelled));
+        awaitDurable(logChange(JournalRecord.removals(Collections.singletonList(cancelled))));
+        events.reservationCancelled(cancelled);
+        if (loggingEnabled) {
+            System.out.println("Reservation cancelled: " + reservationId);
+        }
+        return cancelled;
+    }
+
+    // 27. Move a booking to new dates in the same room, keeping its id. Under
+    // the room's lock the old stay is swapped for the new one in the room's
+    // timeline with a single CAS, so the room is never double-booked or empty
+    // in between; if another stay holds any of the new nights nothing changes.
+    // A stay in progress across the archive cutoff can still be extended or
+    // shortened, but cannot take nights behind the cutoff it did not hold.
+    // Returns the reservation as it is now.
+    public Reservation changeReservationDates(long reservationId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (checkOutDate.isBefore(checkInDate) || checkOutDate.isEqual(checkInDate)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        if (checkOutDate.toEpochDay() <= archivedThrough) {
+            throw new IllegalArgumentException(archivedMessage());
+        }
+        Reservation found = getReservation(reservationId);
+        if (found == null) {
+            throw new IllegalArgumentException("Reservation not found: " + reservationId);
+        }
+        advanceCalendar();
+
+        int room = roomRegistry.ordinalOf(found.getRoom().getRoomNumber());
+        int newIn = RoomTimeline.epochDay(checkInDate.toEpochDay());
+        int newOut = RoomTimeline.epochDay(checkOutDate.toEpochDay());
+        Reservation previous;
+        Reservation updated;
+        ReentrantLock lock = lockFor(room);
+        lock.lock();
+        try {
+            // Looked up again: another cancel or change may have got here first
+            StoredStays stored = storedStays;
+            int row = stayTable.rowOf(reservationId);
+            int record = row == ReservationTable.NO_ROW && stored != null ? stored.recordOf(reservationId) : -1;
+            previous = row != ReservationTable.NO_ROW ? materialize(row) : record >= 0 ? stored.get(record) : null;
+            if (previous == null || previous.getCustomer() == null) {
+                throw new IllegalArgumentException("Reservation not found: " + reservationId);
+            }
+            int oldIn = RoomTimeline.epochDay(previous.getCheckInDate().toEpochDay());
+            int oldOut = RoomTimeline.epochDay(previous.getCheckOutDate().toEpochDay());
+            if (oldOut <= archivedThrough) {
+                throw new IllegalArgumentException("Reservation " + reservationId + " is archived");
+            }
+            if (oldIn == newIn && oldOut == newOut) {
+                return previous;
+            }
+            // Behind the cutoff the timeline no longer holds the archived stays
+            if (newIn < archivedThrough && newIn < oldIn) {
+                throw new IllegalArgumentException(archivedMessage());
+            }
+
+            updated = new Reservation(reservationId, previous.getCustomer(), previous.getRoom(),
+                    checkInDate, checkOutDate);
+            int newRow = stayTable.addAs(reservationId, room,
+                    stayTable.customerOrdinal(previous.getCustomer()), newIn, newOut);
+            // Nights only the old stay holds are cleared before the swap (nobody
+            // can take them while it is in the timeline), and re-booked if it
+            // fails; the window is held throughout, as in removeStay
+            long window = calendar.holdWindow();
+            try {
+                calendar.clear(room, oldIn, Math.min(oldOut, newIn));
+                calendar.clear(room, Math.max(oldIn, newOut), oldOut);
+                try {
+                    swapStay(room, row != ReservationTable.NO_ROW ? row : RoomTimeline.STORED, oldIn,
+                            newRow, updated);
+                } catch (RuntimeException e) {
+                    calendar.refill(room, oldIn, oldOut);
+                    stayTable.free(newRow);
+                    throw e;
+                }
+                calendar.refill(room, newIn, newOut);
+            } finally {
+                calendar.releaseWindow(window);
+            }
+
+            stayTable.bindId(newRow);
+            MappedReservationStore current = store;
+            if (current != null) {
+                stayTable.setStoreRecord(newRow, current.append(reservationId, updated.getRoom().getRoomNumber(),
+                        updated.getCustomer().getEmail(), newIn, newOut));
+            }
+            // The old stay's record is cancelled once a checkpoint covers the new one
+            if (row != ReservationTable.NO_ROW) {
+                stayTable.moveInCustomer(row, newRow);
+                if (current != null && stayTable.storeRecord(row) != ReservationTable.NO_RECORD) {
+                    current.cancelAtCheckpoint(stayTable.storeRecord(row));
+                }
+                stayTable.release(row, reservationId);
+            } else {
+                stayTable.addToCustomer(newRow);
+                stored.markMoved(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Stored outside the lock: a backend may wait for the disk here
+        reservations.replace(previous, updated);
+        awaitDurable(logChange(JournalRecord.change(previous, updated)));
+        events.reservationChanged(previous, updated);
+        if (loggingEnabled) {
+            System.out.println("Reservation " + reservationId + " moved to " + checkInDate + " - " + checkOutDate);
+        }
+        return updated;
+    }
+
+    // Helper method: Append a change to the journal; returns the position to
+    // wait for, or -1 when not journaling
+    private long logChange(JournalRecord record) {
+        Journal current = journal;
+        return current == null ? -1 : current.append(record);
+    }
+
+    // Helper method: Wait until a journaled change is durable (per the journal's
+    // sync policy). Called outside the booking locks, so one fsync can cover
+    // many bookers.
+    private void awaitDurable(long position) {
+        Journal current = journal;
+        if (position >= 0 && current != null) {
+            current.awaitDurable(position);
+        }
+    }
+
+    // Helper method: Index a room that is about to become visible (ordinal
+    // and timeline, calendar row and attribute bitmaps). Room adds are rare,
+    // so one lock is fine.
+    private synchronized void indexRoom(IRoom room) {
+        int ordinal = roomRegistry.add(room);
+        calendar.addRoom(ordinal);
+        attributeIndex.add(ordinal, room);
+    }
+
+    // Helper method: Index the rooms and reservations the storage backend
+    // already holds (a file-backed one being reopened). Each room's stays are
+    // merged into its timeline in one pass, as in importReservations.
+    private void indexStoredData() {
+        for (IRoom room : rooms.findAll()) {
+            indexRoom(room);
+        }
+        Map<Integer, List<Reservation>> byRoom = new HashMap<>(); // room ordinal -> stays
+        reservations.forEach(reservation -> byRoom.computeIfAbsent(
+                roomRegistry.ordinalOf(reservation.getRoom().getRoomNumber()), k -> new ArrayList<>())
+                .add(reservation));
+
+        int overlapping = 0;
+        for (Map.Entry<Integer, List<Reservation>> entry : byRoom.entrySet()) {
+            List<Reservation> batch = entry.getValue();
+            batch.sort(Comparator.comparing(Reservation::getCheckInDate));
+            RowBatch rows = new RowBatch(entry.getKey(), batch, true);
+            BitSet clashes = new BitSet();
+            roomRegistry.timeline(entry.getKey()).set(rows.mergeInto(RoomTimeline.EMPTY, clashes));
+            for (int i = 0; i < batch.size(); i++) {
+                if (clashes.get(i)) {
+                    stayTable.free(rows.rows[i]);
+                } else {
+                    indexReservation(withId(batch.get(i), rows.rows[i]), rows.rows[i]);
+                }
+            }
+            overlapping += clashes.cardinality();
+        }
+        if (overlapping > 0) {
+            System.out.println("Storage: " + overlapping + " overlapping stays not indexed");
+        }
+    }
+
+    // Helper method: Collect rooms free for the whole stay, splitting large
+    // inventories into chunks searched across the ForkJoinPool.
+    // With candidates, only those ordinals are looked at.
+    private List<IRoom> collectAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate,
+                                              boolean useCalendar, BitSet candidates) {
+        int count = roomRegistry.size(); // read before the table: slots below it are filled
+        IRoom[] table = roomRegistry.rooms();
+        if (candidates != null) {
+            return scanCandidates(table, count, candidates, checkInDate, checkOutDate, useCalendar);
+        }
+        if (count < parallelSearchThreshold) {
+            return scanRooms(table, 0, count, checkInDate, checkOutDate, useCalendar);
+        }
+
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunk = Math.max(MIN_SEARCH_CHUNK, count / (parallelism * 4));
+        return ForkJoinPool.commonPool().invoke(
+                new RoomSearchTask(table, 0, count, chunk, checkInDate, checkOutDate, useCalendar));
+    }
+
+    // Helper method: Sequential availability scan over table[from, to)
+    private List<IRoom> scanRooms(IRoom[] table, int from, int to,
+                                  LocalDate checkInDate, LocalDate checkOutDate, boolean useCalendar) {
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        List<IRoom> availableRooms = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            boolean free = useCalendar
+                    ? calendar.isFree(i, fromDay, toDay)
+                    : isBookable(i, checkInDate, checkOutDate);
+            if (free) {
+                availableRooms.add(table[i]);
+            }
+        }
+        return availableRooms;
+    }
+
+    // Helper method: Add the window starting on 'start' if any room is free for it
+    private void addWindowIfFree(List<AvailabilityWindow> windows, BitSet[] freeByStart,
+                                 int firstStart, int start, int nights, IRoom[] table) {
+        int offset = start - firstStart;
+        if (offset < 0 || offset >= freeByStart.length || freeByStart[offset] == null) {
+            return;
+        }
+
+        BitSet free = freeByStart[offset];
+        List<IRoom> freeRooms = new ArrayList<>(free.cardinality());
+        for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i + 1)) {
+            freeRooms.add(table[i]);
+        }
+        windows.add(new AvailabilityWindow(LocalDate.ofEpochDay(start),
+                LocalDate.ofEpochDay(start + (long) nights), freeRooms));
+    }
+
+    // Helper method: Check room availability on the interval index
+    private boolean isBookable(int room, LocalDate checkInDate, LocalDate checkOutDate) {
+        return roomRegistry.timeline(room).get().isFree(
+                RoomTimeline.epochDay(checkInDate.toEpochDay()),
+                RoomTimeline.epochDay(checkOutDate.toEpochDay()));
+    }
+
+    // Helper method: Validate against the room's snapshot and swap in the new one.
+    // Under the room's lock the CAS only fails if an optimistic writer slipped in
+    // while the mode was being switched, so the loop doubles as a safety net.
+    private void commit(Reservation reservation, int row) {
+        while (!tryCommit(reservation, row)) {
+            // Lost a race with an optimistic writer; re-validate and try again
+        }
+    }
+
+    // Helper method: Lock-free commit; re-validates only this room when a
+    // concurrent writer wins the CAS, and gives up after a bounded number of tries
+    private void commitOptimistic(Reservation reservation, int row) {
+        for (int attempt = 1; attempt <= MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            if (tryCommit(reservation, row)) {
+                return;
+            }
+            optimisticRetries.increment();
+        }
+        optimisticAborts.increment();
+        throw new IllegalStateException("Room " + reservation.getRoom().getRoomNumber() +
+                " is busy, please try again");
+    }
+
+    // Helper method: One validate-and-CAS attempt. Returns false if another
+    // writer changed the room first; throws if the dates are taken.
+    private boolean tryCommit(Reservation reservation, int row) {
+        int checkIn = stayTable.checkInDay(row);
+        int checkOut = stayTable.checkOutDay(row);
+        AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(stayTable.room(row));
+
+        RoomTimeline current = timeline.get();
+        if (!current.isFree(checkIn, checkOut)) {
+            throw new IllegalArgumentException(unavailableMessage(reservation));
+        }
+        if (!timeline.compareAndSet(current, current.with(row, checkIn, checkOut))) {
+            return false;
+        }
+
+        indexReservation(reservation, row);
+        return true;
+    }
+
+    // Helper method: One validate-and-CAS pass over every room of a group.
+    // Sets failures[] and returns true if a stay is taken; returns false (and
+    // undoes any rooms already swapped) if an optimistic writer got in first.
+    private boolean tryCommitGroup(Map<Integer, List<Integer>> itemsByRoom,
+                                   Reservation[] booked, int[] rows, String[] failures) {
+        List<AtomicReference<RoomTimeline>> timelines = new ArrayList<>(itemsByRoom.size());
+        List<RoomTimeline> expected = new ArrayList<>(itemsByRoom.size());
+        List<RoomTimeline> updated = new ArrayList<>(itemsByRoom.size());
+        boolean taken = false;
+
+        for (Map.Entry<Integer, List<Integer>> entry : itemsByRoom.entrySet()) {
+            AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(entry.getKey());
+            RoomTimeline current = timeline.get();
+            RoomTimeline next = current;
+            for (int i : entry.getValue()) {
+                int checkIn = stayTable.checkInDay(rows[i]);
+                int checkOut = stayTable.checkOutDay(rows[i]);
+                if (next.isFree(checkIn, checkOut)) {
+                    next = next.with(rows[i], checkIn, checkOut);
+                } else {
+                    failures[i] = unavailableMessage(booked[i]);
+                    taken = true;
+                }
+            }
+            timelines.add(timeline);
+            expected.add(current);
+            updated.add(next);
+        }
+        if (taken) {
+            return true;
+        }
+
+        for (int r = 0; r < timelines.size(); r++) {
+            if (!timelines.get(r).compareAndSet(expected.get(r), updated.get(r))) {
+                for (int undo = 0; undo < r; undo++) {
+                    removeFromTimeline(timelines.get(undo), rows);
+                }
+                return false;
+            }
+        }
+
+        for (int i = 0; i < booked.length; i++) {
+            indexReservation(booked[i], rows[i]);
+        }
+        return true;
+    }
+
+    // Helper method: Take the stays in the given rows back out of a room's timeline
+    private void removeFromTimeline(AtomicReference<RoomTimeline> timeline, int[] rows) {
+        while (true) {
+            RoomTimeline current = timeline.get();
+            RoomTimeline next = current;
+            for (int row : rows) {
+                next = next.without(row, stayTable.checkInDay(row));
+            }
+            if (timeline.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    // Helper method: Clear a stay's nights in the calendar, then take it out
+    // of its room's timeline (caller holds the room's lock). The nights are
+    // cleared first so an optimistic booker that takes them right after the
+    // CAS keeps its bits; the window is held across both so a slide cannot
+    // re-book them from the timeline in between.
+    private void removeStay(int room, int row, int checkIn, int checkOut) {
+        AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(room);
+        long window = calendar.holdWindow();
+        try {
+            calendar.clear(room, checkIn, checkOut);
+            while (true) {
+                RoomTimeline current = timeline.get();
+                if (timeline.compareAndSet(current, current.without(row, checkIn))) {
+                    return;
+                }
+            }
+        } finally {
+            calendar.releaseWindow(window);
+        }
+    }
+
+    // Helper method: Swap a stay for its new row in the room's timeline with one
+    // CAS (caller holds the room's lock); throws if another stay holds any of
+    // the new nights
+    private void swapStay(int room, int oldRow, int oldIn, int newRow, Reservation updated) {
+        int checkIn = stayTable.checkInDay(newRow);
+        int checkOut = stayTable.checkOutDay(newRow);
+        AtomicReference<RoomTimeline> timeline = roomRegistry.timeline(room);
+        while (true) {
+            RoomTimeline current = timeline.get();
+            RoomTimeline next = current.without(oldRow, oldIn);
+            if (!next.isFree(checkIn, checkOut)) {
+                throw new IllegalArgumentException(unavailableMessage(updated));
+            }
+            if (timeline.compareAndSet(current, next.with(newRow, checkIn, checkOut))) {
+                return;
+            }
+            optimisticRetries.increment(); // raced with an optimistic single booking
+        }
+    }
+
+    // Helper method: Mark a live stay's mapped-store record cancelled, if it has one
+    private void markCancelledInStore(int record) {
+        MappedReservationStore current = store;
+        if (current != null && record != ReservationTable.NO_RECORD) {
+            current.setStatus(record, MappedReservationStore.CANCELLED);
+        }
+    }
+
+    // Helper method: Put a stay in a new row of the table under reservation
+    // id, or a new one if 0 (in no index yet, and not found by id until committed)
+    private int addRow(long id, int room, Customer customer, LocalDate checkInDate, LocalDate checkOutDate) {
+        int customerOrdinal = stayTable.customerOrdinal(customer);
+        int checkIn = RoomTimeline.epochDay(checkInDate.toEpochDay());
+        int checkOut = RoomTimeline.epochDay(checkOutDate.toEpochDay());
+        return id == 0 ? stayTable.add(room, customerOrdinal, checkIn, checkOut)
+                : stayTable.addAs(id, room, customerOrdinal, checkIn, checkOut);
+    }
+
+    // Helper method: A stay given without an id, with the id of its row
+    private Reservation withId(Reservation stay, int row) {
+        return new Reservation(stayTable.id(row), stay.getCustomer(), stay.getRoom(),
+                stay.getCheckInDate(), stay.getCheckOutDate());
+    }
+
+    // Helper method: The Reservation for the stay in a row
+    private Reservation materialize(int row) {
+        return materialize(stayTable.customer(row), stayTable.id(row), stayTable.room(row),
+                stayTable.checkInDay(row), stayTable.checkOutDay(row));
+    }
+
+    // Helper method: The Reservation for a stay read from the table's columns
+    private Reservation materialize(Customer customer, long id, int room, int checkInDay, int checkOutDay) {
+        return new Reservation(id, customer, roomRegistry.room(room), date(checkInDay), date(checkOutDay));
+    }
+
+    // Helper method: The LocalDate of an epoch day (a shared one near start-up)
+    private LocalDate date(int epochDay) {
+        long i = epochDay - firstDateDay;
+        return i >= 0 && i < dates.length ? dates[(int) i] : LocalDate.ofEpochDay(epochDay);
+    }
+
+    // Helper method: A customer's in-memory stays checking in within [fromDay, toDay)
+    private List<Reservation> liveStays(Customer customer, long fromDay, long toDay) {
+        List<Reservation> result = new ArrayList<>();
+        stayTable.forCustomer(customer, fromDay, toDay, (owner, id, room, checkIn, checkOut) ->
+                result.add(materialize(owner, id, room, checkIn, checkOut)));
+        return result;
+    }
+
+    // Helper method: Update the derived indexes for a stay committed to its
+    // room's timeline (which is what decides availability), and only then let
+    // its id find it. The caller stores the stay in the repository, outside
+    // the booking locks.
+    private void indexReservation(Reservation reservation, int row) {
+        stayTable.bindId(row);
+        calendar.book(stayTable.room(row),
+                reservation.getCheckInDate().toEpochDay(), reservation.getCheckOutDate().toEpochDay());
+        stayTable.addToCustomer(row);
+        MappedReservationStore current = store;
+        if (current != null) {
+            stayTable.setStoreRecord(row, current.append(reservation.getId(), reservation.getRoom().getRoomNumber(),
+                    reservation.getCustomer().getEmail(),
+                    reservation.getCheckInDate().toEpochDay(), reservation.getCheckOutDate().toEpochDay()));
+        }
+    }
+
+    // Helper method: A customer's in-memory stays plus their stored and archived
+    // stays checking in within [fromDay, toDay), in check-in order. The archive
+    // is only read when the range starts before its cutoff.
+    private List<Reservation> withColdStays(Customer customer, long fromDay, long toDay,
+                                            List<Reservation> inMemory) {
+        StoredStays stored = storedStays;
+        StayArchive archived = archive;
+        boolean readArchive = archived != null && fromDay < archivedThrough;
+        if (stored == null && !readArchive) {
+            return inMemory;
+        }
+        List<Reservation> stays = stored == null
+                ? new ArrayList<>() : stored.forCustomer(customer, fromDay, toDay);
+        boolean fromArchive = false;
+        if (readArchive) {
+            for (ArchivedStay stay : archived.forCustomer(customer.getEmail(), fromDay, toDay)) {
+                Reservation reservation = materialize(stay, customer);
+                if (reservation != null) {
+                    stays.add(reservation);
+                    fromArchive = true;
+                }
+            }
+        }
+        if (stays.isEmpty()) {
+            return inMemory;
+        }
+        stays.addAll(inMemory);
+        stays.sort(Comparator.comparing(Reservation::getCheckInDate)
+                .thenComparing(reservation -> reservation.getRoom().getRoomNumber()));
+        if (fromArchive) {
+            // A crash between archiving and the next snapshot can leave a stay
+            // both archived and live again; show it once
+            List<Reservation> unique = new ArrayList<>(stays.size());
+            for (Reservation reservation : stays) {
+                Reservation previous = unique.isEmpty() ? null : unique.get(unique.size() - 1);
+                if (previous == null || !previous.getCheckInDate().equals(reservation.getCheckInDate())
+                        || !previous.getRoom().getRoomNumber().equals(reservation.getRoom().getRoomNumber())) {
+                    unique.add(reservation);
+                }
+            }
+            return unique;
+        }
+        return stays;
+    }
+
+    // Helper method: Mark the store records of archived stays that were booked
+    // after the store was attached (so live as objects), in one scan of the store
+    private void markArchivedInStore(MappedReservationStore currentStore, List<Reservation> ended, int cutoffDay) {
+        Set<Long> keys = new HashSet<>(ended.size() * 2);
+        for (Reservation reservation : ended) {
+            int room = currentStore.roomOrdinal(reservation.getRoom().getRoomNumber());
+            if (room >= 0) {
+                keys.add(((long) room << 32) | (reservation.getCheckInDate().toEpochDay() & 0xFFFFFFFFL));
+            }
+        }
+        currentStore.scan((record, room, customer, checkIn, checkOut, status, id) -> {
+            if (status == MappedReservationStore.ACTIVE && checkOut <= cutoffDay
+                    && keys.contains(((long) room << 32) | (checkIn & 0xFFFFFFFFL))) {
+                currentStore.setStatus(record, MappedReservationStore.ARCHIVED);
+            }
+        });
+    }
+
+    // Helper method: The Reservation for an archived stay (null if its room is gone)
+    private Reservation materialize(ArchivedStay stay, Customer customer) {
+        IRoom room = rooms.findByNumber(stay.getRoomNumber());
+        if (room == null || customer == null) {
+            return null;
+        }
+        return new Reservation(stay.getReservationId(), customer, room, LocalDate.ofEpochDay(stay.getCheckInDay()),
+                LocalDate.ofEpochDay(stay.getCheckOutDay()));
+    }
+
+    // Helper method: Visit every archived stay whose customer and room are known
+    private void forEachArchived(Consumer<Reservation> action) {
+        StayArchive archived = archive;
+        if (archived == null) {
+            return;
+        }
+        CustomerService customers = CustomerService.getInstance();
+        archived.forEach(stay -> {
+            Reservation reservation = materialize(stay, customers.getCustomer(stay.getEmail()));
+            if (reservation != null) {
+                action.accept(reservation);
+            }
+        });
+    }
+
+    // Helper method: Reason a group item is invalid, or null if it is fine
+    private String validateBookingRequest(BookingRequest request) {
+        if (request == null || request.getRoom() == null) {
+            return "Room cannot be null";
+        }
+        if (request.getCheckInDate() == null || request.getCheckOutDate() == null) {
+            return "Dates cannot be null";
+        }
+        if (!request.getCheckOutDate().isAfter(request.getCheckInDate())) {
+            return "Check-out date must be after check-in date";
+        }
+        if (roomRegistry.ordinalOf(request.getRoom().getRoomNumber()) == RoomRegistry.NONE) {
+            return "Room does not exist: " + request.getRoom().getRoomNumber();
+        }
+        if (request.getCheckInDate().toEpochDay() < archivedThrough) {
+            return archivedMessage();
+        }
+        return null;
+    }
+
+    // Helper method: Flag group items that overlap another item for the same room
+    private boolean markGroupClashes(List<BookingRequest> requests,
+                                     Map<Integer, List<Integer>> itemsByRoom, String[] failures) {
+        boolean clash = false;
+        for (List<Integer> items : itemsByRoom.values()) {
+            items.sort(Comparator.comparing(i -> requests.get(i).getCheckInDate()));
+            for (int k = 1; k < items.size(); k++) {
+                BookingRequest previous = requests.get(items.get(k - 1));
+                BookingRequest current = requests.get(items.get(k));
+                if (current.getCheckInDate().isBefore(previous.getCheckOutDate())) {
+                    failures[items.get(k)] = "Overlaps another stay in room " +
+                            current.getRoom().getRoomNumber() + " in this group";
+                    clash = true;
+                }
+            }
+        }
+        return clash;
+    }
+
+    // Helper method: Per-item results for a group that was not booked
+    private List<BookingResult> rejectGroup(List<BookingRequest> requests, String[] failures) {
+        List<BookingResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String reason = failures[i] != null ? failures[i]
+                    : "Group not booked: another item could not be reserved";
+            results.add(BookingResult.failed(requests.get(i), reason));
+        }
+        return results;
+    }
+
+    // Helper method: Error text for a stay in the archived past
+    private String archivedMessage() {
+        return "Stays before " + LocalDate.ofEpochDay(archivedThrough) + " are archived and cannot be booked";
+    }
+
+    // Helper method: Error text for a stay whose dates are taken
+    private String unavailableMessage(Reservation reservation) {
+        return "Room " + reservation.getRoom().getRoomNumber() +
+                " is not available from " + reservation.getCheckInDate() +
+                " to " + reservation.getCheckOutDate();
+    }
+
+    // Helper method: Keep the calendar window anchored at the current 64-day block.
+    // Sliding (about once every two months) briefly holds calendar writers back;
+    // nights that newly enter the window are re-booked from the interval index.
+    private void advanceCalendar() {
+        long today = LocalDate.now().toEpochDay();
+        if (calendar.needsSlide(today)) {
+            calendar.slideTo(today, this::rebookCalendarFrom);
+        }
+    }
+
+    // Helper method: Re-book every stay that reaches into [exposedFrom, endDay)
+    private void rebookCalendarFrom(long exposedFrom) {
+        long endDay = calendar.endDay();
+        for (int ordinal = 0, count = roomRegistry.size(); ordinal < count; ordinal++) {
+            final int room = ordinal;
+            roomRegistry.timeline(ordinal).get().forEachStay(exposedFrom, endDay, (checkIn, checkOut) ->
+                    calendar.refill(room, Math.max(checkIn, exposedFrom), checkOut));
+        }
+    }
+
+    // Helper method: Booking lock for a room ordinal
+    private ReentrantLock lockFor(int room) {
+        return bookingLocks[stripeFor(room)];
+    }
+
+    // Helper method: Lock stripe index for a room ordinal (ordinals are dense,
+    // so consecutive rooms land on different stripes)
+    private int stripeFor(int room) {
+        return room & (LOCK_STRIPES - 1);
+    }
+
+
+    // Helper method: Availability check over the candidate ordinals only
+    private List<IRoom> scanCandidates(IRoom[] table, int count, BitSet candidates,
+                                       LocalDate checkInDate, LocalDate checkOutDate, boolean useCalendar) {
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        List<IRoom> availableRooms = new ArrayList<>();
+
+        for (int i = candidates.nextSetBit(0); i >= 0 && i < count; i = candidates.nextSetBit(i + 1)) {
+            boolean free = useCalendar
+                    ? calendar.isFree(i, fromDay, toDay)
+                    : isBookable(i, checkInDate, checkOutDate);
+            if (free) {
+                availableRooms.add(table[i]);
+            }
+        }
+        return availableRooms;
+    }
+
+    // A room's batch of stays (sorted by check-in) put in table rows, ready to
+    // be merged into its timeline
+    private final class RowBatch {
+        final int[] rows;
+        final int[] checkIns;
+        final int[] checkOuts;
+
+        // keepIds: stays that have an id keep it (stays read back from storage)
+        RowBatch(int room, List<Reservation> batch, boolean keepIds) {
+            rows = new int[batch.size()];
+            checkIns = new int[batch.size()];
+            checkOuts = new int[batch.size()];
+            for (int i = 0; i < rows.length; i++) {
+                Reservation stay = batch.get(i);
+                rows[i] = addRow(keepIds ? stay.getId() : 0, room, stay.getCustomer(),
+                        stay.getCheckInDate(), stay.getCheckOutDate());
+                checkIns[i] = stayTable.checkInDay(rows[i]);
+                checkOuts[i] = stayTable.checkOutDay(rows[i]);
+            }
+        }
+
+        RoomTimeline mergeInto(RoomTimeline timeline, BitSet clashes) {
+            return timeline.withAll(rows, checkIns, checkOuts, clashes);
+        }
+    }
+
+    // Fork/join search over a range of room ordinals; results keep ordinal order
+    private final class RoomSearchTask extends RecursiveTask<List<IRoom>> {
+        private static final long serialVersionUID = 1L;
+
+        private final IRoom[] table;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final LocalDate checkInDate;
+        private final LocalDate checkOutDate;
+        private final boolean useCalendar;
+
+        RoomSearchTask(IRoom[] table, int from, int to, int chunk,
+                       LocalDate checkInDate, LocalDate checkOutDate, boolean useCalendar) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.checkInDate = checkInDate;
+            this.checkOutDate = checkOutDate;
+            this.useCalendar = useCalendar;
+        }
+
+        @Override
+        protected List<IRoom> compute() {
+            if (to - from <= chunk) {
+                return scanRooms(table, from, to, checkInDate, checkOutDate, useCalendar);
+            }
+
+            int mid = (from + to) >>> 1;
+            RoomSearchTask left = new RoomSearchTask(table, from, mid, chunk,
+                    checkInDate, checkOutDate, useCalendar);
+            RoomSearchTask right = new RoomSearchTask(table, mid, to, chunk,
+                    checkInDate, checkOutDate, useCalendar);
+            left.fork();
+            List<IRoom> rightRooms = right.compute();
+            List<IRoom> leftRooms = left.join();
+            leftRooms.addAll(rightRooms);
+            return leftRooms;
+        }
     }
 }
\ No newline at end of file
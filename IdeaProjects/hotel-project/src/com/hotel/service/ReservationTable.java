@@ -0,0 +1,555 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Committed in-memory stays as columns: reservation id, room ordinal,
+// customer ordinal, check-in/check-out epoch days and mapped-store record, one
+// row per stay. The room timelines hold row numbers, so overlap checks run on
+// ints. The per-customer index below holds each stay's key (check-in and room
+// ordinal) and row side by side, so reading a customer's stays is a binary
+// search and then two column reads per stay (id and check-out); the service
+// builds Reservations from them only on the way out.
+//
+// Reservation ids are handed out in order, never reused, and map back to
+// their row through a chunked int table indexed by id (chunks are only
+// allocated for ids that were bound to a row), so finding a booking by id is
+// two array reads. A stay whose dates change moves to a new row under the same
+// id, and one restored from disk keeps the id it was booked with; ids handed
+// out later are above every id seen.
+//
+// Rows live in fixed-size chunks, an array per column, so adding one never
+// moves the others and readers take no lock. Rows freed (a booking that lost
+// its dates, an archived stay) are reused. A reader may hold a row number from
+// an older snapshot, so reads by row check that the row still holds the stay
+// expected there (same room and check-in) before trusting the rest of it.
+final class ReservationTable {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int FREE = -1; // customer column of an unused row
+    static final int NO_ROW = -1;       // no live row holds an id
+    static final int NO_RECORD = -1;    // store record of a row not in a mapped store
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private int allocated;              // rows handed out so far, free or not (guarded by this)
+    private int[] freeRows = new int[16]; // stack of freed rows (guarded by this)
+    private int freeCount;
+    private long nextId = 1;              // next reservation id (guarded by this)
+    private volatile int[][] rowsById = new int[0][]; // (id - 1) -> row, in chunks of CHUNK_SIZE
+
+    // Customers that have booked, by ordinal, with their stays
+    private final Map<Customer, CustomerStays> byCustomer = new ConcurrentHashMap<>();
+    private volatile CustomerStays[] byCustomerOrdinal = new CustomerStays[64];
+    private int customerCount; // guarded by byCustomer's registration lock
+    private final AtomicInteger indexedStays = new AtomicInteger(); // stays in the per-customer index
+
+    // 1. Ordinal of a customer, registering them on their first stay
+    int customerOrdinal(Customer customer) {
+        return byCustomer.computeIfAbsent(customer, this::register).ordinal;
+    }
+
+    // 2. Take a row for a new stay under the next reservation id (in no
+    // index yet, and not found by id until bindId(row)); returns its number
+    int add(int room, int customerOrdinal, int checkInDay, int checkOutDay) {
+        int row;
+        long id;
+        synchronized (this) {
+            row = takeRow();
+            id = nextId++;
+        }
+        fill(row, id, room, customerOrdinal, checkInDay, checkOutDay);
+        return row;
+    }
+
+    // 2b. Take a row for a stay under an id it already has (an existing
+    // reservation's new dates, or a stay restored from disk); the id keeps
+    // finding its old row, if any, until bindId(row)
+    int addAs(long id, int room, int customerOrdinal, int checkInDay, int checkOutDay) {
+        int row;
+        synchronized (this) {
+            row = takeRow();
+            nextId = Math.max(nextId, id + 1);
+        }
+        fill(row, id, room, customerOrdinal, checkInDay, checkOutDay);
+        return row;
+    }
+
+    // Point a row's reservation id at it
+    synchronized void bindId(int row) {
+        bind(id(row), row);
+    }
+
+    // Hand out only ids above lastId from now on (stays kept outside the table)
+    synchronized void skipIds(long lastId) {
+        nextId = Math.max(nextId, lastId + 1);
+    }
+
+    // Live row holding a reservation id, or NO_ROW
+    int rowOf(long id) {
+        if (id <= 0) {
+            return NO_ROW;
+        }
+        long index = id - 1;
+        int[][] table = rowsById;
+        long chunkIndex = index >>> CHUNK_BITS;
+        if (chunkIndex >= table.length || table[(int) chunkIndex] == null) {
+            return NO_ROW;
+        }
+        int row = table[(int) chunkIndex][(int) (index & (CHUNK_SIZE - 1))];
+        if (row == NO_ROW) {
+            return NO_ROW;
+        }
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int slot = row & (CHUNK_SIZE - 1);
+        return chunk.ids[slot] == id && chunk.customers[slot] != FREE ? row : NO_ROW;
+    }
+
+    // 3. Give a row back once nothing indexes it any more (a row freed
+    // already is left alone, so it is never on the free list twice)
+    synchronized void free(int row) {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        if (chunk.customers[row & (CHUNK_SIZE - 1)] == FREE) {
+            return;
+        }
+        chunk.customers[row & (CHUNK_SIZE - 1)] = FREE;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    // Take a stay out of its customer's stays and free its row, if the row
+    // still holds reservation id; false if it was released already
+    synchronized boolean release(int row, long id) {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int slot = row & (CHUNK_SIZE - 1);
+        if (chunk.ids[slot] != id || chunk.customers[slot] == FREE) {
+            return false;
+        }
+        removeFromCustomer(row);
+        free(row);
+        return true;
+    }
+
+    // Getters by row
+    long id(int row) {
+        return chunks[row >>> CHUNK_BITS].ids[row & (CHUNK_SIZE - 1)];
+    }
+
+    int room(int row) {
+        return chunks[row >>> CHUNK_BITS].rooms[row & (CHUNK_SIZE - 1)];
+    }
+
+    int checkInDay(int row) {
+        return chunks[row >>> CHUNK_BITS].checkIns[row & (CHUNK_SIZE - 1)];
+    }
+
+    int checkOutDay(int row) {
+        return chunks[row >>> CHUNK_BITS].checkOuts[row & (CHUNK_SIZE - 1)];
+    }
+
+    // Mapped-store record of a row's stay, or NO_RECORD
+    int storeRecord(int row) {
+        return chunks[row >>> CHUNK_BITS].records[row & (CHUNK_SIZE - 1)];
+    }
+
+    void setStoreRecord(int row, int record) {
+        chunks[row >>> CHUNK_BITS].records[row & (CHUNK_SIZE - 1)] = record;
+    }
+
+    Customer customer(int row) {
+        int ordinal = chunks[row >>> CHUNK_BITS].customers[row & (CHUNK_SIZE - 1)];
+        return ordinal == FREE ? null : byCustomerOrdinal[ordinal].customer;
+    }
+
+    // Customer of the stay in a row if it is still the stay checking in on
+    // checkInDay in that room (by ordinal), otherwise null
+    Customer customerAt(int row, int room, int checkInDay) {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int slot = row & (CHUNK_SIZE - 1);
+        if (chunk.rooms[slot] != room || chunk.checkIns[slot] != checkInDay) {
+            return null;
+        }
+        int ordinal = chunk.customers[slot];
+        return ordinal == FREE ? null : byCustomerOrdinal[ordinal].customer;
+    }
+
+    // 4. Add a row to / take it out of its customer's stays (a row is added
+    // once its stay is committed)
+    void addToCustomer(int row) {
+        byCustomerOrdinal[chunks[row >>> CHUNK_BITS].customers[row & (CHUNK_SIZE - 1)]].add(this, row);
+        indexedStays.incrementAndGet();
+    }
+
+    void removeFromCustomer(int row) {
+        int ordinal = chunks[row >>> CHUNK_BITS].customers[row & (CHUNK_SIZE - 1)];
+        if (ordinal != FREE && byCustomerOrdinal[ordinal].remove(this, row)) {
+            indexedStays.decrementAndGet();
+        }
+    }
+
+    // Swap a stay for its new row (same customer) in one step, so the
+    // customer's lookups see one or the other, never both or neither
+    void moveInCustomer(int oldRow, int newRow) {
+        if (!byCustomerOrdinal[chunks[newRow >>> CHUNK_BITS].customers[newRow & (CHUNK_SIZE - 1)]]
+                .replace(this, oldRow, newRow)) {
+            indexedStays.incrementAndGet(); // the old row was not in the index
+        }
+    }
+
+    // 5. Visit a customer's stays checking in within [fromDay, toDay), by
+    // check-in and then room ordinal, as of one snapshot of their stays
+    void forCustomer(Customer customer, long fromDay, long toDay, StayVisitor visitor) {
+        CustomerStays stays = byCustomer.get(customer);
+        if (stays == null) {
+            return;
+        }
+        CustomerStays.Snapshot snapshot = stays.snapshot;
+        int first = Math.max(lastBlockBefore(snapshot.keys, fromDay), 0);
+        for (int b = first; b < snapshot.keys.length; b++) {
+            long[] keys = snapshot.keys[b];
+            int[] rows = snapshot.rows[b];
+            for (int i = b == first ? firstKeyFrom(keys, fromDay) : 0; i < keys.length; i++) {
+                if ((keys[i] >> 32) >= toDay) {
+                    return;
+                }
+                visit(stays, keys[i], rows[i], visitor);
+            }
+        }
+    }
+
+    // 6. Visit every stay in the per-customer index, customer by customer
+    // (each as of one snapshot of their stays)
+    void forEach(StayVisitor visitor) {
+        for (CustomerStays stays : byCustomerOrdinal) {
+            if (stays == null) {
+                return; // ordinals are handed out in order
+            }
+            CustomerStays.Snapshot snapshot = stays.snapshot;
+            for (int b = 0; b < snapshot.keys.length; b++) {
+                long[] keys = snapshot.keys[b];
+                int[] rows = snapshot.rows[b];
+                for (int i = 0; i < keys.length; i++) {
+                    visit(stays, keys[i], rows[i], visitor);
+                }
+            }
+        }
+    }
+
+    // Number of stays in the per-customer index
+    int size() {
+        return indexedStays.get();
+    }
+
+    // Receives one stay read from a customer's blocks
+    interface StayVisitor {
+        void visit(Customer customer, long id, int room, int checkInDay, int checkOutDay);
+    }
+
+    // Helper method: hand one indexed stay to a visitor. Check-in and room come
+    // from its key; the row gives the rest, if it still holds this customer's
+    // stay (a snapshot may be older than the row).
+    private void visit(CustomerStays stays, long key, int row, StayVisitor visitor) {
+        int checkInDay = (int) (key >> 32);
+        int room = (int) key;
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int slot = row & (CHUNK_SIZE - 1);
+        long id = chunk.ids[slot];
+        int checkOutDay = chunk.checkOuts[slot];
+        if (chunk.customers[slot] == stays.ordinal && chunk.rooms[slot] == room
+                && chunk.checkIns[slot] == checkInDay) {
+            visitor.visit(stays.customer, id, room, checkInDay, checkOutDay);
+        }
+    }
+
+    // Helper method: a free row, or a new one at the end (caller holds this)
+    private int takeRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        int row = allocated++;
+        if ((row >>> CHUNK_BITS) == chunks.length) {
+            Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = new Chunk();
+            chunks = grown;
+        }
+        return row;
+    }
+
+    // Helper method: write a row's columns, the customer last
+    private void fill(int row, long id, int room, int customerOrdinal, int checkInDay, int checkOutDay) {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int slot = row & (CHUNK_SIZE - 1);
+        chunk.ids[slot] = id;
+        chunk.rooms[slot] = room;
+        chunk.checkIns[slot] = checkInDay;
+        chunk.checkOuts[slot] = checkOutDay;
+        chunk.records[slot] = NO_RECORD;
+        chunk.customers[slot] = customerOrdinal;
+    }
+
+    // Helper method: map an id to its row, growing the id table (caller holds this)
+    private void bind(long id, int row) {
+        long index = id - 1;
+        int chunkIndex = Math.toIntExact(index >>> CHUNK_BITS);
+        int[][] table = rowsById;
+        if (chunkIndex >= table.length) {
+            table = Arrays.copyOf(table, Math.max(chunkIndex + 1, table.length * 2));
+        }
+        if (table[chunkIndex] == null) {
+            table[chunkIndex] = new int[CHUNK_SIZE];
+            Arrays.fill(table[chunkIndex], NO_ROW);
+        }
+        table[chunkIndex][(int) (index & (CHUNK_SIZE - 1))] = row;
+        rowsById = table; // publish the entry (and any new chunk)
+    }
+
+    // Helper method: a new customer takes the next ordinal (runs inside
+    // byCustomer.computeIfAbsent, once per customer)
+    private CustomerStays register(Customer customer) {
+        synchronized (byCustomer) {
+            int ordinal = customerCount++;
+            CustomerStays stays = new CustomerStays(customer, ordinal);
+            CustomerStays[] table = byCustomerOrdinal;
+            if (ordinal == table.length) {
+                table = Arrays.copyOf(table, ordinal * 2);
+            }
+            table[ordinal] = stays;
+            byCustomerOrdinal = table; // publish the slot before the ordinal is handed out
+            return stays;
+        }
+    }
+
+    // Helper method: index of the first key checking in on or after day
+    private static int firstKeyFrom(long[] keys, long day) {
+        int lo = 0;
+        int hi = keys.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((keys[mid] >> 32) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    // Helper method: index of the last block whose first key checks in before
+    // day, or -1
+    private static int lastBlockBefore(long[][] blocks, long day) {
+        int lo = 0;
+        int hi = blocks.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((blocks[mid][0] >> 32) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    // Helper method: index of the block a key belongs in - the last one whose
+    // first key is not above it (the first block if there is none)
+    private static int blockFor(long[][] blocks, long key) {
+        int lo = 0;
+        int hi = blocks.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blocks[mid][0] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return Math.max(hi, 0);
+    }
+
+    // Helper method: index of the first key not below key
+    private static int lowerBound(long[] keys, long key) {
+        int lo = 0;
+        int hi = keys.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    // Sort key of a stay in its customer's list: check-in, then room ordinal
+    private static long key(int checkInDay, int room) {
+        return ((long) checkInDay << 32) | room;
+    }
+
+    // One chunk of rows, a column per field
+    private static final class Chunk {
+        final long[] ids = new long[CHUNK_SIZE];
+        final int[] rooms = new int[CHUNK_SIZE];
+        final int[] customers = new int[CHUNK_SIZE];
+        final int[] checkIns = new int[CHUNK_SIZE];
+        final int[] checkOuts = new int[CHUNK_SIZE];
+        final int[] records = new int[CHUNK_SIZE];
+    }
+
+    // One customer's stays (key and row), sorted by key, in blocks
+    // of at most BLOCK_SIZE.
+    // Writers copy the one block they change (and the short array of blocks)
+    // under the object's lock and swap in a new snapshot, so a customer with
+    // thousands of stays does not copy all of them on every booking; readers
+    // never lock.
+    private static final class CustomerStays {
+        private static final int BLOCK_SIZE = 128; // a full block splits in two
+
+        final Customer customer;
+        final int ordinal;
+        volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        CustomerStays(Customer customer, int ordinal) {
+            this.customer = customer;
+            this.ordinal = ordinal;
+        }
+
+        synchronized void add(ReservationTable table, int row) {
+            snapshot = with(snapshot, table, row);
+        }
+
+        synchronized boolean remove(ReservationTable table, int row) {
+            Snapshot next = without(snapshot, table, row);
+            if (next == snapshot) {
+                return false;
+            }
+            snapshot = next;
+            return true;
+        }
+
+        // false if the old row was not there (the new one is added anyway)
+        synchronized boolean replace(ReservationTable table, int oldRow, int newRow) {
+            Snapshot rest = without(snapshot, table, oldRow);
+            boolean found = rest != snapshot;
+            snapshot = with(rest, table, newRow);
+            return found;
+        }
+
+        // Helper method: a snapshot with a row added under its key
+        private static Snapshot with(Snapshot current, ReservationTable table, int row) {
+            long key = key(table.checkInDay(row), table.room(row));
+            if (current.keys.length == 0) {
+                return new Snapshot(new long[][] {{key}}, new int[][] {{row}});
+            }
+            int b = blockFor(current.keys, key);
+            long[] blockKeys = current.keys[b];
+            int[] blockRows = current.rows[b];
+            int at = lowerBound(blockKeys, key);
+            int n = blockKeys.length;
+            long[] keys = new long[n + 1];
+            int[] rows = new int[n + 1];
+            System.arraycopy(blockKeys, 0, keys, 0, at);
+            System.arraycopy(blockRows, 0, rows, 0, at);
+            keys[at] = key;
+            rows[at] = row;
+            System.arraycopy(blockKeys, at, keys, at + 1, n - at);
+            System.arraycopy(blockRows, at, rows, at + 1, n - at);
+            return n < BLOCK_SIZE ? current.with(b, keys, rows) : current.withSplit(b, keys, rows);
+        }
+
+        // Helper method: a snapshot without a row (the same one if it is not there)
+        private static Snapshot without(Snapshot current, ReservationTable table, int row) {
+            if (current.keys.length == 0) {
+                return current;
+            }
+            long key = key(table.checkInDay(row), table.room(row));
+            int b = blockFor(current.keys, key);
+            int at = indexOf(current.keys[b], current.rows[b], key, row);
+            if (at < 0 && b > 0) {
+                b--; // a twin key (a booking about to fail) may have pushed it to the block before
+                at = indexOf(current.keys[b], current.rows[b], key, row);
+            }
+            if (at < 0) {
+                return current;
+            }
+            long[] blockKeys = current.keys[b];
+            int[] blockRows = current.rows[b];
+            int n = blockKeys.length;
+            if (n == 1) {
+                return current.without(b);
+            }
+            long[] keys = new long[n - 1];
+            int[] rows = new int[n - 1];
+            System.arraycopy(blockKeys, 0, keys, 0, at);
+            System.arraycopy(blockRows, 0, rows, 0, at);
+            System.arraycopy(blockKeys, at + 1, keys, at, n - at - 1);
+            System.arraycopy(blockRows, at + 1, rows, at, n - at - 1);
+            return current.with(b, keys, rows);
+        }
+
+        // Helper method: index of a row under its key in one block, or -1
+        private static int indexOf(long[] keys, int[] rows, long key, int row) {
+            for (int i = lowerBound(keys, key); i < keys.length && keys[i] == key; i++) {
+                if (rows[i] == row) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Blocks of keys and rows side by side (immutable, no block empty)
+        static final class Snapshot {
+            static final Snapshot EMPTY = new Snapshot(new long[0][], new int[0][]);
+
+            final long[][] keys;
+            final int[][] rows;
+
+            Snapshot(long[][] keys, int[][] rows) {
+                this.keys = keys;
+                this.rows = rows;
+            }
+
+            // Copy with block b replaced
+            Snapshot with(int b, long[] blockKeys, int[] blockRows) {
+                long[][] newKeys = keys.clone();
+                int[][] newRows = rows.clone();
+                newKeys[b] = blockKeys;
+                newRows[b] = blockRows;
+                return new Snapshot(newKeys, newRows);
+            }
+
+            // Copy with block b replaced by the two halves of an overfull block
+            Snapshot withSplit(int b, long[] blockKeys, int[] blockRows) {
+                int n = keys.length;
+                int half = blockKeys.length >>> 1;
+                long[][] newKeys = new long[n + 1][];
+                int[][] newRows = new int[n + 1][];
+                System.arraycopy(keys, 0, newKeys, 0, b);
+                System.arraycopy(rows, 0, newRows, 0, b);
+                newKeys[b] = Arrays.copyOfRange(blockKeys, 0, half);
+                newRows[b] = Arrays.copyOfRange(blockRows, 0, half);
+                newKeys[b + 1] = Arrays.copyOfRange(blockKeys, half, blockKeys.length);
+                newRows[b + 1] = Arrays.copyOfRange(blockRows, half, blockRows.length);
+                System.arraycopy(keys, b + 1, newKeys, b + 2, n - b - 1);
+                System.arraycopy(rows, b + 1, newRows, b + 2, n - b - 1);
+                return new Snapshot(newKeys, newRows);
+            }
+
+            // Copy without block b
+            Snapshot without(int b) {
+                int n = keys.length;
+                long[][] newKeys = new long[n - 1][];
+                int[][] newRows = new int[n - 1][];
+                System.arraycopy(keys, 0, newKeys, 0, b);
+                System.arraycopy(rows, 0, newRows, 0, b);
+                System.arraycopy(keys, b + 1, newKeys, b, n - b - 1);
+                System.arraycopy(rows, b + 1, newRows, b, n - b - 1);
+                return new Snapshot(newKeys, newRows);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.hotel.service;
+
+import com.hotel.model.AmenityCatalog;
+import com.hotel.model.IRoom;
+import com.hotel.model.Room;
+import com.hotel.model.RoomFilter;
+import com.hotel.model.RoomType;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Bitmap indexes over room ordinals, one bitmap per attribute value.
+// A filter becomes a few BitSet ANDs/ORs, and searches then only visit
+// the ordinals left standing instead of every Room object. Amenities are
+// indexed by AmenityCatalog index, one bitmap per catalog entry.
+// Attributes are captured when the room is added. Amenities can be added to
+// a room later, so before an amenity filter runs the index compares
+// AmenityCatalog.roomChanges() with the count it last indexed at and, if
+// any room changed since, rebuilds the amenity bitmaps from the rooms.
+class RoomAttributeIndex {
+    private final Map<RoomType, BitSet> byType;
+    private final NavigableMap<Integer, BitSet> byFloor; // floor number -> rooms on it
+    private BitSet[] byAmenity; // AmenityCatalog index -> rooms having it (grown as the catalog grows)
+    private final BitSet seaView;
+    private final BitSet balcony;
+    private final BitSet indexed; // every ordinal added so far
+    private Room[] rooms; // ordinal -> room, for re-reading amenities (null for other IRooms)
+    private volatile long amenityChanges; // AmenityCatalog.roomChanges() the amenity bitmaps reflect
+    private final ReadWriteLock lock;
+
+    RoomAttributeIndex() {
+        this.byType = new EnumMap<>(RoomType.class);
+        this.byFloor = new TreeMap<>();
+        this.byAmenity = new BitSet[AmenityCatalog.MASK_BITS];
+        this.seaView = new BitSet();
+        this.balcony = new BitSet();
+        this.indexed = new BitSet();
+        this.rooms = new Room[64];
+        this.amenityChanges = AmenityCatalog.roomChanges();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    // Index a room at its ordinal, replacing whatever was indexed there before
+    void add(int ordinal, IRoom room) {
+        lock.writeLock().lock();
+        try {
+            clear(ordinal);
+            indexed.set(ordinal);
+            byType.computeIfAbsent(room.getRoomType(), k -> new BitSet()).set(ordinal);
+
+            if (ordinal >= rooms.length) {
+                rooms = Arrays.copyOf(rooms, Math.max(ordinal + 1, rooms.length * 2));
+            }
+            rooms[ordinal] = room instanceof Room ? (Room) room : null;
+            if (room instanceof Room) {
+                Room details = (Room) room;
+                byFloor.computeIfAbsent(details.getFloorNumber(), k -> new BitSet()).set(ordinal);
+                seaView.set(ordinal, details.hasSeaView());
+                balcony.set(ordinal, details.hasBalcony());
+                addAmenities(ordinal, details);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ordinals of rooms matching every criterion of the filter
+    BitSet match(RoomFilter filter) {
+        if (!filter.getAmenities().isEmpty() && amenityChanges != AmenityCatalog.roomChanges()) {
+            reindexAmenities();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) indexed.clone();
+
+            if (!filter.getRoomTypes().isEmpty()) {
+                BitSet types = new BitSet();
+                for (RoomType type : filter.getRoomTypes()) {
+                    types.or(byType.getOrDefault(type, new BitSet()));
+                }
+                result.and(types);
+            }
+
+            if (filter.getSeaView() != null) {
+                applyFlag(result, seaView, filter.getSeaView());
+            }
+            if (filter.getBalcony() != null) {
+                applyFlag(result, balcony, filter.getBalcony());
+            }
+
+            if (filter.getMinFloor() != null) {
+                BitSet floors = new BitSet();
+                for (BitSet floor : byFloor.subMap(filter.getMinFloor(), true,
+                        filter.getMaxFloor(), true).values()) {
+                    floors.or(floor);
+                }
+                result.and(floors);
+            }
+
+            for (String amenity : filter.getAmenities()) {
+                int index = AmenityCatalog.find(amenity);
+                BitSet rooms = index < 0 || index >= byAmenity.length ? null : byAmenity[index];
+                if (rooms == null) {
+                    return new BitSet(); // nobody has it
+                }
+                result.and(rooms);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper method: rebuild the amenity bitmaps from the rooms' current amenities
+    private void reindexAmenities() {
+        lock.writeLock().lock();
+        try {
+            long changes = AmenityCatalog.roomChanges(); // read before the rooms, see AmenityCatalog
+            if (changes == amenityChanges) {
+                return; // another search got here first
+            }
+            Arrays.fill(byAmenity, null);
+            for (int ordinal = indexed.nextSetBit(0); ordinal >= 0; ordinal = indexed.nextSetBit(ordinal + 1)) {
+                if (rooms[ordinal] != null) {
+                    addAmenities(ordinal, rooms[ordinal]);
+                }
+            }
+            amenityChanges = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Helper method: set a room's ordinal in the bitmap of each of its amenities
+    // (caller holds the write lock)
+    private void addAmenities(int ordinal, Room room) {
+        BitSet amenities = room.getAmenityIndexes();
+        if (amenities.length() > byAmenity.length) {
+            byAmenity = Arrays.copyOf(byAmenity, Math.max(amenities.length(), byAmenity.length * 2));
+        }
+        for (int index = amenities.nextSetBit(0); index >= 0; index = amenities.nextSetBit(index + 1)) {
+            if (byAmenity[index] == null) {
+                byAmenity[index] = new BitSet();
+            }
+            byAmenity[index].set(ordinal);
+        }
+    }
+
+    // Keep rooms whose flag equals the wanted value
+    private static void applyFlag(BitSet result, BitSet flag, boolean wanted) {
+        if (wanted) {
+            result.and(flag);
+        } else {
+            result.andNot(flag);
+        }
+    }
+
+    // Drop an ordinal from every bitmap (caller holds the write lock)
+    private void clear(int ordinal) {
+        if (!indexed.get(ordinal)) {
+            return;
+        }
+        for (BitSet rooms : byType.values()) {
+            rooms.clear(ordinal);
+        }
+        for (BitSet rooms : byFloor.values()) {
+            rooms.clear(ordinal);
+        }
+        for (BitSet rooms : byAmenity) {
+            if (rooms != null) {
+                rooms.clear(ordinal);
+            }
+        }
+        seaView.clear(ordinal);
+        balcony.clear(ordinal);
+        indexed.clear(ordinal);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.hotel.service;
+
+import com.hotel.model.IRoom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Rooms by ordinal (the order they were added) with each room's timeline,
+// and the ordinal of every room id. A room id is its number encoded as an
+// int: room numbers are three digits plus an optional letter (see
+// Room.validateRoomNumber), so number * 27 + letter (0 = none, 1..26 = A..Z)
+// packs them densely into [0, ID_COUNT) in the same order as the strings.
+// Finding a room is then arithmetic on four chars and one int array read,
+// with no String hashing or equals.
+//
+// Writers take the registry's lock; readers take none. A slot is written
+// before the count that covers it, so a reader that reads the count first
+// sees every slot below it filled.
+final class RoomRegistry {
+    static final int ID_COUNT = 1000 * 27;
+    static final int NONE = -1; // id of a malformed number, ordinal of an unknown room
+
+    private final int[] ordinalById;        // room id -> ordinal, or NONE
+    private volatile IRoom[] rooms;         // ordinal -> room
+    private volatile TimelineSlot[] timelines; // ordinal -> the room's timeline
+    private volatile int count;
+
+    RoomRegistry() {
+        this.ordinalById = new int[ID_COUNT];
+        Arrays.fill(ordinalById, NONE);
+        this.rooms = new IRoom[64];
+        this.timelines = new TimelineSlot[64];
+        this.count = 0;
+    }
+
+    // 1. Register a room and return its ordinal; a re-added number keeps its
+    // ordinal and timeline and only replaces the room object
+    synchronized int add(IRoom room) {
+        int id = idOf(room.getRoomNumber());
+        if (id == NONE) {
+            throw new IllegalArgumentException("Room number format: 3 digits + optional letter (e.g., 101A)");
+        }
+        int ordinal = ordinalById[id];
+        if (ordinal != NONE) {
+            rooms[ordinal] = room; // same number, so a stale read is harmless
+            return ordinal;
+        }
+
+        ordinal = count;
+        if (ordinal == rooms.length) {
+            rooms = Arrays.copyOf(rooms, ordinal * 2);
+            timelines = Arrays.copyOf(timelines, ordinal * 2);
+        }
+        rooms[ordinal] = room;
+        timelines[ordinal] = new TimelineSlot();
+        ordinalById[id] = ordinal;
+        count = ordinal + 1; // publish after the slots are written
+        return ordinal;
+    }
+
+    // 2. Ordinal of a room number, or NONE if no such room was added
+    int ordinalOf(String roomNumber) {
+        int id = idOf(roomNumber);
+        if (id == NONE) {
+            return NONE;
+        }
+        int added = count; // read before the slot, see the class comment
+        int ordinal = ordinalById[id];
+        return ordinal < added ? ordinal : NONE;
+    }
+
+    // 3. Number of rooms; read it before rooms(), whose slots below it are filled
+    int size() {
+        return count;
+    }
+
+    // Current ordinal table (may be longer than size())
+    IRoom[] rooms() {
+        return rooms;
+    }
+
+    // Room at an ordinal below size()
+    IRoom room(int ordinal) {
+        return rooms[ordinal];
+    }
+
+    // Timeline of the room at an ordinal below size()
+    AtomicReference<RoomTimeline> timeline(int ordinal) {
+        return timelines[ordinal];
+    }
+
+    // 4. Encode a room number as its id, or NONE if it is not 3 digits plus an
+    // optional capital letter
+    static int idOf(String roomNumber) {
+        int length = roomNumber.length();
+        if (length != 3 && length != 4) {
+            return NONE;
+        }
+        int number = 0;
+        for (int i = 0; i < 3; i++) {
+            int digit = roomNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NONE;
+            }
+            number = number * 10 + digit;
+        }
+        int letter = 0;
+        if (length == 4) {
+            letter = roomNumber.charAt(3) - 'A' + 1;
+            if (letter < 1 || letter > 26) {
+                return NONE;
+            }
+        }
+        return number * 27 + letter;
+    }
+
+    // A room's current timeline, swapped with compareAndSet (a named subclass,
+    // so the table can be an array without an unchecked generic cast)
+    private static final class TimelineSlot extends AtomicReference<RoomTimeline> {
+        private static final long serialVersionUID = 1L;
+
+        TimelineSlot() {
+            super(RoomTimeline.EMPTY);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.hotel.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Immutable, versioned snapshot of one room's stays, sorted by check-in.
+// Stays never overlap, so the only stay that can clash with [from, to) is the
+// last one starting before 'to' - one binary search over the check-in days.
+// Writers build a new snapshot and swap it in with a CAS on the room's reference.
+// Each stay is its days plus its row in the ReservationTable; stays loaded
+// from a reservation store have no row (availability never needs more than
+// the days).
+final class RoomTimeline {
+    static final int STORED = -1; // row of a stay loaded from a store
+    static final RoomTimeline EMPTY = new RoomTimeline(0, new int[0], new int[0], new int[0]);
+
+    private final long version;
+    private final int[] rows;         // ReservationTable rows, or STORED
+    private final int[] checkInDays;  // epoch days, ascending
+    private final int[] checkOutDays; // epoch days, exclusive
+
+    private RoomTimeline(long version, int[] rows, int[] checkInDays, int[] checkOutDays) {
+        this.version = version;
+        this.rows = rows;
+        this.checkInDays = checkInDays;
+        this.checkOutDays = checkOutDays;
+    }
+
+    // Snapshot of stays loaded from a store, given as days sorted by check-in
+    static RoomTimeline ofStored(int[] checkInDays, int[] checkOutDays) {
+        int[] rows = new int[checkInDays.length];
+        Arrays.fill(rows, STORED);
+        return new RoomTimeline(0, rows, checkInDays, checkOutDays);
+    }
+
+    // Number of committed changes to this room
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    // Row of the stay at index i, in check-in order (STORED for a stay loaded from a store)
+    int row(int i) {
+        return rows[i];
+    }
+
+    int checkInDay(int i) {
+        return checkInDays[i];
+    }
+
+    int checkOutDay(int i) {
+        return checkOutDays[i];
+    }
+
+    // Index of the first stay checking in on or after day (size() if none)
+    int firstStartingFrom(long day) {
+        return lastStartingBefore(day) + 1;
+    }
+
+    // Check that no stay overlaps the nights [fromDay, toDay)
+    boolean isFree(int fromDay, int toDay) {
+        int previous = lastStartingBefore(toDay);
+        return previous < 0 || checkOutDays[previous] <= fromDay;
+    }
+
+    // New snapshot with the stay in a row added; the caller has checked isFree()
+    RoomTimeline with(int row, int checkIn, int checkOut) {
+        int at = lastStartingBefore(checkOut) + 1;
+        int n = rows.length;
+
+        int[] newRows = new int[n + 1];
+        int[] newCheckIns = new int[n + 1];
+        int[] newCheckOuts = new int[n + 1];
+        System.arraycopy(rows, 0, newRows, 0, at);
+        System.arraycopy(checkInDays, 0, newCheckIns, 0, at);
+        System.arraycopy(checkOutDays, 0, newCheckOuts, 0, at);
+        newRows[at] = row;
+        newCheckIns[at] = checkIn;
+        newCheckOuts[at] = checkOut;
+        System.arraycopy(rows, at, newRows, at + 1, n - at);
+        System.arraycopy(checkInDays, at, newCheckIns, at + 1, n - at);
+        System.arraycopy(checkOutDays, at, newCheckOuts, at + 1, n - at);
+
+        return new RoomTimeline(version + 1, newRows, newCheckIns, newCheckOuts);
+    }
+
+    // New snapshot with a batch of stays (rows with their days, sorted by
+    // check-in) merged in, in one pass. Stays that overlap a booked stay or an
+    // earlier stay of the batch are left out and their batch indexes set in
+    // 'rejected'.
+    RoomTimeline withAll(int[] batchRows, int[] batchCheckIns, int[] batchCheckOuts, BitSet rejected) {
+        int n = rows.length;
+        int capacity = n + batchRows.length;
+        int[] newRows = new int[capacity];
+        int[] newCheckIns = new int[capacity];
+        int[] newCheckOuts = new int[capacity];
+        int size = 0;
+        int i = 0;
+        long lastCheckOut = Long.MIN_VALUE;
+        for (int b = 0; b < batchRows.length; b++) {
+            int checkIn = batchCheckIns[b];
+            int checkOut = batchCheckOuts[b];
+            for (; i < n && checkInDays[i] <= checkIn; i++) {
+                newRows[size] = rows[i];
+                newCheckIns[size] = checkInDays[i];
+                newCheckOuts[size++] = checkOutDays[i];
+                lastCheckOut = checkOutDays[i];
+            }
+            if (checkIn < lastCheckOut || (i < n && checkInDays[i] < checkOut)) {
+                rejected.set(b);
+                continue;
+            }
+            newRows[size] = batchRows[b];
+            newCheckIns[size] = checkIn;
+            newCheckOuts[size++] = checkOut;
+            lastCheckOut = checkOut;
+        }
+        int rest = n - i;
+        System.arraycopy(rows, i, newRows, size, rest);
+        System.arraycopy(checkInDays, i, newCheckIns, size, rest);
+        System.arraycopy(checkOutDays, i, newCheckOuts, size, rest);
+        size += rest;
+
+        if (size < capacity) {
+            newRows = Arrays.copyOf(newRows, size);
+            newCheckIns = Arrays.copyOf(newCheckIns, size);
+            newCheckOuts = Arrays.copyOf(newCheckOuts, size);
+        }
+        return new RoomTimeline(version + 1, newRows, newCheckIns, newCheckOuts);
+    }
+
+    // New snapshot without the stay in a row, checking in on checkIn;
+    // returns this snapshot if the stay is not in it
+    RoomTimeline without(int row, int checkIn) {
+        int at = lastStartingBefore(checkIn + 1L);
+        if (at < 0 || checkInDays[at] != checkIn || rows[at] != row) {
+            return this;
+        }
+        int n = rows.length;
+
+        int[] newRows = new int[n - 1];
+        int[] newCheckIns = new int[n - 1];
+        int[] newCheckOuts = new int[n - 1];
+        System.arraycopy(rows, 0, newRows, 0, at);
+        System.arraycopy(checkInDays, 0, newCheckIns, 0, at);
+        System.arraycopy(checkOutDays, 0, newCheckOuts, 0, at);
+        System.arraycopy(rows, at + 1, newRows, at, n - at - 1);
+        System.arraycopy(checkInDays, at + 1, newCheckIns, at, n - at - 1);
+        System.arraycopy(checkOutDays, at + 1, newCheckOuts, at, n - at - 1);
+
+        return new RoomTimeline(version + 1, newRows, newCheckIns, newCheckOuts);
+    }
+
+    // Number of stays that had ended by day (check-out on or before it). Stays
+    // never overlap, so check-outs ascend too and these are the first ones.
+    int endedBy(long day) {
+        int lo = 0;
+        int hi = checkOutDays.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (checkOutDays[mid] <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    // New snapshot without the stays 'archived' (an earlier snapshot of this
+    // room) had ended by day; stays added since are kept. Stays match by
+    // check-in and row (stored stays by check-in alone).
+    RoomTimeline withoutEnded(RoomTimeline archived, long day) {
+        int ended = endedBy(day);
+        int archivedEnded = archived.endedBy(day);
+        int[] newRows = new int[rows.length];
+        int[] newCheckIns = new int[rows.length];
+        int[] newCheckOuts = new int[rows.length];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (i < ended) {
+                while (j < archivedEnded && archived.checkInDays[j] < checkInDays[i]) {
+                    j++;
+                }
+                if (j < archivedEnded && archived.checkInDays[j] == checkInDays[i]
+                        && archived.rows[j] == rows[i]) {
+                    j++;
+                    continue;
+                }
+            }
+            newRows[size] = rows[i];
+            newCheckIns[size] = checkInDays[i];
+            newCheckOuts[size++] = checkOutDays[i];
+        }
+        if (size == rows.length) {
+            return this;
+        }
+        return new RoomTimeline(version + 1, Arrays.copyOf(newRows, size),
+                Arrays.copyOf(newCheckIns, size), Arrays.copyOf(newCheckOuts, size));
+    }
+
+    // Visit the days of every stay with nights in [fromDay, toDay), in check-in order
+    void forEachStay(long fromDay, long toDay, StayVisitor visitor) {
+        int i = Math.max(lastStartingBefore(fromDay + 1), 0);
+        if (i < rows.length && checkOutDays[i] <= fromDay) {
+            i++; // the straddling candidate already ended
+        }
+        for (; i < rows.length && checkInDays[i] < toDay; i++) {
+            visitor.stay(checkInDays[i], checkOutDays[i]);
+        }
+    }
+
+    // Receives stays from forEachStay
+    interface StayVisitor {
+        void stay(int checkInDay, int checkOutDay);
+    }
+
+    // Visit every free stretch [start, end) of nights inside [fromDay, toDay)
+    void forEachGap(int fromDay, int toDay, GapVisitor visitor) {
+        int i = Math.max(lastStartingBefore(fromDay + 1L), 0);
+        int cursor = fromDay;
+        for (; i < rows.length && checkInDays[i] < toDay; i++) {
+            if (checkInDays[i] > cursor) {
+                visitor.gap(cursor, checkInDays[i]);
+            }
+            cursor = Math.max(cursor, checkOutDays[i]);
+        }
+        if (cursor < toDay) {
+            visitor.gap(cursor, toDay);
+        }
+    }
+
+    // Receives free stretches from forEachGap
+    interface GapVisitor {
+        void gap(int startDay, int endDay);
+    }
+
+    // Index of the last stay with check-in < day, or -1
+    private int lastStartingBefore(long day) {
+        int lo = 0;
+        int hi = checkInDays.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (checkInDays[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    // Epoch day as int (covers every realistic booking date)
+    static int epochDay(long epochDay) {
+        return Math.toIntExact(epochDay);
+    }
+}
\ No newline at end of file
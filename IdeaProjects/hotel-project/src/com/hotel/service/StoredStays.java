@@ -0,0 +1,354 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import com.hotel.model.IRoom;
+import com.hotel.model.Reservation;
+import com.hotel.persistence.MappedReservationStore;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Index over the reservation records a store held when it was attached.
+// Built from one primitive scan: per room, check-in/check-out days and record
+// indexes sorted by check-in (for the room timelines), and per customer, record indexes sorted
+// by check-in (compressed rows: records of customer c are
+// byCustomer[customerStart[c] .. customerStart[c + 1])). Reservation objects
+// are only built for the records a caller asks for.
+//
+// Large stores are scanned in partitions side by side: each partition counts
+// its records per room and per customer, the counts give every partition its
+// own slots, and a second scan fills them; rooms and customers are then
+// sorted in partitions too. Slots follow record order, as with one scan.
+//
+// Each record holds the reservation id its stay was booked with. Ids map back
+// to the active record holding them through a chunked int table indexed by id,
+// as in ReservationTable.
+//
+// The status of each record as served is kept here too: a stay moved to new
+// dates leaves at once, while the store only cancels its record once a
+// checkpoint covers the new one.
+final class StoredStays {
+    // Smallest share of the work worth a partition of its own
+    private static final int MIN_PARTITION_RECORDS = 64 * 1024;
+    private static final int MIN_PARTITION_KEYS = 256; // rooms or customers
+    private static final int ID_CHUNK_BITS = 12;
+    private static final int ID_CHUNK = 1 << ID_CHUNK_BITS;
+
+    private final MappedReservationStore store;
+    private final long maxId;              // highest reservation id of any record
+    private final int[][] recordsById;     // (id - 1) -> active record (-1 = none), in chunks
+    private final IRoom[] roomsByOrdinal;  // null where the room is unknown
+    private final int[][] roomCheckIns;    // by room ordinal, ascending
+    private final int[][] roomCheckOuts;
+    private final int[][] roomRecords;
+    private final int[] customerStart;
+    private final int[] byCustomer;
+    private final byte[] statuses;         // by record
+    private final int loaded;              // active records indexed
+    private final int skipped;             // active records of unknown rooms
+    private final AtomicInteger removed = new AtomicInteger(); // of those loaded, archived or cancelled since
+
+    StoredStays(MappedReservationStore store, IRoom[] roomsByOrdinal) {
+        this.store = store;
+        this.roomsByOrdinal = roomsByOrdinal;
+        int rooms = roomsByOrdinal.length;
+        int customers = store.customerCount();
+        int records = store.size();
+        byte[] statusOf = new byte[records];
+
+        // Pass 1: each partition of the records counts its active records per
+        // room and per customer, notes their statuses and finds its highest
+        // reservation id
+        int partitions = Partitions.of(records, MIN_PARTITION_RECORDS);
+        int[][] perRoom = new int[partitions][rooms];
+        int[][] perCustomer = new int[partitions][customers];
+        int[] unknownRoom = new int[partitions];
+        long[] maxIds = new long[partitions];
+        Partitions.run(records, partitions, (p, from, to) -> store.scan(from, to,
+                (record, room, customer, checkIn, checkOut, status, id) -> {
+                    maxIds[p] = Math.max(maxIds[p], id);
+                    statusOf[record] = status;
+                    if (status != MappedReservationStore.ACTIVE) {
+                        return;
+                    }
+                    if (roomsByOrdinal[room] == null) {
+                        unknownRoom[p]++;
+                    } else {
+                        perRoom[p][room]++;
+                        perCustomer[p][customer]++;
+                    }
+                }));
+        this.skipped = sum(unknownRoom);
+        long highest = 0;
+        for (long id : maxIds) {
+            highest = Math.max(highest, id);
+        }
+        this.maxId = highest;
+
+        // Turn the counts into where each partition's keys go: partition p
+        // fills room r from perRoom[p][r] and customer c from perCustomer[p][c]
+        int[] roomSizes = new int[rooms];
+        for (int r = 0; r < rooms; r++) {
+            for (int p = 0; p < partitions; p++) {
+                int count = perRoom[p][r];
+                perRoom[p][r] = roomSizes[r];
+                roomSizes[r] += count;
+            }
+        }
+        int[] starts = new int[customers + 1];
+        for (int c = 0; c < customers; c++) {
+            int next = starts[c];
+            for (int p = 0; p < partitions; p++) {
+                int count = perCustomer[p][c];
+                perCustomer[p][c] = next;
+                next += count;
+            }
+            starts[c + 1] = next;
+        }
+        this.customerStart = starts;
+        this.loaded = starts[customers];
+
+        // Pass 2: each partition fills its slots with (check-in, record) keys,
+        // and the id table with its records
+        int[][] ids = idTable(highest);
+        long[][] stays = new long[rooms][];
+        for (int r = 0; r < rooms; r++) {
+            stays[r] = new long[roomSizes[r]];
+        }
+        long[] customerKeys = new long[loaded];
+        Partitions.run(records, partitions, (p, from, to) -> {
+            int[] roomFill = perRoom[p];
+            int[] customerFill = perCustomer[p];
+            store.scan(from, to, (record, room, customer, checkIn, checkOut, status, id) -> {
+                if (status == MappedReservationStore.ACTIVE && roomsByOrdinal[room] != null) {
+                    long key = ((long) checkIn << 32) | record;
+                    stays[room][roomFill[room]++] = key;
+                    customerKeys[customerFill[customer]++] = key;
+                    if (id > 0) {
+                        ids[(int) ((id - 1) >>> ID_CHUNK_BITS)][(int) ((id - 1) & (ID_CHUNK - 1))] = record;
+                    }
+                }
+            });
+        });
+
+        // Sort each customer's row by check-in (record index breaks ties),
+        // customers split across partitions
+        int[] rows = new int[loaded];
+        Partitions.run(customers, Partitions.of(customers, MIN_PARTITION_KEYS), (p, from, to) -> {
+            for (int c = from; c < to; c++) {
+                Arrays.sort(customerKeys, starts[c], starts[c + 1]);
+                for (int i = starts[c]; i < starts[c + 1]; i++) {
+                    rows[i] = (int) customerKeys[i];
+                }
+            }
+        });
+        this.byCustomer = rows;
+        this.statuses = statusOf;
+        this.recordsById = ids;
+
+        // Sort each room's stays by check-in and split into day and record arrays
+        // (committed stays never overlap, so sorted order is timeline order)
+        int[][] checkIns = new int[rooms][];
+        int[][] checkOuts = new int[rooms][];
+        int[][] roomRows = new int[rooms][];
+        Partitions.run(rooms, Partitions.of(rooms, MIN_PARTITION_KEYS), (p, from, to) -> {
+            for (int r = from; r < to; r++) {
+                long[] keys = stays[r];
+                Arrays.sort(keys);
+                checkIns[r] = new int[keys.length];
+                checkOuts[r] = new int[keys.length];
+                roomRows[r] = new int[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    int record = (int) keys[i];
+                    checkIns[r][i] = (int) (keys[i] >> 32);
+                    checkOuts[r][i] = store.checkOutDay(record);
+                    roomRows[r][i] = record;
+                }
+            }
+        });
+        this.roomCheckIns = checkIns;
+        this.roomCheckOuts = checkOuts;
+        this.roomRecords = roomRows;
+    }
+
+    int[] checkIns(int roomOrdinal) {
+        return roomCheckIns[roomOrdinal];
+    }
+
+    int[] checkOuts(int roomOrdinal) {
+        return roomCheckOuts[roomOrdinal];
+    }
+
+    // Customer of the active stored stay checking in on checkInDay in a room
+    // (by store ordinal), or null if there is none
+    Customer customerAt(int roomOrdinal, int checkInDay) {
+        int record = recordAt(roomOrdinal, checkInDay);
+        return record < 0 ? null : customer(record);
+    }
+
+    // Customer of a record (null if unknown)
+    Customer customer(int record) {
+        return CustomerService.getInstance().getCustomer(store.customerEmail(store.customerOrdinal(record)));
+    }
+
+    // Active record of the stay checking in on checkInDay in a room (by store
+    // ordinal), or -1 if there is none
+    int recordAt(int roomOrdinal, int checkInDay) {
+        if (roomOrdinal < 0 || roomOrdinal >= roomRecords.length) {
+            return -1;
+        }
+        int at = Arrays.binarySearch(roomCheckIns[roomOrdinal], checkInDay);
+        if (at < 0 || statuses[roomRecords[roomOrdinal][at]] != MappedReservationStore.ACTIVE) {
+            return -1;
+        }
+        return roomRecords[roomOrdinal][at];
+    }
+
+    // Active record indexed under a reservation id, or -1
+    int recordOf(long id) {
+        if (id <= 0 || id > maxId) {
+            return -1;
+        }
+        int record = recordsById[(int) ((id - 1) >>> ID_CHUNK_BITS)][(int) ((id - 1) & (ID_CHUNK - 1))];
+        if (record < 0 || statuses[record] != MappedReservationStore.ACTIVE) {
+            return -1;
+        }
+        return record;
+    }
+
+    // Highest reservation id of any record, active or not (0 if none)
+    long maxId() {
+        return maxId;
+    }
+
+    // The Reservation for an active record (null if its customer is unknown)
+    Reservation get(int record) {
+        Customer customer = customer(record);
+        return customer == null ? null : materialize(record, customer);
+    }
+
+    // Reservation id of a record
+    long reservationId(int record) {
+        return store.reservationId(record);
+    }
+
+    // Days of a record's stay
+    int checkInDay(int record) {
+        return store.checkInDay(record);
+    }
+
+    int checkOutDay(int record) {
+        return store.checkOutDay(record);
+    }
+
+    // Mark the active stored stay checking in on checkInDay in a room (by store
+    // ordinal) as archived; false if there is none
+    boolean markArchived(int roomOrdinal, int checkInDay) {
+        int record = recordAt(roomOrdinal, checkInDay);
+        return record >= 0 && mark(record, MappedReservationStore.ARCHIVED, false);
+    }
+
+    // Mark an active record as cancelled; false if it no longer is active
+    boolean markCancelled(int record) {
+        return mark(record, MappedReservationStore.CANCELLED, false);
+    }
+
+    // Mark an active record as cancelled because its stay was appended again
+    // under new dates; the store cancels it at its next checkpoint. False if
+    // it no longer is active.
+    boolean markMoved(int record) {
+        return mark(record, MappedReservationStore.CANCELLED, true);
+    }
+
+    // Active records indexed, less those archived or cancelled since
+    int loaded() {
+        return loaded - removed.get();
+    }
+
+    // Active records left out because their room is unknown
+    int skipped() {
+        return skipped;
+    }
+
+    // A customer's stored stays checking in within [fromDay, toDay), in check-in order
+    List<Reservation> forCustomer(Customer customer, long fromDay, long toDay) {
+        List<Reservation> result = new ArrayList<>();
+        int ordinal = store.customerOrdinal(customer.getEmail());
+        if (ordinal < 0 || ordinal + 1 >= customerStart.length) {
+            return result;
+        }
+        for (int i = customerStart[ordinal]; i < customerStart[ordinal + 1]; i++) {
+            int record = byCustomer[i];
+            int checkIn = store.checkInDay(record);
+            if (checkIn >= toDay) {
+                break;
+            }
+            if (checkIn >= fromDay && statuses[record] == MappedReservationStore.ACTIVE) {
+                result.add(materialize(record, customer));
+            }
+        }
+        return result;
+    }
+
+    // Build every active stored stay, customer by customer
+    void forEach(Consumer<Reservation> action) {
+        CustomerService customers = CustomerService.getInstance();
+        for (int ordinal = 0; ordinal + 1 < customerStart.length; ordinal++) {
+            if (customerStart[ordinal] == customerStart[ordinal + 1]) {
+                continue;
+            }
+            Customer customer = customers.getCustomer(store.customerEmail(ordinal));
+            if (customer == null) {
+                continue;
+            }
+            for (int i = customerStart[ordinal]; i < customerStart[ordinal + 1]; i++) {
+                if (statuses[byCustomer[i]] == MappedReservationStore.ACTIVE) {
+                    action.accept(materialize(byCustomer[i], customer));
+                }
+            }
+        }
+    }
+
+    // Helper method: move an active record to another status, once (in the
+    // store now, or at its next checkpoint)
+    private synchronized boolean mark(int record, byte status, boolean atCheckpoint) {
+        if (statuses[record] != MappedReservationStore.ACTIVE) {
+            return false;
+        }
+        statuses[record] = status;
+        if (atCheckpoint) {
+            store.cancelAtCheckpoint(record);
+        } else {
+            store.setStatus(record, status);
+        }
+        removed.incrementAndGet();
+        return true;
+    }
+
+    // Helper method: the Reservation for one record
+    private Reservation materialize(int record, Customer customer) {
+        return new Reservation(store.reservationId(record), customer, roomsByOrdinal[store.roomOrdinal(record)],
+                LocalDate.ofEpochDay(store.checkInDay(record)), LocalDate.ofEpochDay(store.checkOutDay(record)));
+    }
+
+    // Helper method: an id table for ids up to maxId, every entry -1
+    private static int[][] idTable(long maxId) {
+        int[][] table = new int[Math.toIntExact((maxId + ID_CHUNK - 1) >>> ID_CHUNK_BITS)][];
+        for (int c = 0; c < table.length; c++) {
+            table[c] = new int[ID_CHUNK];
+            Arrays.fill(table[c], -1);
+        }
+        return table;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
\ No newline at end of file
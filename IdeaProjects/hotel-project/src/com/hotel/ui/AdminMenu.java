@@ -21,8 +21,10 @@ public class AdminMenu {
             System.out.println("2. See all Rooms");
             System.out.println("3. See all Reservations");
             System.out.println("4. Add a Room");
-            System.out.println("5. Back to Main Menu");
-            System.out.print("Please select an option (1-5): ");
+            System.out.println("5. Import Data File");
+            System.out.println("6. Export Reservations");
+            System.out.println("7. Back to Main Menu");
+            System.out.print("Please select an option (1-7): ");
 
             String choice = scanner.nextLine().trim();
 
@@ -40,11 +42,17 @@ public class AdminMenu {
                     addRoom();
                     break;
                 case "5":
+                    importData();
+                    break;
+                case "6":
+                    exportReservations();
+                    break;
+                case "7":
                     System.out.println("Returning to Main Menu...");
                     backToMain = true;
                     break;
                 default:
-                    System.out.println("Invalid choice. Please enter 1-5.");
+                    System.out.println("Invalid choice. Please enter 1-7.");
             }
         }
     }
@@ -64,4 +72,12 @@ public class AdminMenu {
     private void addRoom() {
         adminResource.addRoomWithInput(scanner);
     }
+
+    private void importData() {
+        adminResource.importFileWithInput(scanner);
+    }
+
+    private void exportReservations() {
+        adminResource.exportReservationsWithInput(scanner);
+    }
 }
\ No newline at end of file
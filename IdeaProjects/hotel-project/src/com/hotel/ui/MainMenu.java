@@ -1,6 +1,7 @@
 package com.hotel.ui;
 
 import com.hotel.api.HotelResource;
+import com.hotel.model.AvailabilityWindow;
 import com.hotel.model.Customer;
 import com.hotel.model.IRoom;
 import com.hotel.model.Reservation;
@@ -8,12 +9,15 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Scanner;
 
 public class MainMenu {
     private final HotelResource hotelResource;
     private final Scanner scanner;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final int ALTERNATIVE_FLEXIBILITY_DAYS = 14; // search +/- two weeks
+    private static final int MAX_ALTERNATIVES = 3;
 
     public MainMenu() {
         this.hotelResource = HotelResource.getInstance();
@@ -64,7 +68,7 @@ public class MainMenu {
 
         // Check if customer has account
         System.out.print("Enter your email: ");
-        String email = scanner.nextLine().trim().toLowerCase();
+        String email = scanner.nextLine().trim(); // lookups ignore case
 
         Customer customer = hotelResource.getCustomer(email);
         if (customer == null) {
@@ -88,26 +92,39 @@ public class MainMenu {
         if (availableRooms.isEmpty()) {
             System.out.println("No rooms available for those dates.");
 
-            // Suggest alternative dates (7 days later)
-            LocalDate altCheckIn = checkIn.plusDays(7);
-            LocalDate altCheckOut = checkOut.plusDays(7);
-            System.out.println("Would you like to see rooms available from " +
-                    altCheckIn.format(DATE_FORMATTER) + " to " +
-                    altCheckOut.format(DATE_FORMATTER) + "? (yes/no)");
-
-            String response = scanner.nextLine().trim().toLowerCase();
-            if (response.equals("yes") || response.equals("y")) {
-                availableRooms = hotelResource.findARoom(altCheckIn, altCheckOut);
-                checkIn = altCheckIn;
-                checkOut = altCheckOut;
-            } else {
+            // Suggest the nearest dates with free rooms (same number of nights)
+            List<AvailabilityWindow> windows = hotelResource.findAvailableWindows(
+                    checkIn, checkOut, ALTERNATIVE_FLEXIBILITY_DAYS, MAX_ALTERNATIVES);
+            if (windows.isEmpty()) {
+                System.out.println("No rooms available within " + ALTERNATIVE_FLEXIBILITY_DAYS +
+                        " days of those dates either.");
                 return;
             }
-        }
 
-        if (availableRooms.isEmpty()) {
-            System.out.println("No rooms available for alternative dates either.");
-            return;
+            System.out.println("Rooms are available on these nearby dates:");
+            for (int i = 0; i < windows.size(); i++) {
+                AvailabilityWindow window = windows.get(i);
+                System.out.println((i + 1) + ". " + window.getCheckInDate().format(DATE_FORMATTER) +
+                        " to " + window.getCheckOutDate().format(DATE_FORMATTER) +
+                        " (" + window.getRooms().size() + " room(s))");
+            }
+            System.out.print("Select dates (1-" + windows.size() + ") or '0' to cancel: ");
+
+            int choice;
+            try {
+                choice = Integer.parseInt(scanner.nextLine().trim());
+            } catch (NumberFormatException e) {
+                choice = 0;
+            }
+            if (choice < 1 || choice > windows.size()) {
+                System.out.println("Booking cancelled.");
+                return;
+            }
+
+            AvailabilityWindow window = windows.get(choice - 1);
+            availableRooms = window.getRooms();
+            checkIn = window.getCheckInDate();
+            checkOut = window.getCheckOutDate();
         }
 
         // Display available rooms
@@ -176,7 +193,7 @@ public class MainMenu {
         System.out.println("\n=== MY RESERVATIONS ===");
 
         System.out.print("Enter your email: ");
-        String email = scanner.nextLine().trim().toLowerCase();
+        String email = scanner.nextLine().trim(); // lookups ignore case
 
         Collection<Reservation> reservations = hotelResource.getCustomersReservations(email);
 
@@ -204,7 +221,7 @@ public class MainMenu {
         String lastName = scanner.nextLine().trim();
 
         System.out.print("Enter email: ");
-        String email = scanner.nextLine().trim().toLowerCase();
+        String email = scanner.nextLine().trim(); // lookups ignore case
 
         try {
             hotelResource.createACustomer(email, firstName, lastName);